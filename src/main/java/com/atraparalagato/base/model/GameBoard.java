@@ -2,6 +2,7 @@ package com.atraparalagato.base.model;
 
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
@@ -82,6 +83,15 @@ public abstract class GameBoard<T extends Position> {
      */
     public abstract List<T> getAdjacentPositions(T position);
     
+    /**
+     * Visita las posiciones adyacentes libres sin construir listas ni streams.
+     * Por defecto delega en getAdjacentPositions; los tableros pueden
+     * sobrescribirlo para recorrer sus vecinos sin asignar memoria.
+     */
+    public void forEachAdjacentPosition(T position, Consumer<? super T> visitor) {
+        getAdjacentPositions(position).forEach(visitor);
+    }
+    
     /**
      * Verifica si una posición está bloqueada.
      * Método de consulta básico.
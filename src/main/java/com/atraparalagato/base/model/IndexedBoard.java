@@ -0,0 +1,35 @@
+package com.atraparalagato.base.model;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Tablero cuyas celdas tienen índices densos en [0, getCellCount()).
+ *
+ * Interface Segregation: sólo la implementan los tableros que pueden
+ * numerar sus celdas. Quien quiera recorrer por índices debe comprobar
+ * con instanceof que el tablero la implementa y, si no, recorrer por
+ * posiciones con GameBoard.
+ */
+public interface IndexedBoard<T extends Position> {
+
+    /**
+     * Visita los índices de las celdas adyacentes libres a la celda index.
+     */
+    void forEachAdjacentIndex(int index, IntConsumer visitor);
+
+    /**
+     * Cantidad de celdas del tablero, que define el rango [0, getCellCount())
+     * de los índices de celda.
+     */
+    int getCellCount();
+
+    /**
+     * Índice denso de una posición, o -1 si está fuera del tablero.
+     */
+    int indexOf(T position);
+
+    /**
+     * Posición asociada a un índice de celda.
+     */
+    T positionAt(int index);
+}
@@ -1,5 +1,7 @@
 package com.atraparalagato.base.repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
@@ -30,6 +32,19 @@ public abstract class DataRepository<T, ID> {
      */
     public abstract T save(T entity);
     
+    /**
+     * Guarda varias entidades de una vez.
+     * Por defecto llama a save con cada una; las implementaciones con BD pueden
+     * agruparlas en un solo lote.
+     */
+    public List<T> saveAll(Collection<T> entities) {
+        List<T> saved = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            saved.add(save(entity));
+        }
+        return saved;
+    }
+    
     /**
      * Busca una entidad por su identificador.
      * Retorna Optional para manejar casos donde no existe.
@@ -1,9 +1,11 @@
 package com.atraparalagato.controller;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
@@ -11,11 +13,11 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.atraparalagato.base.model.GameState;
 import com.atraparalagato.example.service.ExampleGameService;
 import com.atraparalagato.impl.model.HexGameState;
 import com.atraparalagato.impl.model.HexPosition;
@@ -39,6 +41,10 @@ public class GameController {
 	@Value("${game.use-example-implementation:true}")
 	private boolean useExampleImplementation;
 
+	// Movimientos por pedido en /block-batch; el juego queda tomado mientras se aplican
+	@Value("${game.batch.max-moves:1000}")
+	private int batchMaxMoves;
+
 	private final ExampleGameService exampleGameService;
 	private final HexGameService hexGameService;
 
@@ -72,7 +78,7 @@ public class GameController {
 	public ResponseEntity<Map<String, Object>> blockPosition(@RequestParam String gameId, @RequestParam int q,
 			@RequestParam int r) {
 		try {
-			HexPosition position = new HexPosition(q, r);
+			HexPosition position = HexPosition.of(q, r);
 
 			if (useExampleImplementation) {
 				return blockPositionWithExample(gameId, position);
@@ -85,6 +91,89 @@ public class GameController {
 		}
 	}
 
+	/**
+	 * Ejecuta en orden varios movimientos del jugador, para bots e importación de
+	 * partidas. El cuerpo es la lista de celdas, [{"q": 1, "r": -2}, ...]; el gato
+	 * responde a cada una y el juego se guarda una sola vez al final. Responde el
+	 * estado final y el resultado de cada movimiento en "moves": "applied",
+	 * "rejected", "paused" si el juego está en pausa o "skipped" si ya terminó.
+	 */
+	@PostMapping("/block-batch")
+	public ResponseEntity<Map<String, Object>> blockPositions(@RequestParam String gameId,
+			@RequestBody List<Map<String, Integer>> moves) {
+		try {
+			if (useExampleImplementation)
+				return ResponseEntity.ok(Map.of("error", "Movimientos en lote no implementados en el ejemplo."));
+			if (moves.size() > batchMaxMoves)
+				return ResponseEntity.badRequest()
+						.body(Map.of("error", "Demasiados movimientos en el lote: " + moves.size() + " (máximo "
+								+ batchMaxMoves + ")"));
+
+			List<HexPosition> positions = new ArrayList<>(moves.size());
+			for (Map<String, Integer> move : moves) {
+				if (move.get("q") == null || move.get("r") == null)
+					return ResponseEntity.badRequest().body(Map.of("error", "Movimiento sin q o r: " + move));
+				positions.add(HexPosition.of(move.get("q"), move.get("r")));
+			}
+
+			Optional<Map<String, Object>> result = hexGameService.blockPositions(gameId, positions,
+					(gameState, outcomes) -> {
+						Map<String, Object> response = blockResponse(gameState);
+						response.put("moves", outcomes);
+						response.put("appliedMoves",
+								outcomes.stream().filter(outcome -> "applied".equals(outcome.get("result"))).count());
+						return response;
+					});
+			if (result.isEmpty())
+				return ResponseEntity.ok(Map.of("error", "No se ha encontrado el juego", "message",
+						"El identificador es inválido.", "implementation", "impl"));
+			return ResponseEntity.ok(result.get());
+		} catch (Exception e) {
+			return ResponseEntity.internalServerError()
+					.body(Map.of("error", "Error al ejecutar movimientos: " + e.getMessage()));
+		}
+	}
+
+	/**
+	 * Ejecuta un movimiento del jugador sin ocupar el hilo del pedido. Responde
+	 * apenas el estado en memoria es el final, con "durable" en true si ya está
+	 * escrito en la base de datos; si no, o si la escritura falló,
+	 * /durability/{gameId} avisa cuando lo esté.
+	 */
+	@PostMapping("/block-async")
+	public CompletableFuture<ResponseEntity<Map<String, Object>>> blockPositionAsync(@RequestParam String gameId,
+			@RequestParam int q, @RequestParam int r) {
+		if (useExampleImplementation)
+			return CompletableFuture.completedFuture(blockPosition(gameId, q, r));
+
+		return hexGameService.blockPositionAsync(gameId, HexPosition.of(q, r), this::blockResponse)
+				.thenApply(result -> {
+					if (result.isEmpty())
+						return ResponseEntity.ok(Map.<String, Object>of("error", "No se ha encontrado el juego",
+								"message", "El identificador es inválido.", "implementation", "impl"));
+					Map<String, Object> response = result.get();
+					CompletableFuture<Void> durable = hexGameService.whenDurable(gameId);
+					response.put("durable", durable.isDone() && !durable.isCompletedExceptionally());
+					return ResponseEntity.ok(response);
+				}).exceptionally(e -> ResponseEntity.internalServerError()
+						.body(Map.of("error", "Error al ejecutar movimiento: " + e.getMessage())));
+	}
+
+	/**
+	 * Responde cuando los movimientos ya aplicados al juego están escritos en la
+	 * base de datos.
+	 */
+	@GetMapping("/durability/{gameId}")
+	public CompletableFuture<ResponseEntity<Map<String, Object>>> awaitDurability(@PathVariable String gameId) {
+		if (useExampleImplementation)
+			return CompletableFuture.completedFuture(ResponseEntity.ok(Map.of("gameId", gameId, "durable", true)));
+
+		return hexGameService.whenDurable(gameId)
+				.thenApply(done -> ResponseEntity.ok(Map.<String, Object>of("gameId", gameId, "durable", true)))
+				.exceptionally(e -> ResponseEntity.internalServerError()
+						.body(Map.of("gameId", gameId, "durable", false, "error", String.valueOf(e.getMessage()))));
+	}
+
 	/**
 	 * Ejecuta un togglePause del juego.
 	 */
@@ -166,6 +255,27 @@ public class GameController {
 		}
 	}
 
+	/**
+	 * Obtiene los k bloqueos que más reducen el corte mínimo entre el gato y la
+	 * salida.
+	 */
+	@GetMapping("/suggestions/{gameId}")
+	public ResponseEntity<Map<String, Object>> getBlockSuggestions(@PathVariable String gameId,
+			@RequestParam(defaultValue = "3") int k) {
+		try {
+			if (useExampleImplementation)
+				return ResponseEntity.badRequest()
+						.body(Map.of("error", "Sugerencias no disponibles en la implementación de ejemplo"));
+			Optional<Map<String, Object>> result = hexGameService.getBlockSuggestions(gameId, k);
+			if (result.isEmpty())
+				return ResponseEntity.notFound().build();
+			return ResponseEntity.ok(result.get());
+		} catch (Exception e) {
+			return ResponseEntity.internalServerError()
+					.body(Map.of("error", "Error al obtener sugerencias: " + e.getMessage()));
+		}
+	}
+
 	/**
 	 * Obtiene información sobre qué implementación se está usando.
 	 */
@@ -180,6 +290,19 @@ public class GameController {
 		return ResponseEntity.ok(info);
 	}
 
+	/**
+	 * Obtiene las métricas de rendimiento del servicio (cachés, contadores).
+	 */
+	@GetMapping("/metrics")
+	public ResponseEntity<Map<String, Object>> getMetrics() {
+		try {
+			return ResponseEntity.ok(hexGameService.getMetrics());
+		} catch (Exception e) {
+			return ResponseEntity.internalServerError()
+					.body(Map.of("error", "Error al obtener métricas: " + e.getMessage()));
+		}
+	}
+
 	@GetMapping("/high-scores")
 	public ResponseEntity<List<Map<String, Object>>> getHighScores(@RequestParam int limit) {
 	    try {
@@ -238,7 +361,8 @@ public class GameController {
 	            );
 	            return ResponseEntity.ok(errorMap);
 	        } else {
-	            var result = hexGameService.getGame(gameId);
+	            var result = hexGameService.savePlayerScore(gameId, playerName,
+	            		gameState -> (Map<String, Object>) gameState.getSerializableState());
 	            if(result.isEmpty()) {
 		            Map<String, Object> errorMap = Map.of(
 			                "error", "Juego no encontrado",
@@ -247,10 +371,7 @@ public class GameController {
 			            );
 			            return ResponseEntity.ok(errorMap);
 	            }
-	            var hexGameState = (HexGameState)result.get();
-	            hexGameState.setPlayerId(playerName);
-	            hexGameState = hexGameService.saveGameState(hexGameState);
-	            return ResponseEntity.ok((Map<String, Object>)hexGameState.getSerializableState());
+	            return ResponseEntity.ok(result.get());
 	        }
 	    } catch (Exception e) {
 	        Map<String, Object> error = Map.of(
@@ -348,14 +469,27 @@ public class GameController {
 			HexPosition position) {
 		// TODO: Los estudiantes deben implementar esto usando sus propias clases
 
-		Optional<GameState<HexPosition>> result = hexGameService.executePlayerMove(gameId, position);
+		Optional<HexGameState> result = hexGameService.blockPosition(gameId, position);
 
 		if (result.isEmpty())
 			return ResponseEntity.ok(Map.of("error", "No se ha encontrado el juego", "message",
 					"El identificador es inválido.", "implementation", "impl"));
 
-		var gameState = (HexGameState) result.get();
+		return ResponseEntity.ok(blockResponse(result.get()));
+
+//        return ResponseEntity.ok(Map.of(
+//            "error", "Student implementation not available yet",
+//            "message", "Los estudiantes deben completar sus implementaciones en el paquete 'impl'",
+//            "implementation", "impl"
+//        ));
+	}
 
+	/**
+	 * Respuesta de un movimiento y del estado del juego; en la variante asíncrona
+	 * y en /state se arma bajo el lock del juego, antes de que otro movimiento
+	 * cambie el estado.
+	 */
+	private Map<String, Object> blockResponse(HexGameState gameState) {
 		Map<String, Object> response = new HashMap<>();
 		response.put("gameId", gameState.getGameId());
 		response.put("status", gameState.getStatus().toString());
@@ -364,35 +498,19 @@ public class GameController {
 		response.put("blockedCells", gameState.getGameBoard().getBlockedPositions());
 		response.put("movesCount", gameState.getMoveCount());
 		response.put("implementation", "impl");
-
-		return ResponseEntity.ok(response);
-
-//        return ResponseEntity.ok(Map.of(
-//            "error", "Student implementation not available yet",
-//            "message", "Los estudiantes deben completar sus implementaciones en el paquete 'impl'",
-//            "implementation", "impl"
-//        ));
+		return response;
 	}
 
 	private ResponseEntity<Map<String, Object>> getGameStateWithStudentImplementation(String gameId) {
 		// TODO: Los estudiantes deben implementar esto usando sus propias clases
-		Optional<HexGameState> result = hexGameService.obtainGameStatus(gameId);
+		// La respuesta se arma bajo el lock del juego, como la de un movimiento
+		Optional<Map<String, Object>> result = hexGameService.obtainGameStatus(gameId, this::blockResponse);
 
 		if (result.isEmpty())
 			return ResponseEntity.ok(Map.of("error", "No se ha encontrado el juego", "message",
 					"El identificador es inválido.", "implementation", "impl"));
 
-		var gameState = (HexGameState) result.get();
-
-		Map<String, Object> response = new HashMap<>();
-		response.put("gameId", gameState.getGameId());
-		response.put("status", gameState.getStatus().toString());
-		response.put("catPosition",
-				Map.of("q", gameState.getCatPosition().getQ(), "r", gameState.getCatPosition().getR()));
-		response.put("blockedCells", gameState.getGameBoard().getBlockedPositions());
-		response.put("movesCount", gameState.getMoveCount());
-		response.put("implementation", "impl");
-		return ResponseEntity.ok(response);
+		return ResponseEntity.ok(result.get());
 //        return ResponseEntity.ok(Map.of(
 //            "error", "Student implementation not available yet",
 //            "message", "Los estudiantes deben completar sus implementaciones en el paquete 'impl'",
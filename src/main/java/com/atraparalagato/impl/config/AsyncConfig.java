@@ -0,0 +1,32 @@
+package com.atraparalagato.impl.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AsyncConfig {
+
+    @Value("${game.async.threads:0}")
+    private int asyncThreads;
+
+    /**
+     * Hilos que aplican los movimientos de los endpoints asíncronos; 0 hilos usa
+     * todos los núcleos. El hilo del pedido queda libre mientras se calcula el
+     * movimiento del gato.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService gameMoveExecutor() {
+        int threads = asyncThreads > 0 ? asyncThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "game-move-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
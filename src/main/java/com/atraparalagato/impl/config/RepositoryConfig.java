@@ -0,0 +1,57 @@
+package com.atraparalagato.impl.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.atraparalagato.base.model.GameState;
+import com.atraparalagato.base.repository.DataRepository;
+import com.atraparalagato.impl.model.HexPosition;
+import com.atraparalagato.impl.repository.CachedGameRepository;
+import com.atraparalagato.impl.repository.H2GameRepository;
+import com.atraparalagato.impl.repository.JdbcPermits;
+import com.atraparalagato.impl.service.GameLocks;
+
+@Configuration
+public class RepositoryConfig {
+
+    @Value("${game.session-cache.max-entries:10000}")
+    private int sessionCacheMaxEntries;
+
+    @Value("${game.session-cache.flush-interval-ms:200}")
+    private long sessionCacheFlushIntervalMillis;
+
+    @Value("${game.jdbc.max-concurrent:10}")
+    private int jdbcMaxConcurrent;
+
+    @Value("${game.locks.stripes:256}")
+    private int gameLockStripes;
+
+    /**
+     * Repositorio que usa el servicio: los juegos en curso se sirven desde
+     * memoria y se escriben en H2 en segundo plano.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @Primary
+    public CachedGameRepository cachedGameRepository(H2GameRepository h2GameRepository) {
+        return new CachedGameRepository(h2GameRepository, sessionCacheMaxEntries, sessionCacheFlushIntervalMillis);
+    }
+
+    /**
+     * Locks por juego del servicio; con la caché de sesiones varios pedidos
+     * comparten el mismo estado en memoria.
+     */
+    @Bean
+    public GameLocks gameLocks() {
+        return new GameLocks(gameLockStripes);
+    }
+
+    /**
+     * Cota de llamadas JDBC simultáneas de H2GameRepository.
+     */
+    @Bean
+    public JdbcPermits jdbcPermits() {
+        return new JdbcPermits(jdbcMaxConcurrent);
+    }
+}
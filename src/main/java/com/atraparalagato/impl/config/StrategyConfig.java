@@ -10,6 +10,12 @@ import com.atraparalagato.impl.factories.HexBoardFactory;
 import com.atraparalagato.impl.model.HexPosition;
 import com.atraparalagato.impl.strategy.AStarCatMovement;
 import com.atraparalagato.impl.strategy.BFSCatMovement;
+import com.atraparalagato.impl.strategy.CatMoveCache;
+import com.atraparalagato.impl.strategy.HexTablebaseLibrary;
+import com.atraparalagato.impl.strategy.MctsCatMovement;
+import com.atraparalagato.impl.strategy.MctsSearchPool;
+import com.atraparalagato.impl.strategy.OpeningBook;
+import com.atraparalagato.impl.strategy.SearchDeadlineMonitor;
 
 @Configuration
 public class StrategyConfig {
@@ -17,14 +23,78 @@ public class StrategyConfig {
     @Value("${game.strategy}")
     private String strategyName;
 
+    @Value("${game.cache.max-entries:100000}")
+    private int cacheMaxEntries;
+
+    @Value("${game.cache.segments:16}")
+    private int cacheSegments;
+
+    @Value("${game.mcts.playouts:4000}")
+    private int mctsPlayouts;
+
+    @Value("${game.mcts.threads:0}")
+    private int mctsThreads;
+
+    @Value("${game.tablebase.dir:}")
+    private String tablebaseDir;
+
+    @Value("${game.opening-book.path:}")
+    private String openingBookPath;
+
+    @Value("${game.search.deadline-ms:50}")
+    private long searchDeadlineMillis;
+
     @Bean
-    public CatMovementStrategy<HexPosition> catMovementStrategy(HexBoardFactory factory) {
+    public CatMovementStrategy<HexPosition> catMovementStrategy(HexBoardFactory factory,
+            MctsSearchPool mctsSearchPool) {
         GameBoard<HexPosition> board = factory.apply(11);
 
         return switch (strategyName) {
             case "aStar" -> new AStarCatMovement(board);
             case "bfs" -> new BFSCatMovement(board);
+            case "mcts" -> new MctsCatMovement(board, mctsSearchPool);
             default -> throw new IllegalArgumentException("Estrategia desconocida: " + strategyName);
         };
     }
+
+    /**
+     * Caché de decisiones del gato compartida por todos los juegos.
+     */
+    @Bean
+    public CatMoveCache catMoveCache() {
+        return new CatMoveCache(cacheMaxEntries, cacheSegments);
+    }
+
+    /**
+     * Hilos compartidos por las búsquedas MCTS; 0 hilos usa todos los núcleos.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public MctsSearchPool mctsSearchPool() {
+        return new MctsSearchPool(mctsThreads, mctsPlayouts);
+    }
+
+    /**
+     * Tablas de finales para tableros pequeños; sin directorio no se usan.
+     */
+    @Bean
+    public HexTablebaseLibrary hexTablebaseLibrary() {
+        return new HexTablebaseLibrary(tablebaseDir);
+    }
+
+    /**
+     * Libro de aperturas; sin archivo queda vacío y decide la estrategia.
+     */
+    @Bean
+    public OpeningBook openingBook() {
+        return OpeningBook.loadOrEmpty(openingBookPath);
+    }
+
+    /**
+     * Plazo por movimiento del gato y estadísticas de las búsquedas que lo
+     * alcanzan; 0 no corta las búsquedas.
+     */
+    @Bean
+    public SearchDeadlineMonitor searchDeadlineMonitor() {
+        return new SearchDeadlineMonitor(searchDeadlineMillis);
+    }
 }
@@ -0,0 +1,348 @@
+package com.atraparalagato.impl.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Geometría inmutable de un tablero hexagonal de un tamaño dado.
+ *
+ * Asigna a cada celda (q, r) con max(|q|, |r|, |s|) <= size un índice denso en
+ * el rango [0, getCellCount()). Las celdas se numeran por columnas de q y,
+ * dentro de cada columna, por r creciente.
+ *
+ * También precalcula la tabla de adyacencia en formato CSR: los vecinos de la
+ * celda i son neighborAt(k) para k en [neighborStart(i), neighborEnd(i)), en el
+ * orden de {@link #DIRECTIONS}.
+ *
+ * Agrupa las celdas por anillo, max(|q|, |r|, |s|): el anillo de cada celda,
+ * las celdas de cada anillo (en formato CSR, como los vecinos) y la distancia
+ * exacta al borde y a la salida más cercanos en un tablero vacío, que sirven
+ * como heurísticas admisibles.
+ *
+ * Además define las claves Zobrist del tamaño: una por celda bloqueada, una
+ * por posición del gato y una del tamaño. El hash de una posición es el XOR de
+ * las claves que la componen, por lo que se actualiza con un XOR por cambio.
+ * Las claves son deterministas, así que un mismo hash identifica la misma
+ * posición en cualquier ejecución.
+ *
+ * Como no depende del estado de ningún juego, existe una única instancia por
+ * tamaño, compartida por todos los tableros (ver {@link #of(int)}).
+ */
+public final class HexBoardLayout {
+
+	/**
+	 * Direcciones hexagonales (dq, dr): Este, Noreste, Noroeste, Oeste, Suroeste y
+	 * Sureste.
+	 */
+	static final int[][] DIRECTIONS = { { 1, 0 }, { 1, -1 }, { 0, -1 }, { -1, 0 }, { -1, 1 }, { 0, 1 } };
+
+	private static final Map<Integer, HexBoardLayout> LAYOUTS = new ConcurrentHashMap<>();
+
+	private final int size;
+	private final int cellCount;
+	/**
+	 * Índice de la primera celda de cada columna q (desplazado en size).
+	 */
+	private final int[] columnOffsets;
+	private final int[] cellQ;
+	private final int[] cellR;
+	private final HexPosition[] positions;
+	private final int[] neighborOffsets;
+	private final int[] neighbors;
+	private final int[] rings;
+	private final int[] ringOffsets;
+	private final int[] ringCells;
+	private final int[] escapeDistances;
+	private final long[] blockedKeys;
+	private final long[] catKeys;
+	private final long sizeKey;
+
+	private HexBoardLayout(int size) {
+		if (size < 0)
+			throw new IllegalArgumentException("El tamaño del tablero no puede ser negativo: " + size);
+
+		this.size = size;
+		this.columnOffsets = new int[2 * size + 1];
+
+		int count = 0;
+		for (int q = -size; q <= size; q++) {
+			columnOffsets[q + size] = count;
+			count += minR(q) <= maxR(q) ? maxR(q) - minR(q) + 1 : 0;
+		}
+		this.cellCount = count;
+
+		this.cellQ = new int[cellCount];
+		this.cellR = new int[cellCount];
+		this.positions = new HexPosition[cellCount];
+		int index = 0;
+		for (int q = -size; q <= size; q++) {
+			for (int r = minR(q); r <= maxR(q); r++) {
+				cellQ[index] = q;
+				cellR[index] = r;
+				positions[index] = HexPosition.of(q, r);
+				index++;
+			}
+		}
+
+		this.neighborOffsets = new int[cellCount + 1];
+		int[] buffer = new int[cellCount * DIRECTIONS.length];
+		int edges = 0;
+		for (int i = 0; i < cellCount; i++) {
+			neighborOffsets[i] = edges;
+			for (int[] dir : DIRECTIONS) {
+				int neighbor = indexOf(cellQ[i] + dir[0], cellR[i] + dir[1]);
+				if (neighbor >= 0)
+					buffer[edges++] = neighbor;
+			}
+		}
+		neighborOffsets[cellCount] = edges;
+		this.neighbors = Arrays.copyOf(buffer, edges);
+
+		this.rings = new int[cellCount];
+		this.ringOffsets = new int[size + 2];
+		for (int i = 0; i < cellCount; i++) {
+			rings[i] = ringOf(cellQ[i], cellR[i]);
+			ringOffsets[rings[i] + 1]++;
+		}
+		for (int ring = 0; ring <= size; ring++) {
+			ringOffsets[ring + 1] += ringOffsets[ring];
+		}
+		this.ringCells = new int[cellCount];
+		int[] fill = Arrays.copyOf(ringOffsets, size + 1);
+		for (int i = 0; i < cellCount; i++) {
+			ringCells[fill[rings[i]]++] = i;
+		}
+
+		/*
+		 * Hasta el anillo size - 1 todas las celdas son salida; las interiores llegan
+		 * a él avanzando hacia afuera. En el anillo size solo las esquinas no son
+		 * salida, y están a un paso de una.
+		 */
+		this.escapeDistances = new int[cellCount];
+		for (int i = 0; i < cellCount; i++) {
+			escapeDistances[i] = isEscape(i) ? 0 : Math.max(1, size - 1 - rings[i]);
+		}
+
+		this.blockedKeys = new long[cellCount];
+		this.catKeys = new long[cellCount];
+		long seed = mix(0x5A0B7C1DL + size);
+		for (int i = 0; i < cellCount; i++) {
+			blockedKeys[i] = mix(seed + 2L * i);
+			catKeys[i] = mix(seed + 2L * i + 1);
+		}
+		this.sizeKey = mix(seed - 1);
+	}
+
+	/**
+	 * Obtiene la geometría compartida para el tamaño indicado.
+	 */
+	public static HexBoardLayout of(int size) {
+		return LAYOUTS.computeIfAbsent(size, HexBoardLayout::new);
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Cantidad de celdas del tablero: 3 * size * (size + 1) + 1.
+	 */
+	public int getCellCount() {
+		return cellCount;
+	}
+
+	/**
+	 * Índice denso de la celda (q, r) o -1 si está fuera del tablero.
+	 */
+	public int indexOf(int q, int r) {
+		if (q < -size || q > size)
+			return -1;
+		int minR = minR(q);
+		if (r < minR || r > maxR(q))
+			return -1;
+		return columnOffsets[q + size] + r - minR;
+	}
+
+	/**
+	 * Índice denso de la posición o -1 si está fuera del tablero.
+	 */
+	public int indexOf(HexPosition position) {
+		return indexOf(position.getQ(), position.getR());
+	}
+
+	public boolean contains(int q, int r) {
+		return indexOf(q, r) >= 0;
+	}
+
+	public int getQ(int index) {
+		return cellQ[index];
+	}
+
+	public int getR(int index) {
+		return cellR[index];
+	}
+
+	/**
+	 * Posición asociada a un índice. Siempre retorna la misma instancia.
+	 */
+	public HexPosition positionAt(int index) {
+		return positions[index];
+	}
+
+	/**
+	 * Verifica si la celda está en el anillo exterior, por donde escapa el gato.
+	 */
+	public boolean isBorder(int index) {
+		return rings[index] == size;
+	}
+
+	/**
+	 * Anillo de la celda: max(|q|, |r|, |s|), 0 en el centro y size en el borde.
+	 */
+	public int getRing(int index) {
+		return rings[index];
+	}
+
+	/**
+	 * Primera posición en la tabla de celdas del anillo.
+	 */
+	public int ringStart(int ring) {
+		return ringOffsets[ring];
+	}
+
+	/**
+	 * Posición siguiente a la última en la tabla de celdas del anillo.
+	 */
+	public int ringEnd(int ring) {
+		return ringOffsets[ring + 1];
+	}
+
+	/**
+	 * Índice de la celda guardada en la posición k de la tabla de anillos.
+	 */
+	public int ringCellAt(int k) {
+		return ringCells[k];
+	}
+
+	/**
+	 * Pasos desde la celda hasta el anillo exterior: size - max(|q|, |r|, |s|).
+	 * Es exacta en un tablero vacío y nunca sobreestima con bloqueos.
+	 */
+	public int distanceToBorder(int index) {
+		return size - rings[index];
+	}
+
+	/**
+	 * Pasos desde la celda hasta la salida más cercana ({@link #isEscape(int)}) en
+	 * un tablero vacío; con bloqueos es una cota inferior.
+	 */
+	public int escapeDistance(int index) {
+		return escapeDistances[index];
+	}
+
+	/**
+	 * Celda del anillo indicado más cercana a (q, r), que está en ese anillo o en
+	 * uno interior: se lleva a ±ring la coordenada de mayor valor absoluto y se
+	 * deja fija otra, así la distancia es exactamente la diferencia de anillos.
+	 * Retorna -1 si no existe tal celda en el tablero.
+	 */
+	public int nearestOnRing(int q, int r, int ring) {
+		if (ring < 0 || ring > size)
+			return -1;
+		int s = -q - r;
+		int aq = Math.abs(q), ar = Math.abs(r), as = Math.abs(s);
+		if (aq >= ar && aq >= as)
+			return indexOf(q < 0 ? -ring : ring, r);
+		if (ar >= as)
+			return indexOf(q, r < 0 ? -ring : ring);
+		return indexOf(q, -q - (s < 0 ? -ring : ring));
+	}
+
+	/**
+	 * Verifica si el gato gana al llegar a la celda: las que tienen alguna
+	 * coordenada en ±(size - 1), igual que {@link HexGameBoard#isAtBorder}. El
+	 * jugador puede bloquearlas como a cualquier otra celda libre.
+	 */
+	public boolean isEscape(int index) {
+		int edge = size - 1;
+		int q = cellQ[index];
+		int r = cellR[index];
+		return Math.abs(q) == edge || Math.abs(r) == edge || Math.abs(q + r) == edge;
+	}
+
+	/**
+	 * Verifica si la posición es una salida ({@link #isEscape(int)}); las que
+	 * están fuera del tablero no lo son. Es el objetivo del gato que usan todas
+	 * las estrategias.
+	 */
+	public boolean isEscape(HexPosition position) {
+		int index = indexOf(position);
+		return index >= 0 && isEscape(index);
+	}
+
+	/**
+	 * Primera posición en la tabla de vecinos de la celda index.
+	 */
+	public int neighborStart(int index) {
+		return neighborOffsets[index];
+	}
+
+	/**
+	 * Posición siguiente a la última en la tabla de vecinos de la celda index.
+	 */
+	public int neighborEnd(int index) {
+		return neighborOffsets[index + 1];
+	}
+
+	/**
+	 * Índice de la celda vecina guardada en la posición k de la tabla.
+	 */
+	public int neighborAt(int k) {
+		return neighbors[k];
+	}
+
+	/**
+	 * Clave Zobrist de la celda index cuando está bloqueada.
+	 */
+	public long blockedKey(int index) {
+		return blockedKeys[index];
+	}
+
+	/**
+	 * Clave Zobrist del gato ubicado en la celda index. Con index -1 (gato fuera
+	 * del tablero) retorna 0.
+	 */
+	public long catKey(int index) {
+		return index < 0 ? 0L : catKeys[index];
+	}
+
+	/**
+	 * Clave Zobrist del tamaño del tablero, para que tableros vacíos de distinto
+	 * tamaño no tengan el mismo hash.
+	 */
+	public long sizeKey() {
+		return sizeKey;
+	}
+
+	/**
+	 * Mezcla SplitMix64, usada para derivar las claves Zobrist.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	private static int ringOf(int q, int r) {
+		return Math.max(Math.abs(q), Math.max(Math.abs(r), Math.abs(q + r)));
+	}
+
+	private int minR(int q) {
+		return Math.max(-size, -q - size);
+	}
+
+	private int maxR(int q) {
+		return Math.min(size, -q + size);
+	}
+}
@@ -0,0 +1,158 @@
+package com.atraparalagato.impl.model;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Conjunto de celdas de un tablero hexagonal respaldado por un bitset.
+ *
+ * Cada celda ocupa un bit en un long[] según su índice en
+ * {@link HexBoardLayout}, por lo que consultar, agregar o quitar una celda no
+ * requiere calcular hashes ni crear objetos. Las operaciones por índice
+ * ({@link #containsIndex(int)}, {@link #addIndex(int)}) evitan incluso la
+ * conversión desde HexPosition.
+ *
+ * Sólo admite posiciones dentro del tablero.
+ */
+public class HexCellSet extends AbstractSet<HexPosition> {
+
+	private final HexBoardLayout layout;
+	private final long[] words;
+	private int count;
+
+	public HexCellSet(HexBoardLayout layout) {
+		this.layout = layout;
+		this.words = new long[(layout.getCellCount() + 63) >>> 6];
+	}
+
+	public HexBoardLayout getLayout() {
+		return layout;
+	}
+
+	public boolean containsIndex(int index) {
+		return (words[index >>> 6] & (1L << index)) != 0;
+	}
+
+	/**
+	 * Agrega la celda del índice dado.
+	 *
+	 * @return true si la celda no estaba en el conjunto.
+	 */
+	public boolean addIndex(int index) {
+		long mask = 1L << index;
+		long word = words[index >>> 6];
+		if ((word & mask) != 0)
+			return false;
+		words[index >>> 6] = word | mask;
+		count++;
+		return true;
+	}
+
+	/**
+	 * Quita la celda del índice dado.
+	 *
+	 * @return true si la celda estaba en el conjunto.
+	 */
+	public boolean removeIndex(int index) {
+		long mask = 1L << index;
+		long word = words[index >>> 6];
+		if ((word & mask) == 0)
+			return false;
+		words[index >>> 6] = word & ~mask;
+		count--;
+		return true;
+	}
+
+	/**
+	 * Índice de la primera celda del conjunto mayor o igual a fromIndex, o -1 si no
+	 * hay más.
+	 */
+	public int nextIndex(int fromIndex) {
+		int wordIndex = fromIndex >>> 6;
+		if (wordIndex >= words.length)
+			return -1;
+		long word = words[wordIndex] & (-1L << fromIndex);
+		while (true) {
+			if (word != 0)
+				return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+			if (++wordIndex == words.length)
+				return -1;
+			word = words[wordIndex];
+		}
+	}
+
+	/**
+	 * Copia los bits del conjunto en target, que debe tener al menos
+	 * (getCellCount() + 63) / 64 elementos.
+	 */
+	public void copyBitsTo(long[] target) {
+		System.arraycopy(words, 0, target, 0, words.length);
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (!(o instanceof HexPosition position))
+			return false;
+		int index = layout.indexOf(position);
+		return index >= 0 && containsIndex(index);
+	}
+
+	@Override
+	public boolean add(HexPosition position) {
+		int index = layout.indexOf(position);
+		if (index < 0)
+			throw new IllegalArgumentException("Posición fuera del tablero: " + position);
+		return addIndex(index);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (!(o instanceof HexPosition position))
+			return false;
+		int index = layout.indexOf(position);
+		return index >= 0 && removeIndex(index);
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(words, 0L);
+		count = 0;
+	}
+
+	@Override
+	public int size() {
+		return count;
+	}
+
+	@Override
+	public Iterator<HexPosition> iterator() {
+		return new Iterator<>() {
+			private int next = nextIndex(0);
+			private int last = -1;
+
+			@Override
+			public boolean hasNext() {
+				return next >= 0;
+			}
+
+			@Override
+			public HexPosition next() {
+				if (next < 0)
+					throw new NoSuchElementException();
+				last = next;
+				next = nextIndex(next + 1);
+				return layout.positionAt(last);
+			}
+
+			@Override
+			public void remove() {
+				if (last < 0)
+					throw new IllegalStateException();
+				removeIndex(last);
+				last = -1;
+			}
+		};
+	}
+}
@@ -0,0 +1,569 @@
+package com.atraparalagato.impl.model;
+
+import java.util.Arrays;
+
+import com.atraparalagato.impl.strategy.IndexedMinHeap;
+
+/**
+ * Grafo abstracto para buscar caminos en tableros muy grandes (HPA*).
+ *
+ * Divide el tablero en grupos de celdas: rombos de clusterSize x clusterSize en
+ * coordenadas axiales. Entre cada par de grupos vecinos, los pares de celdas
+ * libres adyacentes que cruzan el límite se agrupan según las regiones
+ * conectadas (dentro de cada grupo) a las que pertenecen sus dos celdas, y cada
+ * grupo de pares aporta una entrada: su par central. Así cualquier cruce del
+ * límite se puede reemplazar por la entrada de sus regiones, y con bloqueos
+ * dispersos queda una entrada por límite en lugar de una por tramo libre. Las
+ * celdas de las entradas son los nodos del grafo; dentro de cada grupo se
+ * precalcula la distancia entre sus nodos y desde cada uno a la salida más
+ * cercana del grupo, con BFS que no salen del grupo.
+ *
+ * Un camino se planifica sobre los nodos, con A* y la distancia a la salida
+ * como heurística, y solo se refina el primer tramo, dentro del grupo del gato,
+ * para obtener su siguiente paso. El camino resultante puede ser algo más largo
+ * que el mínimo, a cambio de explorar unos pocos nodos por grupo en lugar de
+ * todas las celdas.
+ *
+ * Al bloquear una celda solo se recalculan las regiones de su grupo, las
+ * entradas de sus límites y, la próxima vez que se consulta, las distancias de
+ * ese grupo y sus vecinos.
+ */
+public class HexClusterGraph {
+
+	public static final int DEFAULT_CLUSTER_SIZE = 8;
+
+	private static final int INF = Integer.MAX_VALUE / 2;
+	private static final int[][] DIRECTIONS = HexBoardLayout.DIRECTIONS;
+
+	private final HexBoardLayout layout;
+	private final HexCellSet blocked;
+	private final int clusterSize;
+	private final int tilesPerAxis;
+	/**
+	 * Grupo de cada celda.
+	 */
+	private final int[] clusterOf;
+	/**
+	 * Grupos por identificador; null para los rombos sin celdas del tablero.
+	 */
+	private final Cluster[] clusters;
+	/**
+	 * Posición de cada celda entre los nodos de su grupo, o -1 si no es nodo.
+	 */
+	private final int[] nodeIndex;
+	/**
+	 * Región conectada de cada celda libre dentro de su grupo, o -1 si está
+	 * bloqueada. Solo se comparan regiones de un mismo grupo.
+	 */
+	private final int[] region;
+	private int regionCount;
+	private final int[] dirtyClusters;
+	private final boolean[] dirty;
+	private int dirtyCount;
+
+	/*
+	 * Estructuras de los BFS dentro de un grupo. Una celda tiene distancia válida
+	 * si su marca coincide con la del último BFS.
+	 */
+	private final int[] queue;
+	private final int[] bfsMark;
+	private final int[] bfsDistance;
+	private final int[] bfsParent;
+	private int bfsStamp;
+
+	/*
+	 * Estructuras de la búsqueda sobre el grafo abstracto, indexadas por celda.
+	 */
+	private final int[] gScore;
+	private final int[] parentNode;
+	private final int[] seenMark;
+	private final int[] closedMark;
+	private int searchStamp;
+	private final IndexedMinHeap open;
+	private int[] goalCosts = new int[16];
+	private int expandedNodes;
+
+	public HexClusterGraph(HexBoardLayout layout, HexCellSet blocked) {
+		this(layout, blocked, DEFAULT_CLUSTER_SIZE);
+	}
+
+	/**
+	 * @param clusterSize lado de cada grupo, en celdas
+	 */
+	public HexClusterGraph(HexBoardLayout layout, HexCellSet blocked, int clusterSize) {
+		if (clusterSize < 2)
+			throw new IllegalArgumentException("El lado de los grupos debe ser al menos 2: " + clusterSize);
+		this.layout = layout;
+		this.blocked = blocked;
+		this.clusterSize = clusterSize;
+		int size = layout.getSize();
+		int cells = layout.getCellCount();
+		this.tilesPerAxis = 2 * size / clusterSize + 1;
+
+		this.clusterOf = new int[cells];
+		int[] counts = new int[tilesPerAxis * tilesPerAxis];
+		for (int i = 0; i < cells; i++) {
+			clusterOf[i] = tileOf(layout.getQ(i), layout.getR(i));
+			counts[clusterOf[i]]++;
+		}
+		this.clusters = new Cluster[counts.length];
+		for (int id = 0; id < counts.length; id++) {
+			if (counts[id] > 0)
+				clusters[id] = new Cluster(new int[counts[id]]);
+		}
+		int[] fill = new int[counts.length];
+		for (int i = 0; i < cells; i++) {
+			int id = clusterOf[i];
+			clusters[id].cells[fill[id]++] = i;
+		}
+		for (int id = 0; id < clusters.length; id++) {
+			if (clusters[id] == null)
+				continue;
+			int tq = id / tilesPerAxis;
+			int tr = id % tilesPerAxis;
+			for (int d = 0; d < DIRECTIONS.length; d++) {
+				int nq = tq + DIRECTIONS[d][0];
+				int nr = tr + DIRECTIONS[d][1];
+				boolean inside = nq >= 0 && nq < tilesPerAxis && nr >= 0 && nr < tilesPerAxis;
+				clusters[id].neighbors[d] = inside && clusters[nq * tilesPerAxis + nr] != null
+						? nq * tilesPerAxis + nr
+						: -1;
+			}
+		}
+
+		this.nodeIndex = new int[cells];
+		this.region = new int[cells];
+		this.dirtyClusters = new int[clusters.length];
+		this.dirty = new boolean[clusters.length];
+		this.queue = new int[cells];
+		this.bfsMark = new int[cells];
+		this.bfsDistance = new int[cells];
+		this.bfsParent = new int[cells];
+		this.gScore = new int[cells];
+		this.parentNode = new int[cells];
+		this.seenMark = new int[cells];
+		this.closedMark = new int[cells];
+		this.open = new IndexedMinHeap(cells);
+		rebuild();
+	}
+
+	public int getClusterSize() {
+		return clusterSize;
+	}
+
+	/**
+	 * Cantidad de nodos del grafo abstracto.
+	 */
+	public int getNodeCount() {
+		flushDirty();
+		int count = 0;
+		for (Cluster cluster : clusters) {
+			if (cluster != null)
+				count += cluster.nodes.length;
+		}
+		return count;
+	}
+
+	/**
+	 * Nodos abstractos expandidos por la última búsqueda.
+	 */
+	public int getExpandedNodes() {
+		return expandedNodes;
+	}
+
+	/**
+	 * Recalcula todas las entradas y distancias, para cuando cambian varias
+	 * celdas a la vez.
+	 */
+	public void rebuild() {
+		Arrays.fill(nodeIndex, -1);
+		for (int id = 0; id < clusters.length; id++) {
+			if (clusters[id] != null)
+				labelRegions(id);
+		}
+		for (int id = 0; id < clusters.length; id++) {
+			if (clusters[id] == null)
+				continue;
+			// Cada par de grupos vecinos se calcula una vez, desde el de menor dirección
+			for (int d = 0; d < 3; d++) {
+				computeTransitions(id, d);
+			}
+		}
+		for (int id = 0; id < clusters.length; id++) {
+			if (clusters[id] != null)
+				markDirty(id);
+		}
+		flushDirty();
+	}
+
+	/**
+	 * Recalcula las regiones del grupo de la celda bloqueada y las entradas de
+	 * sus límites, y marca el grupo, y los vecinos cuyas entradas cambiaron, para
+	 * recalcular sus distancias en la próxima consulta.
+	 */
+	public void onBlocked(int index) {
+		int id = clusterOf[index];
+		labelRegions(id);
+		markDirty(id);
+		for (int d = 0; d < DIRECTIONS.length; d++) {
+			int neighbor = clusters[id].neighbors[d];
+			if (neighbor >= 0 && computeTransitions(id, d))
+				markDirty(neighbor);
+		}
+	}
+
+	/**
+	 * Siguiente paso desde start hacia goal, o hacia la salida más cercana si goal
+	 * es -1, siguiendo el camino planificado sobre el grafo abstracto. Retorna -1
+	 * si start ya es el destino o si el grafo no encuentra camino.
+	 */
+	public int nextStep(int start, int goal) {
+		if (start < 0 || blocked.containsIndex(start))
+			return -1;
+		if (goal < 0 ? layout.isEscape(start) : goal == start || blocked.containsIndex(goal))
+			return -1;
+		flushDirty();
+		expandedNodes = 0;
+
+		// Costo desde cada nodo del grupo del destino hasta el destino
+		int goalCluster = goal < 0 ? -1 : clusterOf[goal];
+		if (goal >= 0) {
+			Cluster target = clusters[goalCluster];
+			if (goalCosts.length < target.nodes.length)
+				goalCosts = new int[target.nodes.length * 2];
+			bfsInCluster(goalCluster, goal, false);
+			for (int i = 0; i < target.nodes.length; i++) {
+				goalCosts[i] = distanceTo(target.nodes[i]);
+			}
+		}
+
+		// Distancias dentro del grupo del gato; se conservan para refinar el paso
+		int startCluster = clusterOf[start];
+		Cluster origin = clusters[startCluster];
+		bfsInCluster(startCluster, start, false);
+		int best = INF;
+		int direct = -1;
+		if (goal >= 0) {
+			if (goalCluster == startCluster && distanceTo(goal) < INF) {
+				best = distanceTo(goal);
+				direct = goal;
+			}
+		} else {
+			for (int cell : origin.cells) {
+				if (layout.isEscape(cell) && distanceTo(cell) < best) {
+					best = distanceTo(cell);
+					direct = cell;
+				}
+			}
+		}
+
+		// A* sobre los nodos abstractos
+		if (++searchStamp == 0) {
+			Arrays.fill(seenMark, 0);
+			Arrays.fill(closedMark, 0);
+			searchStamp = 1;
+		}
+		open.clear();
+		for (int node : origin.nodes) {
+			int d = distanceTo(node);
+			if (d < INF)
+				relax(node, d, -1, goal);
+		}
+		int bestNode = -1;
+		while (!open.isEmpty()) {
+			int cell = open.poll();
+			int f = (int) (open.keyOf(cell) >>> 32);
+			if (f >= best)
+				break;
+			closedMark[cell] = searchStamp;
+			expandedNodes++;
+
+			int g = gScore[cell];
+			int id = clusterOf[cell];
+			Cluster cluster = clusters[id];
+			int i = nodeIndex[cell];
+			int exit = goal < 0 ? cluster.exit[i] : id == goalCluster ? goalCosts[i] : INF;
+			if (exit < INF && g + exit < best) {
+				best = g + exit;
+				bestNode = cell;
+			}
+			int[] distances = cluster.dist[i];
+			for (int j = 0; j < distances.length; j++) {
+				if (j != i && distances[j] < INF)
+					relax(cluster.nodes[j], g + distances[j], cell, goal);
+			}
+			for (int d = 0; d < DIRECTIONS.length; d++) {
+				int[] from = cluster.crossFrom[d];
+				for (int t = 0; t < from.length; t++) {
+					if (from[t] == cell)
+						relax(cluster.crossTo[d][t], g + 1, cell, goal);
+				}
+			}
+		}
+		if (best >= INF)
+			return -1;
+
+		// Primer punto del camino dentro del grupo del gato
+		int waypoint = direct;
+		if (bestNode >= 0) {
+			int first = bestNode;
+			int second = -1;
+			while (parentNode[first] >= 0) {
+				second = first;
+				first = parentNode[first];
+			}
+			if (first != start) {
+				waypoint = first;
+			} else if (second >= 0) {
+				if (clusterOf[second] != startCluster)
+					return second;
+				waypoint = second;
+			}
+		}
+		if (waypoint < 0 || waypoint == start)
+			return -1;
+		int step = waypoint;
+		while (bfsParent[step] != start) {
+			step = bfsParent[step];
+		}
+		return step;
+	}
+
+	private void relax(int cell, int g, int parent, int goal) {
+		if (closedMark[cell] == searchStamp)
+			return;
+		if (seenMark[cell] == searchStamp && g >= gScore[cell])
+			return;
+		seenMark[cell] = searchStamp;
+		gScore[cell] = g;
+		parentNode[cell] = parent;
+		open.offerOrDecrease(cell, ((long) (g + heuristic(cell, goal)) << 32) | cell);
+	}
+
+	private int heuristic(int cell, int goal) {
+		if (goal < 0)
+			return layout.escapeDistance(cell);
+		int dq = layout.getQ(cell) - layout.getQ(goal);
+		int dr = layout.getR(cell) - layout.getR(goal);
+		return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
+	}
+
+	/**
+	 * Recalcula las entradas entre el grupo y su vecino en la dirección d, y las
+	 * guarda en ambos. Se calculan siempre desde el grupo para el que d es una de
+	 * las tres primeras direcciones, así las entradas no dependen del lado desde
+	 * el que se actualizan. Retorna si las entradas cambiaron.
+	 */
+	private boolean computeTransitions(int id, int d) {
+		Cluster cluster = clusters[id];
+		int neighborId = cluster.neighbors[d];
+		int opposite = (d + 3) % DIRECTIONS.length;
+		if (d >= 3 && neighborId >= 0)
+			return computeTransitions(neighborId, opposite);
+		if (neighborId < 0) {
+			cluster.crossFrom[d] = cluster.crossTo[d] = new int[0];
+			return false;
+		}
+
+		// Pares de celdas libres adyacentes a ambos lados del límite
+		int[] from = new int[4 * clusterSize + 4];
+		int[] to = new int[from.length];
+		int pairs = 0;
+		for (int cell : cluster.cells) {
+			if (blocked.containsIndex(cell))
+				continue;
+			int end = layout.neighborEnd(cell);
+			for (int k = layout.neighborStart(cell); k < end; k++) {
+				int other = layout.neighborAt(k);
+				if (clusterOf[other] == neighborId && !blocked.containsIndex(other)) {
+					if (pairs == from.length) {
+						from = Arrays.copyOf(from, pairs * 2);
+						to = Arrays.copyOf(to, pairs * 2);
+					}
+					from[pairs] = cell;
+					to[pairs] = other;
+					pairs++;
+				}
+			}
+		}
+
+		// Una entrada por par de regiones: el par del medio entre los que las unen
+		int[] members = new int[pairs];
+		boolean[] used = new boolean[pairs];
+		int[] entryFrom = new int[pairs];
+		int[] entryTo = new int[pairs];
+		int entries = 0;
+		for (int p = 0; p < pairs; p++) {
+			if (used[p])
+				continue;
+			int count = 0;
+			for (int o = p; o < pairs; o++) {
+				if (!used[o] && region[from[o]] == region[from[p]] && region[to[o]] == region[to[p]]) {
+					used[o] = true;
+					members[count++] = o;
+				}
+			}
+			int middle = members[count / 2];
+			entryFrom[entries] = from[middle];
+			entryTo[entries] = to[middle];
+			entries++;
+		}
+		entryFrom = Arrays.copyOf(entryFrom, entries);
+		entryTo = Arrays.copyOf(entryTo, entries);
+		boolean changed = !Arrays.equals(entryFrom, cluster.crossFrom[d]) || !Arrays.equals(entryTo, cluster.crossTo[d]);
+		cluster.crossFrom[d] = entryFrom;
+		cluster.crossTo[d] = entryTo;
+		Cluster neighbor = clusters[neighborId];
+		neighbor.crossFrom[opposite] = entryTo;
+		neighbor.crossTo[opposite] = entryFrom;
+		return changed;
+	}
+
+	/**
+	 * Etiqueta las regiones conectadas de celdas libres del grupo.
+	 */
+	private void labelRegions(int id) {
+		int[] cells = clusters[id].cells;
+		for (int cell : cells) {
+			region[cell] = blocked.containsIndex(cell) ? -1 : Integer.MIN_VALUE;
+		}
+		for (int cell : cells) {
+			if (region[cell] != Integer.MIN_VALUE)
+				continue;
+			int label = regionCount++;
+			region[cell] = label;
+			queue[0] = cell;
+			int tail = 1;
+			for (int head = 0; head < tail; head++) {
+				int current = queue[head];
+				int end = layout.neighborEnd(current);
+				for (int k = layout.neighborStart(current); k < end; k++) {
+					int neighbor = layout.neighborAt(k);
+					if (clusterOf[neighbor] == id && region[neighbor] == Integer.MIN_VALUE) {
+						region[neighbor] = label;
+						queue[tail++] = neighbor;
+					}
+				}
+			}
+		}
+	}
+
+	private void markDirty(int id) {
+		if (!dirty[id]) {
+			dirty[id] = true;
+			dirtyClusters[dirtyCount++] = id;
+		}
+	}
+
+	private void flushDirty() {
+		for (int i = 0; i < dirtyCount; i++) {
+			int id = dirtyClusters[i];
+			dirty[id] = false;
+			rebuildCluster(id);
+		}
+		dirtyCount = 0;
+	}
+
+	/**
+	 * Recalcula los nodos del grupo, las distancias entre ellos y hasta la salida.
+	 */
+	private void rebuildCluster(int id) {
+		Cluster cluster = clusters[id];
+		for (int node : cluster.nodes) {
+			nodeIndex[node] = -1;
+		}
+		int count = 0;
+		int[] nodes = new int[8];
+		for (int d = 0; d < DIRECTIONS.length; d++) {
+			for (int cell : cluster.crossFrom[d]) {
+				if (nodeIndex[cell] >= 0)
+					continue;
+				if (count == nodes.length)
+					nodes = Arrays.copyOf(nodes, count * 2);
+				nodeIndex[cell] = count;
+				nodes[count++] = cell;
+			}
+		}
+		cluster.nodes = Arrays.copyOf(nodes, count);
+		cluster.dist = new int[count][count];
+		for (int i = 0; i < count; i++) {
+			bfsInCluster(id, cluster.nodes[i], false);
+			for (int j = 0; j < count; j++) {
+				cluster.dist[i][j] = distanceTo(cluster.nodes[j]);
+			}
+		}
+		cluster.exit = new int[count];
+		bfsInCluster(id, -1, true);
+		for (int i = 0; i < count; i++) {
+			cluster.exit[i] = distanceTo(cluster.nodes[i]);
+		}
+	}
+
+	/**
+	 * BFS sobre las celdas libres del grupo, desde source o, con fromEscapes,
+	 * desde todas sus salidas libres.
+	 */
+	private void bfsInCluster(int id, int source, boolean fromEscapes) {
+		if (++bfsStamp == 0) {
+			Arrays.fill(bfsMark, 0);
+			bfsStamp = 1;
+		}
+		int tail = 0;
+		if (fromEscapes) {
+			for (int cell : clusters[id].cells) {
+				if (layout.isEscape(cell) && !blocked.containsIndex(cell)) {
+					bfsMark[cell] = bfsStamp;
+					bfsDistance[cell] = 0;
+					bfsParent[cell] = -1;
+					queue[tail++] = cell;
+				}
+			}
+		} else {
+			bfsMark[source] = bfsStamp;
+			bfsDistance[source] = 0;
+			bfsParent[source] = -1;
+			queue[tail++] = source;
+		}
+		for (int head = 0; head < tail; head++) {
+			int current = queue[head];
+			int end = layout.neighborEnd(current);
+			for (int k = layout.neighborStart(current); k < end; k++) {
+				int neighbor = layout.neighborAt(k);
+				if (bfsMark[neighbor] == bfsStamp || clusterOf[neighbor] != id || blocked.containsIndex(neighbor))
+					continue;
+				bfsMark[neighbor] = bfsStamp;
+				bfsDistance[neighbor] = bfsDistance[current] + 1;
+				bfsParent[neighbor] = current;
+				queue[tail++] = neighbor;
+			}
+		}
+	}
+
+	private int distanceTo(int cell) {
+		return bfsMark[cell] == bfsStamp ? bfsDistance[cell] : INF;
+	}
+
+	private int tileOf(int q, int r) {
+		int size = layout.getSize();
+		return (q + size) / clusterSize * tilesPerAxis + (r + size) / clusterSize;
+	}
+
+	/**
+	 * Un grupo: sus celdas, sus entradas hacia cada vecino y las distancias entre
+	 * sus nodos.
+	 */
+	private static final class Cluster {
+
+		final int[] cells;
+		final int[] neighbors = new int[DIRECTIONS.length];
+		final int[][] crossFrom = new int[DIRECTIONS.length][0];
+		final int[][] crossTo = new int[DIRECTIONS.length][0];
+		int[] nodes = new int[0];
+		int[][] dist = new int[0][0];
+		int[] exit = new int[0];
+
+		Cluster(int[] cells) {
+			this.cells = cells;
+		}
+	}
+}
@@ -0,0 +1,263 @@
+package com.atraparalagato.impl.model;
+
+import java.util.Arrays;
+
+/**
+ * Componentes conexas de las celdas libres de un tablero hexagonal.
+ *
+ * Cada celda libre tiene la etiqueta de su región, y cada región guarda su
+ * cantidad de celdas y cuántas de ellas son salidas
+ * ({@link HexBoardLayout#isEscape(int)}, donde el jugador pierde si llega el
+ * gato). Así, saber si el gato todavía puede escapar o cuántas celdas tiene a
+ * su alcance es una consulta de costo constante.
+ *
+ * La construcción inicial usa union-find. Como en el juego las celdas solo se
+ * bloquean, después basta con procesar eliminaciones: si las vecinas libres de
+ * la celda bloqueada forman un único arco alrededor de ella, siguen conectadas
+ * entre sí y la región no se divide. Si forman varios arcos, se buscan en
+ * paralelo desde cada uno hasta que se reencuentran, lo habitual al levantar
+ * una pared, y solo si la región se dividió se vuelve a etiquetar la parte más
+ * chica.
+ */
+public class HexConnectivityIndex {
+
+	private final HexBoardLayout layout;
+	private final HexCellSet blocked;
+	/**
+	 * Etiqueta de la región de cada celda, o -1 si está bloqueada.
+	 */
+	private final int[] label;
+	private final int[] regionSize;
+	private final int[] regionEscapes;
+	private int nextLabel;
+
+	/*
+	 * Estructuras auxiliares reutilizadas entre bloqueos: una cola por arco y la
+	 * marca de la búsqueda que visitó cada celda, que vale stamp + arco en el
+	 * bloqueo en curso.
+	 */
+	private final int[][] queues;
+	private final int[] visit;
+	private int stamp;
+	private final int[] ring = new int[6];
+	private final int[] arcStart = new int[3];
+	private final int[] head = new int[3];
+	private final int[] tail = new int[3];
+	private final int[] group = new int[3];
+	private final boolean[] running = new boolean[3];
+
+	public HexConnectivityIndex(HexBoardLayout layout, HexCellSet blocked) {
+		this.layout = layout;
+		this.blocked = blocked;
+		int cells = layout.getCellCount();
+		this.label = new int[cells];
+		this.regionSize = new int[2 * cells + 1];
+		this.regionEscapes = new int[2 * cells + 1];
+		this.queues = new int[3][cells];
+		this.visit = new int[cells];
+		rebuild();
+	}
+
+	/**
+	 * Verifica si la celda está libre y su región contiene alguna salida.
+	 */
+	public boolean canReachBorder(int index) {
+		int l = label[index];
+		return l >= 0 && regionEscapes[l] > 0;
+	}
+
+	/**
+	 * Cantidad de celdas libres de la región de la celda, o 0 si está bloqueada.
+	 */
+	public int regionSize(int index) {
+		int l = label[index];
+		return l < 0 ? 0 : regionSize[l];
+	}
+
+	/**
+	 * Verifica si dos celdas libres están en la misma región.
+	 */
+	public boolean connected(int a, int b) {
+		return label[a] >= 0 && label[a] == label[b];
+	}
+
+	/**
+	 * Recalcula todas las regiones con union-find sobre las celdas libres.
+	 */
+	public void rebuild() {
+		int cells = label.length;
+		int[] parent = queues[0];
+		for (int i = 0; i < cells; i++)
+			parent[i] = i;
+		for (int i = 0; i < cells; i++) {
+			if (blocked.containsIndex(i))
+				continue;
+			int end = layout.neighborEnd(i);
+			for (int k = layout.neighborStart(i); k < end; k++) {
+				int neighbor = layout.neighborAt(k);
+				if (neighbor > i && !blocked.containsIndex(neighbor))
+					union(parent, i, neighbor);
+			}
+		}
+
+		Arrays.fill(label, -1);
+		nextLabel = 0;
+		for (int i = 0; i < cells; i++) {
+			if (blocked.containsIndex(i))
+				continue;
+			int root = find(parent, i);
+			if (label[root] < 0) {
+				label[root] = nextLabel;
+				regionSize[nextLabel] = 0;
+				regionEscapes[nextLabel] = 0;
+				nextLabel++;
+			}
+			int l = label[root];
+			label[i] = l;
+			regionSize[l]++;
+			if (layout.isEscape(i))
+				regionEscapes[l]++;
+		}
+	}
+
+	/**
+	 * Actualiza las regiones después de bloquear la celda index.
+	 */
+	public void onBlocked(int index) {
+		int old = label[index];
+		if (old < 0)
+			return;
+		label[index] = -1;
+		regionSize[old]--;
+		if (layout.isEscape(index))
+			regionEscapes[old]--;
+
+		/*
+		 * Vecinas libres en orden circular. Cada una es adyacente a la siguiente, así
+		 * que un solo arco de vecinas libres sigue conectado sin la celda bloqueada.
+		 */
+		int q = layout.getQ(index);
+		int r = layout.getR(index);
+		for (int d = 0; d < 6; d++) {
+			int[] dir = HexBoardLayout.DIRECTIONS[d];
+			int neighbor = layout.indexOf(q + dir[0], r + dir[1]);
+			ring[d] = neighbor >= 0 && label[neighbor] >= 0 ? neighbor : -1;
+		}
+		int arcs = 0;
+		for (int d = 0; d < 6; d++) {
+			if (ring[d] >= 0 && ring[(d + 5) % 6] < 0)
+				arcStart[arcs++] = ring[d];
+		}
+		if (arcs <= 1)
+			return;
+
+		if (nextLabel + arcs > regionSize.length) {
+			rebuild();
+			return;
+		}
+
+		separate(old, arcs);
+	}
+
+	/**
+	 * Busca en anchura desde cada arco de a una celda por turno. Dos búsquedas que
+	 * se cruzan están en la misma parte y sigue solo una de ellas. Una búsqueda
+	 * que se agota sin cruzarse con las demás recorrió una parte separada, la más
+	 * chica de las que quedan, y esa pasa a una etiqueta nueva. Se termina cuando
+	 * queda una sola parte abierta, que conserva la etiqueta original.
+	 */
+	private void separate(int old, int arcs) {
+		if (stamp > Integer.MAX_VALUE - 8) {
+			Arrays.fill(visit, 0);
+			stamp = 0;
+		}
+		int base = stamp + 1;
+		stamp += arcs;
+		for (int a = 0; a < arcs; a++) {
+			group[a] = a;
+			running[a] = true;
+			visit[arcStart[a]] = base + a;
+			queues[a][0] = arcStart[a];
+			head[a] = 0;
+			tail[a] = 1;
+		}
+
+		int open = arcs;
+		while (open > 1) {
+			for (int a = 0; a < arcs && open > 1; a++) {
+				if (!running[a])
+					continue;
+				int[] queue = queues[a];
+				if (head[a] == tail[a]) {
+					// Recorrió toda su parte sin cruzarse con otra búsqueda: quedó separada
+					running[a] = false;
+					open--;
+					int fresh = nextLabel++;
+					regionSize[fresh] = tail[a];
+					regionEscapes[fresh] = 0;
+					for (int i = 0; i < tail[a]; i++) {
+						label[queue[i]] = fresh;
+						if (layout.isEscape(queue[i]))
+							regionEscapes[fresh]++;
+					}
+					regionSize[old] -= tail[a];
+					regionEscapes[old] -= regionEscapes[fresh];
+					continue;
+				}
+				int cell = queue[head[a]++];
+				int end = layout.neighborEnd(cell);
+				for (int k = layout.neighborStart(cell); k < end; k++) {
+					int neighbor = layout.neighborAt(k);
+					if (label[neighbor] != old)
+						continue;
+					int seenBy = visit[neighbor] - base;
+					if (seenBy == a)
+						continue;
+					if (seenBy >= 0 && seenBy < arcs && merge(a, seenBy, arcs))
+						open--;
+					visit[neighbor] = base + a;
+					queue[tail[a]++] = neighbor;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Une los grupos de las búsquedas a y b, que se cruzaron, y detiene la otra
+	 * búsqueda que seguía abierta en el grupo de b. Retorna si eran grupos
+	 * distintos.
+	 */
+	private boolean merge(int a, int b, int arcs) {
+		int ga = rootGroup(a);
+		int gb = rootGroup(b);
+		if (ga == gb)
+			return false;
+		group[gb] = ga;
+		for (int s = 0; s < arcs; s++) {
+			if (s != a && running[s] && rootGroup(s) == ga)
+				running[s] = false;
+		}
+		return true;
+	}
+
+	private int rootGroup(int a) {
+		while (group[a] != a)
+			a = group[a];
+		return a;
+	}
+
+	private static int find(int[] parent, int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]];
+			i = parent[i];
+		}
+		return i;
+	}
+
+	private static void union(int[] parent, int a, int b) {
+		int ra = find(parent, a);
+		int rb = find(parent, b);
+		if (ra != rb)
+			parent[Math.max(ra, rb)] = Math.min(ra, rb);
+	}
+}
@@ -0,0 +1,243 @@
+package com.atraparalagato.impl.model;
+
+import java.util.Arrays;
+
+/**
+ * Campo de distancias al borde de un tablero hexagonal.
+ *
+ * Guarda, para cada celda libre, la cantidad mínima de pasos hasta alguna
+ * salida libre ({@link HexBoardLayout#isEscape(int)}), que es donde el gato
+ * gana. Se calcula una sola vez con un BFS multi-origen desde las salidas hacia
+ * adentro y luego se actualiza de forma incremental cada vez que se bloquea una
+ * celda: como los bloqueos solo aumentan las distancias, basta con invalidar
+ * las celdas que dependían de la bloqueada y repararlas desde sus vecinas aún
+ * válidas.
+ *
+ * Con el campo, elegir el siguiente paso del gato o saber si puede escapar es
+ * una consulta de costo constante.
+ */
+public class HexDistanceField {
+
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	private final HexBoardLayout layout;
+	private final HexCellSet blocked;
+	private final int[] distance;
+
+	/*
+	 * Estructuras auxiliares de la actualización incremental, reutilizadas entre
+	 * bloqueos. queueMark evita encolar dos veces una celda en la misma
+	 * actualización.
+	 */
+	private int[] queue;
+	private int[] queueMark;
+	private int mark;
+	private int[] invalidated;
+	private long[] seeds;
+	private int[] repairCell;
+	private int[] repairDistance;
+
+	public HexDistanceField(HexBoardLayout layout, HexCellSet blocked) {
+		this.layout = layout;
+		this.blocked = blocked;
+		this.distance = new int[layout.getCellCount()];
+		recompute();
+	}
+
+	/**
+	 * Distancia desde la celda a la salida más cercana, o UNREACHABLE si está
+	 * bloqueada o encerrada.
+	 */
+	public int distanceAt(int index) {
+		return distance[index];
+	}
+
+	/**
+	 * Vecina de la celda que está un paso más cerca de una salida, o -1 si la
+	 * celda ya es una salida o no puede llegar a ninguna. Entre varias opciones se elige la
+	 * primera según el orden de direcciones del layout.
+	 */
+	public int nextStep(int index) {
+		int d = distance[index];
+		if (d == 0 || d == UNREACHABLE)
+			return -1;
+		int end = layout.neighborEnd(index);
+		for (int k = layout.neighborStart(index); k < end; k++) {
+			int neighbor = layout.neighborAt(k);
+			if (distance[neighbor] == d - 1)
+				return neighbor;
+		}
+		return -1;
+	}
+
+	/**
+	 * Salida a la que se llega desde index siguiendo el campo, o -1 si no se
+	 * puede llegar.
+	 */
+	public int nearestBorder(int index) {
+		if (distance[index] == UNREACHABLE)
+			return -1;
+		int current = index;
+		while (distance[current] > 0)
+			current = nextStep(current);
+		return current;
+	}
+
+	/**
+	 * Recalcula todo el campo con un BFS desde las salidas libres.
+	 */
+	public void recompute() {
+		ensureScratch();
+		Arrays.fill(distance, UNREACHABLE);
+		int tail = 0;
+		for (int i = 0; i < distance.length; i++) {
+			if (layout.isEscape(i) && !blocked.containsIndex(i)) {
+				distance[i] = 0;
+				queue[tail++] = i;
+			}
+		}
+		for (int head = 0; head < tail; head++) {
+			int current = queue[head];
+			int next = distance[current] + 1;
+			int end = layout.neighborEnd(current);
+			for (int k = layout.neighborStart(current); k < end; k++) {
+				int neighbor = layout.neighborAt(k);
+				if (distance[neighbor] == UNREACHABLE && !blocked.containsIndex(neighbor)) {
+					distance[neighbor] = next;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Actualiza el campo después de bloquear la celda index. Solo recorre las
+	 * celdas cuya distancia dependía de ella.
+	 */
+	public void onBlocked(int index) {
+		int old = distance[index];
+		distance[index] = UNREACHABLE;
+		if (old == UNREACHABLE)
+			return;
+
+		ensureScratch();
+		nextMark();
+
+		/*
+		 * 1. Invalidación: se recorre por capas crecientes de distancia. Una celda de
+		 * la capa d sigue siendo válida si conserva una vecina en la capa d - 1; si
+		 * no, se invalida y se revisan sus vecinas de la capa d + 1.
+		 */
+		int tail = enqueueDependents(index, old, 0);
+		int invalidCount = 0;
+		for (int head = 0; head < tail; head++) {
+			int cell = queue[head];
+			int d = distance[cell];
+			if (hasNeighborAt(cell, d - 1))
+				continue;
+			distance[cell] = UNREACHABLE;
+			invalidated[invalidCount++] = cell;
+			tail = enqueueDependents(cell, d, tail);
+		}
+		if (invalidCount == 0)
+			return;
+
+		/*
+		 * 2. Reparación: cada celda invalidada toma como distancia tentativa la de su
+		 * mejor vecina válida más uno. Luego se propaga como un BFS que mezcla las
+		 * semillas ordenadas con la cola de relajaciones, ambas no decrecientes.
+		 */
+		int seedCount = 0;
+		for (int i = 0; i < invalidCount; i++) {
+			int cell = invalidated[i];
+			int best = bestNeighborDistance(cell);
+			if (best != UNREACHABLE) {
+				distance[cell] = best + 1;
+				seeds[seedCount++] = ((long) (best + 1) << 32) | cell;
+			}
+		}
+		Arrays.sort(seeds, 0, seedCount);
+
+		int seedHead = 0;
+		int repairHead = 0;
+		int repairTail = 0;
+		while (seedHead < seedCount || repairHead < repairTail) {
+			int cell;
+			int d;
+			if (repairHead == repairTail
+					|| (seedHead < seedCount && (int) (seeds[seedHead] >>> 32) <= repairDistance[repairHead])) {
+				cell = (int) seeds[seedHead];
+				d = (int) (seeds[seedHead] >>> 32);
+				seedHead++;
+			} else {
+				cell = repairCell[repairHead];
+				d = repairDistance[repairHead];
+				repairHead++;
+			}
+			if (distance[cell] != d)
+				continue;
+
+			int end = layout.neighborEnd(cell);
+			for (int k = layout.neighborStart(cell); k < end; k++) {
+				int neighbor = layout.neighborAt(k);
+				if (distance[neighbor] > d + 1 && !blocked.containsIndex(neighbor)) {
+					distance[neighbor] = d + 1;
+					repairCell[repairTail] = neighbor;
+					repairDistance[repairTail] = d + 1;
+					repairTail++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Encola las vecinas libres de cell que están en la capa d + 1.
+	 */
+	private int enqueueDependents(int cell, int d, int tail) {
+		int end = layout.neighborEnd(cell);
+		for (int k = layout.neighborStart(cell); k < end; k++) {
+			int neighbor = layout.neighborAt(k);
+			if (distance[neighbor] == d + 1 && queueMark[neighbor] != mark && !blocked.containsIndex(neighbor)) {
+				queueMark[neighbor] = mark;
+				queue[tail++] = neighbor;
+			}
+		}
+		return tail;
+	}
+
+	private boolean hasNeighborAt(int cell, int d) {
+		int end = layout.neighborEnd(cell);
+		for (int k = layout.neighborStart(cell); k < end; k++) {
+			if (distance[layout.neighborAt(k)] == d)
+				return true;
+		}
+		return false;
+	}
+
+	private int bestNeighborDistance(int cell) {
+		int best = UNREACHABLE;
+		int end = layout.neighborEnd(cell);
+		for (int k = layout.neighborStart(cell); k < end; k++)
+			best = Math.min(best, distance[layout.neighborAt(k)]);
+		return best;
+	}
+
+	private void ensureScratch() {
+		if (queue == null) {
+			int cells = distance.length;
+			queue = new int[cells];
+			queueMark = new int[cells];
+			invalidated = new int[cells];
+			seeds = new long[cells];
+			repairCell = new int[cells];
+			repairDistance = new int[cells];
+		}
+	}
+
+	private void nextMark() {
+		if (++mark == 0) {
+			Arrays.fill(queueMark, 0);
+			mark = 1;
+		}
+	}
+}
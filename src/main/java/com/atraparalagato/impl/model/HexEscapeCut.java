@@ -0,0 +1,383 @@
+package com.atraparalagato.impl.model;
+
+import java.util.Arrays;
+
+/**
+ * Corte mínimo de vértices entre el gato y las celdas de escape.
+ *
+ * Es la menor cantidad de celdas que el jugador tendría que bloquear para
+ * encerrar al gato si este no se moviera. Se calcula como flujo máximo en el
+ * grafo hexagonal con cada celda dividida en entrada y salida (capacidad 1), de
+ * modo que cada celda libre sea usada por a lo sumo un camino. La salida de
+ * cada celda de escape se une a un sumidero exterior: el jugador puede
+ * bloquearlas, así que también pueden formar parte del corte.
+ *
+ * Con capacidades unitarias el flujo es un conjunto de caminos disjuntos; cada
+ * celda guarda su antecesora y su sucesora en su camino. Ese flujo se conserva
+ * entre movimientos: al bloquear una celda solo se cancela el camino que la
+ * usaba, y al moverse el gato se reaprovechan los caminos que salen de celdas
+ * vecinas a su nueva posición. Después basta con buscar los caminos de aumento
+ * que falten, que son pocos porque el flujo no supera la cantidad de vecinas
+ * del gato.
+ */
+public class HexEscapeCut {
+
+	/**
+	 * Tamaño del corte cuando no se puede encerrar al gato: ya está en una celda
+	 * de escape o su posición no está en el tablero.
+	 */
+	public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+	private static final int NONE = -1;
+	/**
+	 * Sucesora de la celda de escape con la que termina un camino.
+	 */
+	private static final int SINK = -2;
+
+	private final HexBoardLayout layout;
+	private final HexCellSet blocked;
+	private final boolean[] escape;
+
+	/*
+	 * Flujo actual: antecesora y sucesora de cada celda en su camino. La
+	 * antecesora de la primera celda de un camino es el gato y la sucesora de la
+	 * última, una celda de escape, es SINK.
+	 */
+	private final int[] pred;
+	private final int[] succ;
+	private int cat = NONE;
+	private int flow;
+	private boolean saturated;
+
+	/*
+	 * Búsqueda en el grafo residual. Los estados son 2 * celda para la entrada y
+	 * 2 * celda + 1 para la salida.
+	 */
+	private final int[] parentState;
+	private final int[] stateMark;
+	private final int[] queue;
+	private final int[] path;
+	private int stamp;
+	private int sinkState;
+	private int extraBlocked = NONE;
+
+	/*
+	 * Copia del flujo para evaluar bloqueos sin perder el estado.
+	 */
+	private final int[] savedPred;
+	private final int[] savedSucc;
+
+	public HexEscapeCut(HexBoardLayout layout, HexCellSet blocked) {
+		this.layout = layout;
+		this.blocked = blocked;
+		int cells = layout.getCellCount();
+		this.escape = new boolean[cells];
+		for (int i = 0; i < cells; i++) {
+			escape[i] = layout.isEscape(i);
+		}
+		this.pred = new int[cells];
+		this.succ = new int[cells];
+		this.savedPred = new int[cells];
+		this.savedSucc = new int[cells];
+		this.parentState = new int[2 * cells];
+		this.stateMark = new int[2 * cells];
+		this.queue = new int[2 * cells];
+		this.path = new int[2 * cells];
+		rebuild();
+	}
+
+	/**
+	 * Descarta el flujo; se vuelve a calcular en la próxima consulta.
+	 */
+	public void rebuild() {
+		Arrays.fill(pred, NONE);
+		Arrays.fill(succ, NONE);
+		flow = 0;
+		saturated = false;
+	}
+
+	/**
+	 * Cambia la posición del gato conservando los caminos que siguen siendo
+	 * válidos desde la nueva posición.
+	 *
+	 * @param index índice de la celda del gato, o -1 si está fuera del tablero
+	 */
+	public void setCat(int index) {
+		if (index == cat)
+			return;
+		int previous = cat;
+		cat = index;
+		saturated = false;
+		if (previous < 0 || index < 0) {
+			rebuild();
+			return;
+		}
+		if (pred[index] != NONE) {
+			// El gato entra a un camino: su tramo anterior sobra y el resto sale del gato
+			for (int x = pred[index]; x != previous;) {
+				int before = pred[x];
+				pred[x] = NONE;
+				succ[x] = NONE;
+				x = before;
+			}
+			pred[index] = NONE;
+			succ[index] = NONE;
+		}
+		flow = 0;
+		for (int v = 0; v < pred.length; v++) {
+			if (pred[v] == index) {
+				flow++;
+			} else if (pred[v] == previous) {
+				if (isNeighbor(index, v)) {
+					pred[v] = index;
+					flow++;
+				} else {
+					clearForward(v);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Actualiza el flujo después de bloquear la celda: se cancela el camino que
+	 * pasaba por ella, también si es la celda de escape en la que terminaba.
+	 */
+	public void onBlocked(int index) {
+		if (pred[index] != NONE)
+			cancelPath(index);
+		saturated = false;
+	}
+
+	/**
+	 * Cantidad mínima de celdas que separan al gato de la salida, o
+	 * {@link #UNBOUNDED}.
+	 */
+	public int cutSize() {
+		if (isUnbounded())
+			return UNBOUNDED;
+		saturate();
+		return flow;
+	}
+
+	/**
+	 * Escribe en cells las celdas de un corte mínimo: las más cercanas al gato
+	 * entre las que saturan el flujo. Retorna cuántas son.
+	 */
+	public int minCut(int[] cells) {
+		if (isUnbounded())
+			return 0;
+		saturate();
+		explore();
+		int count = 0;
+		for (int v = 0; v < pred.length; v++) {
+			if (stateMark[2 * v] == stamp && stateMark[2 * v + 1] != stamp)
+				cells[count++] = v;
+		}
+		return count;
+	}
+
+	/**
+	 * Ordena los bloqueos candidatos según cuánto reducen el corte y escribe los k
+	 * mejores en cells, con el tamaño del corte resultante en cuts. A igual corte
+	 * se prefieren las celdas más cercanas al gato.
+	 *
+	 * Solo las celdas que llevan flujo pueden reducir el corte, así que son las
+	 * únicas candidatas. Retorna cuántas se escribieron.
+	 */
+	public int rankBlocks(int k, int[] cells, int[] cuts) {
+		if (k <= 0 || isUnbounded())
+			return 0;
+		saturate();
+		if (flow == 0)
+			return 0;
+		int baseFlow = flow;
+		System.arraycopy(pred, 0, savedPred, 0, pred.length);
+		System.arraycopy(succ, 0, savedSucc, 0, succ.length);
+
+		int count = 0;
+		for (int v = 0; v < pred.length; v++) {
+			if (v == cat || savedPred[v] == NONE)
+				continue;
+			extraBlocked = v;
+			cancelPath(v);
+			while (augment())
+				flow++;
+			int cut = flow;
+			extraBlocked = NONE;
+			System.arraycopy(savedPred, 0, pred, 0, pred.length);
+			System.arraycopy(savedSucc, 0, succ, 0, succ.length);
+			flow = baseFlow;
+			count = insertCandidate(v, cut, cells, cuts, count, k);
+		}
+		return count;
+	}
+
+	/**
+	 * Inserta el candidato en las listas ordenadas, de largo a lo sumo k.
+	 */
+	private int insertCandidate(int cell, int cut, int[] cells, int[] cuts, int count, int k) {
+		int distance = distanceToCat(cell);
+		int position = count;
+		while (position > 0 && isBetter(cut, distance, cell, cuts[position - 1], cells[position - 1]))
+			position--;
+		if (position >= k)
+			return count;
+		int last = Math.min(count, k - 1);
+		for (int i = last; i > position; i--) {
+			cells[i] = cells[i - 1];
+			cuts[i] = cuts[i - 1];
+		}
+		cells[position] = cell;
+		cuts[position] = cut;
+		return Math.min(count + 1, k);
+	}
+
+	private boolean isBetter(int cut, int distance, int cell, int otherCut, int otherCell) {
+		if (cut != otherCut)
+			return cut < otherCut;
+		int otherDistance = distanceToCat(otherCell);
+		return distance != otherDistance ? distance < otherDistance : cell < otherCell;
+	}
+
+	private int distanceToCat(int cell) {
+		int dq = layout.getQ(cell) - layout.getQ(cat);
+		int dr = layout.getR(cell) - layout.getR(cat);
+		return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
+	}
+
+	private boolean isUnbounded() {
+		return cat < 0 || escape[cat];
+	}
+
+	private void saturate() {
+		if (saturated)
+			return;
+		while (augment())
+			flow++;
+		saturated = true;
+	}
+
+	/**
+	 * Busca un camino de aumento y, si lo encuentra, lo aplica al flujo.
+	 */
+	private boolean augment() {
+		if (!explore())
+			return false;
+		int last = sinkState;
+		int length = 0;
+		for (int s = last; s >= 0; s = parentState[s]) {
+			path[length++] = s;
+		}
+		// path va del último estado al gato; primero se cancelan los arcos inversos
+		for (int i = length - 1; i > 0; i--) {
+			int from = path[i];
+			int to = path[i - 1];
+			if ((from & 1) == 0 && (to & 1) == 1 && from >>> 1 != to >>> 1) {
+				int x = to >>> 1;
+				int y = from >>> 1;
+				pred[y] = NONE;
+				if (x != cat)
+					succ[x] = NONE;
+			}
+		}
+		for (int i = length - 1; i > 0; i--) {
+			int from = path[i];
+			int to = path[i - 1];
+			if ((from & 1) == 1 && (to & 1) == 0 && from >>> 1 != to >>> 1) {
+				int x = from >>> 1;
+				int y = to >>> 1;
+				pred[y] = x;
+				if (x != cat)
+					succ[x] = y;
+			}
+		}
+		succ[last >>> 1] = SINK;
+		return true;
+	}
+
+	/**
+	 * BFS en el grafo residual desde la salida del gato. Deja marcados los
+	 * estados alcanzados; si llega a la salida de una celda de escape libre de
+	 * flujo, cuyo arco al sumidero está disponible, deja ese estado en sinkState.
+	 */
+	private boolean explore() {
+		stamp++;
+		int source = 2 * cat + 1;
+		stateMark[source] = stamp;
+		parentState[source] = NONE;
+		int tail = 0;
+		queue[tail++] = source;
+		for (int head = 0; head < tail; head++) {
+			int state = queue[head];
+			int v = state >>> 1;
+			if ((state & 1) == 1) {
+				if (escape[v] && v != cat) {
+					// Solo se llega a la salida de una celda de escape sin flujo
+					sinkState = state;
+					return true;
+				}
+				int end = layout.neighborEnd(v);
+				for (int k = layout.neighborStart(v); k < end; k++) {
+					int w = layout.neighborAt(k);
+					if (w == cat || isBlocked(w))
+						continue;
+					tail = visit(2 * w, state, tail);
+				}
+				// Arco inverso de la división: deshacer el paso por la celda
+				if (v != cat && pred[v] != NONE)
+					tail = visit(2 * v, state, tail);
+			} else if (pred[v] == NONE) {
+				tail = visit(2 * v + 1, state, tail);
+			} else if (pred[v] != cat) {
+				// Arco inverso del camino: volver a la celda anterior
+				tail = visit(2 * pred[v] + 1, state, tail);
+			}
+		}
+		return false;
+	}
+
+	private int visit(int state, int from, int tail) {
+		if (stateMark[state] != stamp) {
+			stateMark[state] = stamp;
+			parentState[state] = from;
+			queue[tail++] = state;
+		}
+		return tail;
+	}
+
+	private boolean isBlocked(int index) {
+		return index == extraBlocked || blocked.containsIndex(index);
+	}
+
+	private boolean isNeighbor(int a, int b) {
+		int end = layout.neighborEnd(a);
+		for (int k = layout.neighborStart(a); k < end; k++) {
+			if (layout.neighborAt(k) == b)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Cancela el camino completo que pasa por la celda.
+	 */
+	private void cancelPath(int index) {
+		for (int x = pred[index]; x != cat && x != NONE;) {
+			int before = pred[x];
+			pred[x] = NONE;
+			succ[x] = NONE;
+			x = before;
+		}
+		clearForward(index);
+		flow--;
+	}
+
+	private void clearForward(int index) {
+		for (int x = index; x >= 0;) {
+			int next = succ[x];
+			pred[x] = NONE;
+			succ[x] = NONE;
+			x = next;
+		}
+	}
+}
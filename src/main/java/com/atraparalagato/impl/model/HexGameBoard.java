@@ -2,12 +2,14 @@ package com.atraparalagato.impl.model;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import com.atraparalagato.base.model.GameBoard;
+import com.atraparalagato.base.model.IndexedBoard;
 
 /**
  * Implementación esqueleto de GameBoard para tableros hexagonales.
@@ -18,18 +20,54 @@ import com.atraparalagato.base.model.GameBoard;
  * hexagonal - OOP: Herencia y polimorfismo - Programación Funcional: Uso de
  * Predicate y streams
  */
-public class HexGameBoard extends GameBoard<HexPosition> {
+public class HexGameBoard extends GameBoard<HexPosition> implements IndexedBoard<HexPosition> {
+
+	private final HexBoardLayout layout;
+	/**
+	 * Vista tipada de blockedPositions, para operar directamente por índice.
+	 */
+	private final HexCellSet blockedCells;
+	/**
+	 * Distancias al borde. Se crea al primer uso y se mantiene incrementalmente.
+	 */
+	private HexDistanceField borderDistance;
+	/**
+	 * Regiones de celdas libres. Se crea al primer uso y se mantiene
+	 * incrementalmente.
+	 */
+	private HexConnectivityIndex connectivity;
+	/**
+	 * Flujo del corte mínimo hacia la salida. Se crea al primer uso y se mantiene
+	 * incrementalmente.
+	 */
+	private HexEscapeCut escapeCut;
+	/**
+	 * Grafo abstracto por grupos de celdas para tableros grandes. Se crea al
+	 * primer uso y se mantiene incrementalmente.
+	 */
+	private HexClusterGraph clusterGraph;
+	/**
+	 * Hash Zobrist de las celdas bloqueadas y el tamaño del tablero.
+	 */
+	private long zobristKey;
 
 	public HexGameBoard(int size) {
 		super(size);
+		this.layout = HexBoardLayout.of(size);
+		this.blockedCells = (HexCellSet) blockedPositions;
+		this.zobristKey = layout.sizeKey();
 	}
 
 	@Override
 	protected Set<HexPosition> initializeBlockedPositions() {
-		// TODO: Los estudiantes deben decidir qué estructura de datos usar
-		// Opciones: HashSet, TreeSet, LinkedHashSet, etc.
-		// Considerar rendimiento vs orden vs duplicados
-		return new HashSet<>();
+		/*
+		 * Las celdas bloqueadas se guardan en un bitset indexado por la geometría
+		 * compartida del tablero, en vez de un HashSet de HexPosition.
+		 * 
+		 * Se invoca desde el constructor de GameBoard, por eso se usa size y no el
+		 * campo layout (aún no inicializado).
+		 */
+		return new HexCellSet(HexBoardLayout.of(size));
 	}
 
 	@Override
@@ -66,8 +104,19 @@ public class HexGameBoard extends GameBoard<HexPosition> {
 		 * E.OSORIO Se agrega la posición a la lista de bloqueados si es valido el
 		 * movimiento.
 		 */
-		if (isValidMove(position))
-			blockedPositions.add(position);
+		if (isValidMove(position)) {
+			int index = layout.indexOf(position);
+			blockedCells.addIndex(index);
+			zobristKey ^= layout.blockedKey(index);
+			if (borderDistance != null)
+				borderDistance.onBlocked(index);
+			if (connectivity != null)
+				connectivity.onBlocked(index);
+			if (escapeCut != null)
+				escapeCut.onBlocked(index);
+			if (clusterGraph != null)
+				clusterGraph.onBlocked(index);
+		}
 		// throw new UnsupportedOperationException("Los estudiantes deben implementar
 		// este método");
 	}
@@ -96,26 +145,72 @@ public class HexGameBoard extends GameBoard<HexPosition> {
 		// TODO: Obtener las 6 posiciones adyacentes en un tablero hexagonal
 		// Direcciones hexagonales: (+1,0), (+1,-1), (0,-1), (-1,0), (-1,+1), (0,+1)
 		// Filtrar las que estén dentro de los límites del tablero
-		//
-		// Pista: Crear array de direcciones y usar streams para mapear
-		HexPosition[] directions = { new HexPosition(1, 0), // Este (Derecha)
-				new HexPosition(1, -1), // Noreste (Derecha, Arriba)
-				new HexPosition(0, -1), // Noroeste (Arriba)
-				new HexPosition(-1, 0), // Oeste (Izquierda)
-				new HexPosition(-1, 1), // Suroeste (Izquierda, Abajo)
-				new HexPosition(0, 1) // Sureste (Abajo)
-		};
-
-		return Arrays.stream(directions)
-				.map(dir -> (HexPosition) position.add(dir)) // Se mapea a la position actual
-																						// más cada una de las
-																						// direcciones
-				.filter(this::isPositionInBounds) // Se valida que las posiciones creadas estén dentro del borde
-				.filter(pos -> !isBlocked(pos)) // Se filtra, manteniendo solo las que no se encuentran bloqueadas.
-				.collect(Collectors.toList()); // Se construye la lista final
 
-		// throw new UnsupportedOperationException("Los estudiantes deben implementar
-		// este método");
+		/*
+		 * Los vecinos de cada celda ya están precalculados en la tabla compartida del
+		 * layout, y las posiciones que retorna son siempre las mismas instancias, por
+		 * lo que solo se crea la lista resultante.
+		 */
+		int index = layout.indexOf(position);
+		if (index < 0)
+			return getAdjacentPositionsOutOfBoard(position);
+
+		int end = layout.neighborEnd(index);
+		List<HexPosition> result = new ArrayList<>(end - layout.neighborStart(index));
+		for (int k = layout.neighborStart(index); k < end; k++) {
+			int neighbor = layout.neighborAt(k);
+			if (!blockedCells.containsIndex(neighbor))
+				result.add(layout.positionAt(neighbor));
+		}
+		return result;
+	}
+
+	/**
+	 * Vecinos dentro del tablero de una posición que está fuera de él. No se usa en
+	 * el flujo normal del juego, donde el gato siempre está dentro del tablero.
+	 */
+	private List<HexPosition> getAdjacentPositionsOutOfBoard(HexPosition position) {
+		return Arrays.stream(HexBoardLayout.DIRECTIONS)
+				.map(dir -> layout.indexOf(position.getQ() + dir[0], position.getR() + dir[1]))
+				.filter(neighbor -> neighbor >= 0 && !blockedCells.containsIndex(neighbor))
+				.map(layout::positionAt)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public void forEachAdjacentPosition(HexPosition position, Consumer<? super HexPosition> visitor) {
+		int index = layout.indexOf(position);
+		if (index < 0) {
+			getAdjacentPositionsOutOfBoard(position).forEach(visitor);
+			return;
+		}
+
+		int end = layout.neighborEnd(index);
+		for (int k = layout.neighborStart(index); k < end; k++) {
+			int neighbor = layout.neighborAt(k);
+			if (!blockedCells.containsIndex(neighbor))
+				visitor.accept(layout.positionAt(neighbor));
+		}
+	}
+
+	@Override
+	public void forEachAdjacentIndex(int index, IntConsumer visitor) {
+		int end = layout.neighborEnd(index);
+		for (int k = layout.neighborStart(index); k < end; k++) {
+			int neighbor = layout.neighborAt(k);
+			if (!blockedCells.containsIndex(neighbor))
+				visitor.accept(neighbor);
+		}
+	}
+
+	@Override
+	public int getCellCount() {
+		return layout.getCellCount();
+	}
+
+	@Override
+	public HexPosition positionAt(int index) {
+		return layout.positionAt(index);
 	}
 
 	@Override
@@ -123,11 +218,114 @@ public class HexGameBoard extends GameBoard<HexPosition> {
 		// TODO: Verificar si una posición está en el conjunto de bloqueadas
 		// Método simple de consulta
 
-		return blockedPositions.contains(position);
+		return blockedCells.contains(position);
 		// throw new UnsupportedOperationException("Los estudiantes deben implementar
 		// este método");
 	}
 
+	/**
+	 * Verifica si la celda del índice dado está bloqueada.
+	 */
+	public boolean isBlocked(int index) {
+		return blockedCells.containsIndex(index);
+	}
+
+	@Override
+	public int indexOf(HexPosition position) {
+		return layout.indexOf(position);
+	}
+
+	/**
+	 * Geometría compartida por todos los tableros de este tamaño.
+	 */
+	public HexBoardLayout getLayout() {
+		return layout;
+	}
+
+	/**
+	 * Campo de distancias a las salidas de este tablero. Se calcula la primera vez
+	 * que se pide y desde entonces se actualiza con cada movimiento.
+	 */
+	public HexDistanceField getBorderDistance() {
+		if (borderDistance == null)
+			borderDistance = new HexDistanceField(layout, blockedCells);
+		return borderDistance;
+	}
+
+	/**
+	 * Regiones de celdas libres de este tablero. Se calculan la primera vez que se
+	 * piden y desde entonces se actualizan con cada movimiento.
+	 */
+	public HexConnectivityIndex getConnectivity() {
+		if (connectivity == null)
+			connectivity = new HexConnectivityIndex(layout, blockedCells);
+		return connectivity;
+	}
+
+	/**
+	 * Corte mínimo entre el gato y la salida en este tablero. Se crea la primera
+	 * vez que se pide y desde entonces su flujo se actualiza con cada movimiento.
+	 */
+	public HexEscapeCut getEscapeCut() {
+		if (escapeCut == null)
+			escapeCut = new HexEscapeCut(layout, blockedCells);
+		return escapeCut;
+	}
+
+	/**
+	 * Grafo abstracto por grupos de celdas de este tablero. Se crea la primera vez
+	 * que se pide y desde entonces se actualiza con cada movimiento.
+	 */
+	public HexClusterGraph getClusterGraph() {
+		if (clusterGraph == null)
+			clusterGraph = new HexClusterGraph(layout, blockedCells);
+		return clusterGraph;
+	}
+
+	/**
+	 * Verifica si desde la posición se puede llegar a alguna salida
+	 * ({@link #isAtBorder}) sin pasar por celdas bloqueadas. Es una consulta de
+	 * costo constante sobre las regiones del tablero.
+	 * 
+	 * @return false si la posición está fuera del tablero o bloqueada.
+	 */
+	public boolean canReachBorder(HexPosition position) {
+		int index = layout.indexOf(position);
+		return index >= 0 && getConnectivity().canReachBorder(index);
+	}
+
+	/**
+	 * Cantidad de celdas libres que se alcanzan desde la posición, incluida ella
+	 * misma, o 0 si está fuera del tablero o bloqueada.
+	 */
+	public int getRegionSize(HexPosition position) {
+		int index = layout.indexOf(position);
+		return index < 0 ? 0 : getConnectivity().regionSize(index);
+	}
+
+	/**
+	 * Hash Zobrist de las celdas bloqueadas y el tamaño del tablero. Dos tableros
+	 * con el mismo tamaño y las mismas celdas bloqueadas tienen el mismo hash.
+	 */
+	public long getZobristKey() {
+		return zobristKey;
+	}
+
+	/**
+	 * Copia las celdas bloqueadas como bitset indexado por celda, para búsquedas
+	 * que trabajan sobre una copia primitiva del tablero.
+	 */
+	public void copyBlockedBits(long[] target) {
+		blockedCells.copyBitsTo(target);
+	}
+
+	/**
+	 * Cantidad de celdas bloqueadas, sin copiar el conjunto.
+	 */
+	public int getBlockedCount() {
+		return blockedCells.size();
+	}
+
 	/**
 	 * E.OSORIO Verifica si la posición está en el borde del tablero. El borde son
 	 * las posiciones donde el gato puede escapar. El jugador no puede seleccionar
@@ -152,7 +350,7 @@ public class HexGameBoard extends GameBoard<HexPosition> {
 		 */
 		for (int q = (-size + 1); q < size; q++) {
 			for (int r = (-size + 1); r < size; r++) {
-				elements.add(new HexPosition(q, r));
+				elements.add(HexPosition.of(q, r));
 			}
 		}
 		/*
@@ -176,7 +374,18 @@ public class HexGameBoard extends GameBoard<HexPosition> {
 	 * @param bloquedPosition Set de puntos a agregar.
 	 */
 	public void setBloquedPositions(Set<HexPosition> bloquedPosition) {
-		this.blockedPositions.clear();
-		this.blockedPositions.addAll(Set.copyOf(bloquedPosition));
+		blockedCells.clear();
+		blockedCells.addAll(bloquedPosition);
+		zobristKey = layout.sizeKey();
+		for (int i = blockedCells.nextIndex(0); i >= 0; i = blockedCells.nextIndex(i + 1))
+			zobristKey ^= layout.blockedKey(i);
+		if (borderDistance != null)
+			borderDistance.recompute();
+		if (connectivity != null)
+			connectivity.rebuild();
+		if (escapeCut != null)
+			escapeCut.rebuild();
+		if (clusterGraph != null)
+			clusterGraph.rebuild();
 	}
 }
\ No newline at end of file
@@ -21,11 +21,15 @@ import com.atraparalagato.base.model.GameState;
 public class HexGameState extends GameState<HexPosition> {
 
 	public enum LEVEL_OF_DIFFICULTY {
-		EASY, HARD
+		EASY, HARD, EXPERT
 	};
 
 	public final static int DEFAULT_BOARD_SIZE = 11;
 	private HexPosition catPosition;
+	/**
+	 * Clave Zobrist de la posición del gato, ver {@link #getZobristKey()}.
+	 */
+	private long catZobristKey;
 	private HexGameBoard gameBoard;
 	private int boardSize;
 	private LocalDateTime finishedAt;
@@ -90,7 +94,7 @@ public class HexGameState extends GameState<HexPosition> {
 		 */
 		this.gameBoard = new HexGameBoard(boardSize);
 
-		this.catPosition = new HexPosition(boardSize, boardSize);
+		this.catPosition = HexPosition.of(boardSize, boardSize);
 
 		this.maxMovements = maxMovements;
 
@@ -187,6 +191,7 @@ public class HexGameState extends GameState<HexPosition> {
 		// para verificar si el juego terminó
 
 		this.catPosition = position;
+		this.catZobristKey = catKeyOf(position);
 		updateGameStatus();
 		// throw new UnsupportedOperationException("Los estudiantes deben implementar
 		// setCatPosition");
@@ -301,7 +306,8 @@ public class HexGameState extends GameState<HexPosition> {
 			// Restaurar posición del gato
 			Map<String, Integer> catPos = (Map<String, Integer>) state.get("catPosition");
 			if (catPos != null) {
-				this.catPosition = new HexPosition(catPos.get("q"), catPos.get("r"));
+				this.catPosition = HexPosition.of(catPos.get("q"), catPos.get("r"));
+				this.catZobristKey = catKeyOf(catPosition);
 			}
 
 			// Restaurar estado del juego
@@ -359,9 +365,15 @@ public class HexGameState extends GameState<HexPosition> {
 	/**
 	 * TODO: Verificar si el gato está completamente atrapado. Debe verificar si
 	 * todas las posiciones adyacentes están bloqueadas.
+	 * 
+	 * El gato está atrapado cuando ya no puede llegar a ninguna salida (las
+	 * celdas de isCatAtBorder), aunque todavía tenga celdas libres a su alrededor. Mientras el gato no se ha ubicado dentro
+	 * del tablero se mantiene la regla de las posiciones adyacentes.
 	 */
 	private boolean isCatTrapped() {
-		return gameBoard.getAdjacentPositions(catPosition).stream().allMatch(gameBoard::isBlocked);
+		if (gameBoard.indexOf(catPosition) < 0)
+			return gameBoard.getAdjacentPositions(catPosition).stream().allMatch(gameBoard::isBlocked);
+		return !gameBoard.canReachBorder(catPosition);
 		// throw new UnsupportedOperationException("Método auxiliar para implementar");
 	}
 
@@ -377,6 +389,7 @@ public class HexGameState extends GameState<HexPosition> {
         state.put("status", getStatus().toString());
         state.put("moveCount", getMoveCount());
         state.put("boardSize", boardSize);
+        state.put("catRegionSize", getCatRegionSize());
 		return state;
 		//throw new UnsupportedOperationException("Método adicional para implementar");
 	}
@@ -390,6 +403,50 @@ public class HexGameState extends GameState<HexPosition> {
 	public void setGameBoard(HexGameBoard gameBoard) {
 		this.gameBoard = gameBoard;
 		this.boardSize = gameBoard.getSize();
+		this.catZobristKey = catKeyOf(catPosition);
+	}
+
+	/**
+	 * Copia del estado con un tablero propio y sin los callbacks. Sirve para
+	 * escribir el juego desde otro hilo mientras el original sigue recibiendo
+	 * movimientos.
+	 */
+	public HexGameState copy() {
+		HexGameState copy = new HexGameState(gameId, boardSize, maxMovements);
+		copy.gameBoard.setBloquedPositions(gameBoard.getBlockedPositions());
+		copy.catPosition = catPosition;
+		copy.catZobristKey = catZobristKey;
+		copy.createdAt = createdAt;
+		copy.status = status;
+		copy.moveCount = moveCount;
+		copy.finishedAt = finishedAt;
+		copy.playerId = playerId;
+		copy.pausedAt = pausedAt;
+		copy.points = points;
+		copy.invalidMovements = invalidMovements;
+		copy.levelOfDifficulty = levelOfDifficulty;
+		return copy;
+	}
+
+	/**
+	 * Hash Zobrist de la posición del juego: tamaño del tablero, celdas bloqueadas
+	 * y posición del gato. Se mantiene al día con cada movimiento, sin recorrer las
+	 * celdas bloqueadas, y sirve como clave para tablas de transposición o cachés
+	 * de decisiones del gato.
+	 */
+	public long getZobristKey() {
+		return gameBoard.getZobristKey() ^ catZobristKey;
+	}
+
+	private long catKeyOf(HexPosition position) {
+		return gameBoard.getLayout().catKey(gameBoard.indexOf(position));
+	}
+
+	/**
+	 * Cantidad de celdas libres a las que el gato todavía puede llegar.
+	 */
+	public int getCatRegionSize() {
+		return gameBoard.getRegionSize(catPosition);
 	}
 
 	public int getBoardSize() {
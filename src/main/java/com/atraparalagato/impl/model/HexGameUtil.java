@@ -30,7 +30,7 @@ public final class HexGameUtil {
 			String[] parts = entry.split(",");
 			int q = Integer.parseInt(parts[0]);
 			int r = Integer.parseInt(parts[1]);
-			return new HexPosition(q, r);
+			return HexPosition.of(q, r);
 		}).collect(Collectors.toSet());
 	}
 }
@@ -12,9 +12,19 @@ import com.atraparalagato.base.model.Position;
  * - OOP: Herencia de la clase base abstracta
  * - Inmutabilidad: Los objetos no cambian después de creados
  * - Encapsulación: Los campos son privados con acceso controlado
+ * - Flyweight: {@link #of(int, int)} retorna instancias canónicas
  */
 public class HexPosition extends Position {
     
+    /**
+     * Rango de coordenadas con instancia canónica precalculada: |q| y |r| hasta
+     * este valor. Se configura con la propiedad de sistema
+     * atraparalagato.hexposition.cache-range.
+     */
+    public static final int CACHE_RANGE = Math.max(0, Integer.getInteger("atraparalagato.hexposition.cache-range", 32));
+    private static final int CACHE_WIDTH = 2 * CACHE_RANGE + 1;
+    private static final HexPosition[] CACHE = createCache();
+    
     private final int q; // Coordenada axial q
     private final int r; // Coordenada axial r
     
@@ -23,6 +33,28 @@ public class HexPosition extends Position {
         this.r = r;
     }
     
+    /**
+     * Obtiene la posición (q, r). Dentro de CACHE_RANGE siempre retorna la misma
+     * instancia, por lo que no asigna memoria y permite comparar por identidad;
+     * fuera de ese rango crea una posición nueva.
+     */
+    public static HexPosition of(int q, int r) {
+        if (q < -CACHE_RANGE || q > CACHE_RANGE || r < -CACHE_RANGE || r > CACHE_RANGE) {
+            return new HexPosition(q, r);
+        }
+        return CACHE[(q + CACHE_RANGE) * CACHE_WIDTH + r + CACHE_RANGE];
+    }
+    
+    private static HexPosition[] createCache() {
+        HexPosition[] cache = new HexPosition[CACHE_WIDTH * CACHE_WIDTH];
+        for (int q = -CACHE_RANGE; q <= CACHE_RANGE; q++) {
+            for (int r = -CACHE_RANGE; r <= CACHE_RANGE; r++) {
+                cache[(q + CACHE_RANGE) * CACHE_WIDTH + r + CACHE_RANGE] = new HexPosition(q, r);
+            }
+        }
+        return cache;
+    }
+    
     public int getQ() {
         return q;
     }
@@ -52,7 +84,7 @@ public class HexPosition extends Position {
         }
         
         HexPosition hex = (HexPosition) other;
-        return new HexPosition(q + hex.q, r + hex.r);
+        return HexPosition.of(q + hex.q, r + hex.r);
     }
     
     @Override
@@ -62,7 +94,7 @@ public class HexPosition extends Position {
         }
         
         HexPosition hex = (HexPosition) other;
-        return new HexPosition(q - hex.q, r - hex.r);
+        return HexPosition.of(q - hex.q, r - hex.r);
     }
     
     @Override
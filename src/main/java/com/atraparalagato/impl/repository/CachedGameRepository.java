@@ -0,0 +1,594 @@
+package com.atraparalagato.impl.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.atraparalagato.base.model.GameState;
+import com.atraparalagato.base.model.GameState.GameStatus;
+import com.atraparalagato.base.repository.DataRepository;
+import com.atraparalagato.impl.model.HexGameState;
+import com.atraparalagato.impl.model.HexPosition;
+
+/**
+ * Caché de sesiones de juego con escritura diferida delante de otro
+ * repositorio, normalmente {@link H2GameRepository}.
+ *
+ * Los juegos en curso viven en memoria: findById devuelve el mismo
+ * HexGameState que se guardó, sin consulta SQL ni reconstrucción del tablero, y
+ * save solo lo marca como pendiente. Un hilo propio escribe los pendientes en
+ * lotes cada flushIntervalMillis, así varios movimientos de un mismo juego
+ * entre dos escrituras se guardan una sola vez. Un juego que termina se escribe
+ * en cuanto se guarda, sin esperar al intervalo.
+ *
+ * Lo que se escribe es una copia que save toma del estado: save corre con el
+ * lock del juego, mientras que el hilo de escritura no lo tiene y podría leer
+ * el tablero a medio movimiento.
+ *
+ * La caché está acotada: al superar maxEntries expulsa el juego usado hace más
+ * tiempo, escribiéndolo antes si estaba pendiente. Si esa escritura falla el
+ * juego sigue pendiente y se reintenta con la próxima. Las consultas que
+ * recorren la base de datos (findAll, findWhere, consultas personalizadas...)
+ * escriben primero los pendientes para ver el estado al día.
+ */
+public class CachedGameRepository extends DataRepository<GameState<HexPosition>, String> {
+
+	private static final Logger LOG = Logger.getLogger(CachedGameRepository.class.getName());
+
+	private final DataRepository<GameState<HexPosition>, String> delegate;
+	private final int maxEntries;
+	private final long flushIntervalMillis;
+
+	/**
+	 * Sesiones en orden de acceso; se accede siempre con su lock.
+	 */
+	private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Juegos expulsados con cambios que todavía no se escribieron; findById los
+	 * sigue viendo y save los vuelve a la caché. Salen de acá cuando la escritura
+	 * termina bien. Se accede con el lock de sessions.
+	 */
+	private final Map<String, Session> evictedPending = new HashMap<>();
+
+	/**
+	 * Evita que dos escrituras de pendientes se solapen y desordenen los estados.
+	 * Es un ReentrantLock y no synchronized porque se mantiene durante la
+	 * escritura JDBC, y un hilo virtual bloqueado dentro de synchronized no
+	 * libera su hilo de plataforma.
+	 */
+	private final ReentrantLock flushLock = new ReentrantLock();
+	private final ScheduledExecutorService flusher;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder dirtyEvictions = new LongAdder();
+	private final LongAdder flushes = new LongAdder();
+	private final LongAdder flushedStates = new LongAdder();
+	private final LongAdder coalescedSaves = new LongAdder();
+	private final LongAdder flushErrors = new LongAdder();
+	private final AtomicLong lastFlushLagNanos = new AtomicLong();
+	private final AtomicLong maxFlushLagNanos = new AtomicLong();
+
+	/**
+	 * @param delegate            repositorio donde se escriben los estados
+	 * @param maxEntries          cantidad máxima de juegos en memoria
+	 * @param flushIntervalMillis cada cuánto se escriben los pendientes
+	 */
+	public CachedGameRepository(DataRepository<GameState<HexPosition>, String> delegate, int maxEntries,
+			long flushIntervalMillis) {
+		if (maxEntries <= 0)
+			throw new IllegalArgumentException("La capacidad de la caché de sesiones debe ser positiva: " + maxEntries);
+		if (flushIntervalMillis <= 0)
+			throw new IllegalArgumentException("El intervalo de escritura debe ser positivo: " + flushIntervalMillis);
+		this.delegate = delegate;
+		this.maxEntries = maxEntries;
+		this.flushIntervalMillis = flushIntervalMillis;
+		this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "game-session-flush");
+			thread.setDaemon(true);
+			return thread;
+		});
+		initialize();
+	}
+
+	@Override
+	public GameState<HexPosition> save(GameState<HexPosition> entity) {
+		if (!validateEntity(entity))
+			throw new IllegalArgumentException("No se puede guardar un estado nulo");
+		boolean evicted = false;
+		GameState<HexPosition> snapshot = snapshot(entity);
+		synchronized (sessions) {
+			Session session = sessions.get(entity.getGameId());
+			if (session == null) {
+				// Si seguía esperando su escritura vuelve con sus avisos pendientes
+				session = evictedPending.remove(entity.getGameId());
+				if (session == null)
+					session = new Session(entity);
+				sessions.put(entity.getGameId(), session);
+				evicted = collectEvicted();
+			}
+			session.state = entity;
+			session.snapshot = snapshot;
+			if (session.dirty)
+				coalescedSaves.increment();
+			else
+				session.markDirty();
+		}
+		if (evicted)
+			writeEvicted();
+		if (hasEnded(entity))
+			flusher.execute(this::flushSafely);
+		return entity;
+	}
+
+	@Override
+	public Optional<GameState<HexPosition>> findById(String id) {
+		if (id == null)
+			return Optional.empty();
+		synchronized (sessions) {
+			Session session = sessions.get(id);
+			if (session != null) {
+				hits.increment();
+				return Optional.of(session.state);
+			}
+			Session pending = evictedPending.get(id);
+			if (pending != null) {
+				hits.increment();
+				return Optional.of(pending.state);
+			}
+		}
+		misses.increment();
+		Optional<GameState<HexPosition>> loaded = delegate.findById(id);
+		if (loaded.isEmpty())
+			return loaded;
+
+		boolean evicted = false;
+		GameState<HexPosition> state;
+		synchronized (sessions) {
+			// Otro hilo pudo haberlo cargado o guardado mientras tanto; gana el de la caché
+			Session session = sessions.get(id);
+			if (session == null)
+				session = evictedPending.get(id);
+			if (session == null) {
+				session = new Session(loaded.get());
+				sessions.put(id, session);
+				evicted = collectEvicted();
+			}
+			state = session.state;
+		}
+		if (evicted)
+			writeEvicted();
+		return Optional.of(state);
+	}
+
+	@Override
+	public boolean existsById(String id) {
+		synchronized (sessions) {
+			if (sessions.containsKey(id) || evictedPending.containsKey(id))
+				return true;
+		}
+		return delegate.existsById(id);
+	}
+
+	/**
+	 * Los cambios sin escribir del juego se descartan y su aviso de durabilidad
+	 * falla, así nadie se queda esperándolo.
+	 */
+	@Override
+	public boolean deleteById(String id) {
+		boolean cached = false;
+		synchronized (sessions) {
+			for (Session session : new Session[] { sessions.remove(id), evictedPending.remove(id) }) {
+				if (session != null) {
+					session.discard(new IllegalStateException("El juego " + id + " se borró antes de escribirse"));
+					cached = true;
+				}
+			}
+		}
+		flushLock.lock();
+		try {
+			return delegate.deleteById(id) || cached;
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	@Override
+	public List<GameState<HexPosition>> findAll() {
+		flush();
+		return delegate.findAll();
+	}
+
+	@Override
+	public List<GameState<HexPosition>> findWhere(Predicate<GameState<HexPosition>> condition) {
+		flush();
+		return delegate.findWhere(condition);
+	}
+
+	@Override
+	public <R> List<R> findAndTransform(Predicate<GameState<HexPosition>> condition,
+			Function<GameState<HexPosition>, R> transformer) {
+		flush();
+		return delegate.findAndTransform(condition, transformer);
+	}
+
+	@Override
+	public long countWhere(Predicate<GameState<HexPosition>> condition) {
+		flush();
+		return delegate.countWhere(condition);
+	}
+
+	@Override
+	public long deleteWhere(Predicate<GameState<HexPosition>> condition) {
+		flush();
+		try {
+			return delegate.deleteWhere(condition);
+		} finally {
+			invalidateAll();
+		}
+	}
+
+	/**
+	 * La operación trabaja directamente sobre la base de datos, así que antes se
+	 * escriben los pendientes y después se descartan los juegos en memoria.
+	 */
+	@Override
+	public <R> R executeInTransaction(Function<DataRepository<GameState<HexPosition>, String>, R> operation) {
+		flush();
+		try {
+			return delegate.executeInTransaction(operation);
+		} finally {
+			invalidateAll();
+		}
+	}
+
+	@Override
+	public List<GameState<HexPosition>> findWithPagination(int page, int size) {
+		flush();
+		return delegate.findWithPagination(page, size);
+	}
+
+	@Override
+	public List<GameState<HexPosition>> findAllSorted(
+			Function<GameState<HexPosition>, ? extends Comparable<?>> sortKeyExtractor, boolean ascending) {
+		flush();
+		return delegate.findAllSorted(sortKeyExtractor, ascending);
+	}
+
+	@Override
+	public <R> List<R> executeCustomQuery(String query, Function<Object, R> resultMapper) {
+		flush();
+		return delegate.executeCustomQuery(query, resultMapper);
+	}
+
+	/**
+	 * Escribe ya todos los juegos pendientes en un solo lote.
+	 */
+	public void flush() {
+		writePending(false);
+	}
+
+	/**
+	 * Escribe en un lote los pendientes expulsados y, si evictedOnly es false,
+	 * también los de la caché.
+	 */
+	private void writePending(boolean evictedOnly) {
+		flushLock.lock();
+		try {
+			List<Session> pending = new ArrayList<>();
+			List<GameState<HexPosition>> states = new ArrayList<>();
+			synchronized (sessions) {
+				collectDirty(evictedPending.values(), pending, states);
+				if (!evictedOnly)
+					collectDirty(sessions.values(), pending, states);
+			}
+			if (pending.isEmpty())
+				return;
+			try {
+				delegate.saveAll(states);
+			} catch (RuntimeException e) {
+				flushErrors.increment();
+				synchronized (sessions) {
+					for (Session session : pending) {
+						// Un juego borrado mientras tanto ya no se reintenta
+						if (session.discarded)
+							session.failWrite(e);
+						else
+							session.retryWrite();
+					}
+				}
+				throw e;
+			}
+			synchronized (sessions) {
+				for (Session session : pending) {
+					session.finishWrite();
+					evictedPending.remove(session.state.getGameId(), session);
+				}
+			}
+			long now = System.nanoTime();
+			long maxLag = 0;
+			for (Session session : pending) {
+				maxLag = Math.max(maxLag, now - session.dirtySince);
+			}
+			flushes.increment();
+			flushedStates.add(states.size());
+			lastFlushLagNanos.set(maxLag);
+			maxFlushLagNanos.accumulateAndGet(maxLag, Math::max);
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	/**
+	 * Aviso que se cumple cuando los cambios guardados hasta ahora del juego ya
+	 * están escritos en el repositorio de abajo; ya cumplido si no hay nada
+	 * pendiente. Si una escritura falla el aviso sigue pendiente hasta el
+	 * reintento, y falla si el juego se borra antes.
+	 */
+	public CompletableFuture<Void> whenDurable(String gameId) {
+		synchronized (sessions) {
+			Session session = sessions.get(gameId);
+			if (session == null)
+				session = evictedPending.get(gameId);
+			if (session != null && session.dirty)
+				return session.durable.copy();
+			if (session != null && session.writing != null)
+				return session.writing.copy();
+		}
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Detiene el hilo de escritura y escribe lo que quede pendiente.
+	 */
+	public void shutdown() {
+		flusher.shutdown();
+		try {
+			flusher.awaitTermination(flushIntervalMillis * 10, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flush();
+	}
+
+	public int size() {
+		synchronized (sessions) {
+			return sessions.size();
+		}
+	}
+
+	/**
+	 * Juegos con cambios sin escribir, contando los expulsados.
+	 */
+	public int getDirtyCount() {
+		int dirty = 0;
+		synchronized (sessions) {
+			for (Session session : sessions.values()) {
+				if (session.dirty)
+					dirty++;
+			}
+			for (Session session : evictedPending.values()) {
+				if (session.dirty)
+					dirty++;
+			}
+		}
+		return dirty;
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Métricas de la caché y de las escrituras para exponerlas en la API.
+	 */
+	public Map<String, Object> getStatistics() {
+		long hitCount = hits.sum();
+		long total = hitCount + misses.sum();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("size", size());
+		stats.put("capacity", maxEntries);
+		stats.put("dirty", getDirtyCount());
+		stats.put("hits", hitCount);
+		stats.put("misses", total - hitCount);
+		stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+		stats.put("evictions", evictions.sum());
+		stats.put("dirtyEvictions", dirtyEvictions.sum());
+		stats.put("flushIntervalMillis", flushIntervalMillis);
+		stats.put("flushes", flushes.sum());
+		stats.put("flushedStates", flushedStates.sum());
+		stats.put("coalescedSaves", coalescedSaves.sum());
+		stats.put("flushErrors", flushErrors.sum());
+		stats.put("lastFlushLagMillis", lastFlushLagNanos.get() / 1_000_000.0);
+		stats.put("maxFlushLagMillis", maxFlushLagNanos.get() / 1_000_000.0);
+		return stats;
+	}
+
+	@Override
+	protected void initialize() {
+		flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	protected void cleanup() {
+		shutdown();
+	}
+
+	private void flushSafely() {
+		try {
+			flush();
+		} catch (RuntimeException e) {
+			// Los pendientes siguen marcados y se reintentan en la próxima escritura
+			LOG.log(Level.WARNING, "No se pudieron escribir los juegos pendientes", e);
+		}
+	}
+
+	/**
+	 * Junta los pendientes de sessions para escribirlos, con la copia tomada en
+	 * su último save. Se llama con el lock de sessions.
+	 */
+	private static void collectDirty(Iterable<Session> sessions, List<Session> pending,
+			List<GameState<HexPosition>> states) {
+		for (Session session : sessions) {
+			if (session.dirty) {
+				// Se limpia antes de escribir: un save posterior lo vuelve a marcar
+				session.startWrite();
+				pending.add(session);
+				states.add(session.snapshot);
+			}
+		}
+	}
+
+	/**
+	 * Saca de la caché los juegos menos usados que sobran; los pendientes pasan a
+	 * evictedPending y se escriben fuera del lock. Devuelve si hubo alguno.
+	 */
+	private boolean collectEvicted() {
+		boolean dirty = false;
+		Iterator<Session> iterator = sessions.values().iterator();
+		while (sessions.size() > maxEntries && iterator.hasNext()) {
+			Session eldest = iterator.next();
+			iterator.remove();
+			evictions.increment();
+			if (eldest.dirty) {
+				dirtyEvictions.increment();
+				evictedPending.put(eldest.state.getGameId(), eldest);
+				dirty = true;
+			}
+		}
+		return dirty;
+	}
+
+	private void writeEvicted() {
+		try {
+			writePending(true);
+		} catch (RuntimeException e) {
+			// Siguen en evictedPending y el hilo de escritura los reintenta; el
+			// pedido que provocó la expulsión no tiene por qué fallar
+			LOG.log(Level.WARNING, "No se pudieron escribir los juegos expulsados de la caché", e);
+		}
+	}
+
+	/**
+	 * Descarta los juegos en memoria para que se vuelvan a leer de la base de
+	 * datos. Los que tienen cambios sin escribir se quedan: se guardaron después
+	 * del último flush y descartarlos los perdería. Los que salen no tienen
+	 * avisos de durabilidad pendientes.
+	 */
+	private void invalidateAll() {
+		synchronized (sessions) {
+			sessions.values().removeIf(session -> !session.dirty && session.writing == null);
+		}
+	}
+
+	private static GameState<HexPosition> snapshot(GameState<HexPosition> state) {
+		return state instanceof HexGameState hexState ? hexState.copy() : state;
+	}
+
+	private static boolean hasEnded(GameState<HexPosition> state) {
+		GameStatus status = state.getStatus();
+		return status == GameStatus.PLAYER_WON || status == GameStatus.PLAYER_LOST || status == GameStatus.DRAW;
+	}
+
+	/**
+	 * Juego en memoria, la copia que se escribe, desde cuándo tiene cambios sin
+	 * escribir y los avisos de durabilidad de esos cambios y de la escritura en
+	 * curso. Se modifica con el lock de sessions.
+	 */
+	private static final class Session {
+		GameState<HexPosition> state;
+		GameState<HexPosition> snapshot;
+		boolean dirty;
+		boolean discarded;
+		long dirtySince;
+		CompletableFuture<Void> durable;
+		CompletableFuture<Void> writing;
+
+		Session(GameState<HexPosition> state) {
+			this.state = state;
+		}
+
+		void markDirty() {
+			markDirty(System.nanoTime());
+		}
+
+		void markDirty(long since) {
+			dirty = true;
+			dirtySince = since;
+			if (durable == null)
+				durable = new CompletableFuture<>();
+		}
+
+		/**
+		 * Los cambios pendientes pasan a la escritura que empieza.
+		 */
+		void startWrite() {
+			dirty = false;
+			writing = durable;
+			durable = null;
+		}
+
+		void finishWrite() {
+			if (writing != null)
+				writing.complete(null);
+			writing = null;
+		}
+
+		/**
+		 * La escritura falló: los cambios vuelven a quedar pendientes y su aviso
+		 * se cumple, o falla, con la próxima escritura que los incluya.
+		 */
+		void retryWrite() {
+			CompletableFuture<Void> failed = writing;
+			writing = null;
+			if (dirty) {
+				if (failed != null)
+					durable.whenComplete((value, error) -> {
+						if (error != null)
+							failed.completeExceptionally(error);
+						else
+							failed.complete(null);
+					});
+			} else {
+				durable = failed;
+				markDirty(dirtySince);
+			}
+		}
+
+		void failWrite(Throwable error) {
+			if (writing != null)
+				writing.completeExceptionally(error);
+			writing = null;
+		}
+
+		/**
+		 * El juego sale de la caché sin escribir sus cambios: su aviso falla. Una
+		 * escritura en curso termina por su cuenta, pero no se reintenta.
+		 */
+		void discard(Throwable error) {
+			discarded = true;
+			dirty = false;
+			if (durable != null)
+				durable.completeExceptionally(error);
+			durable = null;
+		}
+	}
+}
@@ -1,6 +1,8 @@
 package com.atraparalagato.impl.repository;
 
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -38,6 +40,7 @@ import com.atraparalagato.impl.model.HexPosition;
 public class H2GameRepository extends DataRepository<GameState<HexPosition>, String> {
 
 	private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm:ss");
+	private static final String MERGE_SQL = "MERGE INTO GAMESSTATES VALUES (? ,? ,? ,? ,?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 	
 
 
@@ -48,13 +51,21 @@ public class H2GameRepository extends DataRepository<GameState<HexPosition>, Str
 	private final TransactionTemplate transactionTemplate;
 	
 	private final HexGameStateRowMapper rowMapper = new HexGameStateRowMapper();
+
+	/**
+	 * Toda llamada JDBC pasa por aquí, así los pedidos concurrentes esperan su
+	 * turno sin agotar el pool de conexiones.
+	 */
+	private final JdbcPermits jdbcPermits;
 	
 	
-	public H2GameRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+	public H2GameRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			JdbcPermits jdbcPermits) {
 		// TODO: Inicializar conexión a H2 y crear tablas si no existen
 		// Pista: Usar spring.datasource.url configurado en application.properties
 		this.jdbcTemplate = jdbcTemplate;
 		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.jdbcPermits = jdbcPermits;
 		initialize();
 		// throw new UnsupportedOperationException("Los estudiantes deben implementar el
 		// constructor");
@@ -71,14 +82,33 @@ public class H2GameRepository extends DataRepository<GameState<HexPosition>, Str
 		// 5. Llamar hooks beforeSave/afterSave
 
 		HexGameState gameState = (HexGameState) entity;
-		String sql = "MERGE INTO GAMESSTATES VALUES (? ,? ,? ,? ,?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-		
+		Object[] row = toRow(gameState);
+		jdbcPermits.call(() -> jdbcTemplate.update(MERGE_SQL, row));
+		return gameState;
+		// throw new UnsupportedOperationException("Los estudiantes deben implementar
+		// save");
+	}
 
+	/**
+	 * Guarda todos los estados con un único MERGE por lotes dentro de una
+	 * transacción.
+	 */
+	@Override
+	public List<GameState<HexPosition>> saveAll(Collection<GameState<HexPosition>> entities) {
+		List<Object[]> rows = new ArrayList<>(entities.size());
+		for (GameState<HexPosition> entity : entities) {
+			rows.add(toRow((HexGameState) entity));
+		}
+		jdbcPermits.call(() -> transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(MERGE_SQL, rows)));
+		return new ArrayList<>(entities);
+	}
+
+	private Object[] toRow(HexGameState gameState) {
 		Set<HexPosition> bloquedPos = gameState.getGameBoard().getBlockedPositions();
 		String bloquedCells = HexGameUtil.serializeHexPositions(bloquedPos);
 		String finishedAt = gameState.getFinishedAt() == null ? null : gameState.getFinishedAt().format(DATE_TIME_FORMATTER);
 		String pausedAt = gameState.getPausedAt() == null ? null : gameState.getPausedAt().format(DATE_TIME_FORMATTER);
-		jdbcTemplate.update(sql, 
+		return new Object[] { 
 				gameState.getGameId(), 
 				gameState.getCatPosition().getQ(),
 				gameState.getCatPosition().getR(), 
@@ -93,10 +123,7 @@ public class H2GameRepository extends DataRepository<GameState<HexPosition>, Str
 				pausedAt, 
 				gameState.getLevelOfDifficulty().name(),
 				bloquedCells,
-				gameState.getPoints());
-		return gameState;
-		// throw new UnsupportedOperationException("Los estudiantes deben implementar
-		// save");
+				gameState.getPoints() };
 	}
 
 	@SuppressWarnings("deprecation")
@@ -110,7 +137,8 @@ public class H2GameRepository extends DataRepository<GameState<HexPosition>, Str
 
 		String sql = "SELECT * FROM GAMESSTATES WHERE ID = ?";
 		try {
-			GameState<HexPosition> state = jdbcTemplate.queryForObject(sql, new Object[] { id }, rowMapper);
+			GameState<HexPosition> state = jdbcPermits
+					.call(() -> jdbcTemplate.queryForObject(sql, new Object[] { id }, rowMapper));
 			return Optional.ofNullable(state);
 		} catch (EmptyResultDataAccessException e) {
 			return Optional.empty();
@@ -128,7 +156,7 @@ public class H2GameRepository extends DataRepository<GameState<HexPosition>, Str
 		// Considerar paginación para grandes volúmenes de datos
 
 		String sql = "SELECT * FROM GAMESSTATES";
-		return jdbcTemplate.query(sql, rowMapper);
+		return jdbcPermits.call(() -> jdbcTemplate.query(sql, rowMapper));
 
 		// throw new UnsupportedOperationException("Los estudiantes deben implementar
 		// findAll");
@@ -189,7 +217,7 @@ public class H2GameRepository extends DataRepository<GameState<HexPosition>, Str
 		// Retornar true si se eliminó, false si no existía
 
 		String sql = "DELETE FROM GAMESSTATES WHERE ID = ?";
-		int rowsAffected = jdbcTemplate.update(sql, id);
+		int rowsAffected = jdbcPermits.call(() -> jdbcTemplate.update(sql, id));
 		return rowsAffected > 0;
 		// throw new UnsupportedOperationException("Los estudiantes deben implementar
 		// deleteById");
@@ -210,7 +238,7 @@ public class H2GameRepository extends DataRepository<GameState<HexPosition>, Str
 			ids.append( "'" + item.getGameId() + "'");
 		}
 		String sql = "DELETE FROM GAMESSTATES WHERE ID in (?)";
-		long rowsAffected = jdbcTemplate.update(sql, ids);
+		long rowsAffected = jdbcPermits.call(() -> jdbcTemplate.update(sql, ids));
 		return rowsAffected;
 		// throw new UnsupportedOperationException("Los estudiantes deben implementar
 		// deleteWhere");
@@ -235,7 +263,7 @@ public class H2GameRepository extends DataRepository<GameState<HexPosition>, Str
 		// 4. Manejar excepciones apropiadamente
 		
 		
-		return  transactionTemplate.execute(new TransactionCallback<R>() {
+		return jdbcPermits.call(() -> transactionTemplate.execute(new TransactionCallback<R>() {
 			@Override
 			public R doInTransaction(TransactionStatus status) {
 				try {
@@ -247,7 +275,7 @@ public class H2GameRepository extends DataRepository<GameState<HexPosition>, Str
 					throw new RuntimeException("Error durante la operación transaccional", e);
 				}
 			}
-		});
+		}));
 		
 		
 		//throw new UnsupportedOperationException("Los estudiantes deben implementar executeInTransaction");
@@ -273,7 +301,7 @@ public class H2GameRepository extends DataRepository<GameState<HexPosition>, Str
 		
 		int offset = (page - 1) * size;
 		String sql = String.format("SELECT * FROM GAMESSTATES LIMIT %d OFFSET %d", size, offset);
-		return jdbcTemplate.query(sql, rowMapper);
+		return jdbcPermits.call(() -> jdbcTemplate.query(sql, rowMapper));
 		// throw new UnsupportedOperationException("Los estudiantes deben implementar findWithPagination");
 	}
 
@@ -304,7 +332,7 @@ public class H2GameRepository extends DataRepository<GameState<HexPosition>, Str
 		// 3. Mapear resultados usando resultMapper
 		// 4. Manejar errores SQL
 		
-		return jdbcTemplate.query(query, rowMapper).stream().map(r -> resultMapper.apply(r)).toList();
+		return jdbcPermits.call(() -> jdbcTemplate.query(query, rowMapper)).stream().map(r -> resultMapper.apply(r)).toList();
 		//throw new UnsupportedOperationException("Los estudiantes deben implementar executeCustomQuery");
 	}
 
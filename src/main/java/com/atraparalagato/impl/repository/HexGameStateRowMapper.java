@@ -17,7 +17,7 @@ import com.atraparalagato.impl.model.HexPosition;
 public class HexGameStateRowMapper implements RowMapper<GameState<HexPosition>> {
 	@Override
 	public GameState<HexPosition> mapRow(ResultSet rs, int rowNum) throws SQLException {
-		HexPosition catPosition = new HexPosition(rs.getInt("CAT_POSITION_Q"), rs.getInt("CAT_POSITION_R"));
+		HexPosition catPosition = HexPosition.of(rs.getInt("CAT_POSITION_Q"), rs.getInt("CAT_POSITION_R"));
 
 		String gameId = rs.getString("ID");
 		int boardSize = rs.getInt("BOARD_SIZE");
@@ -0,0 +1,94 @@
+package com.atraparalagato.impl.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cota de llamadas JDBC simultáneas.
+ *
+ * Con hilos virtuales puede haber miles de pedidos a la vez; sin cota todos
+ * esperarían una conexión dentro del pool, que tiene pocas y corta la espera
+ * con un error al vencer su timeout. El semáforo, justo y del tamaño del pool,
+ * los hace esperar su turno afuera: un hilo virtual bloqueado en él libera su
+ * hilo de plataforma.
+ *
+ * Los permisos son reentrantes por hilo: una llamada dentro de una transacción
+ * ya abierta por el mismo hilo no pide otro, así no se bloquea a sí misma
+ * cuando no quedan permisos libres.
+ */
+public class JdbcPermits {
+
+	private final Semaphore semaphore;
+	private final int permits;
+	private final ThreadLocal<int[]> held = ThreadLocal.withInitial(() -> new int[1]);
+	private final LongAdder calls = new LongAdder();
+	private final LongAdder waits = new LongAdder();
+	private final LongAdder waitNanos = new LongAdder();
+	private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * @param permits llamadas JDBC simultáneas; conviene igualarlo al tamaño del
+	 *                pool de conexiones
+	 */
+	public JdbcPermits(int permits) {
+		if (permits <= 0)
+			throw new IllegalArgumentException("La cantidad de permisos JDBC debe ser positiva: " + permits);
+		this.permits = permits;
+		this.semaphore = new Semaphore(permits, true);
+	}
+
+	/**
+	 * Ejecuta la llamada JDBC con un permiso tomado.
+	 */
+	public <R> R call(Supplier<R> operation) {
+		int[] depth = held.get();
+		if (depth[0] == 0)
+			acquire();
+		depth[0]++;
+		try {
+			return operation.get();
+		} finally {
+			if (--depth[0] == 0) {
+				semaphore.release();
+				held.remove();
+			}
+		}
+	}
+
+	public int getAvailable() {
+		return semaphore.availablePermits();
+	}
+
+	public Map<String, Object> getStatistics() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("permits", permits);
+		stats.put("available", semaphore.availablePermits());
+		stats.put("queued", semaphore.getQueueLength());
+		stats.put("calls", calls.sum());
+		stats.put("waits", waits.sum());
+		stats.put("waitMs", waitNanos.sum() / 1_000_000.0);
+		stats.put("maxWaitMs", maxWaitNanos.get() / 1_000_000.0);
+		return stats;
+	}
+
+	private void acquire() {
+		calls.increment();
+		if (semaphore.tryAcquire())
+			return;
+		waits.increment();
+		long start = System.nanoTime();
+		try {
+			semaphore.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrumpido esperando una conexión a la base de datos", e);
+		}
+		long waited = System.nanoTime() - start;
+		waitNanos.add(waited);
+		maxWaitNanos.accumulate(waited);
+	}
+}
@@ -0,0 +1,98 @@
+package com.atraparalagato.impl.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Locks por juego repartidos en franjas.
+ *
+ * Cada gameId cae siempre en la misma franja, así las operaciones sobre un juego
+ * se aplican una detrás de otra mientras que juegos en franjas distintas avanzan
+ * en paralelo. La cantidad de franjas es fija: no hace falta crear ni limpiar un
+ * lock por juego, a cambio de que dos juegos de la misma franja se esperen de
+ * vez en cuando.
+ *
+ * También registra cuántas adquisiciones encontraron el lock tomado y cuánto
+ * esperaron, para medir la contención.
+ */
+public class GameLocks {
+
+	private final ReentrantLock[] stripes;
+	private final LongAdder acquisitions = new LongAdder();
+	private final LongAdder contended = new LongAdder();
+	private final LongAdder waitNanos = new LongAdder();
+	private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * @param stripeCount cantidad de franjas; se redondea a una potencia de 2
+	 */
+	public GameLocks(int stripeCount) {
+		int count = Integer.highestOneBit(Math.max(1, stripeCount));
+		this.stripes = new ReentrantLock[count];
+		for (int i = 0; i < count; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Ejecuta la operación con el lock del juego tomado.
+	 */
+	public <R> R withGame(String gameId, Supplier<R> operation) {
+		ReentrantLock lock = stripes[stripeOf(gameId)];
+		acquire(lock);
+		try {
+			return operation.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void withGame(String gameId, Runnable operation) {
+		withGame(gameId, () -> {
+			operation.run();
+			return null;
+		});
+	}
+
+	public int getStripeCount() {
+		return stripes.length;
+	}
+
+	public long getContended() {
+		return contended.sum();
+	}
+
+	public Map<String, Object> getStatistics() {
+		long total = acquisitions.sum();
+		long waits = contended.sum();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("stripes", stripes.length);
+		stats.put("acquisitions", total);
+		stats.put("contended", waits);
+		stats.put("contentionRate", total == 0 ? 0.0 : (double) waits / total);
+		stats.put("waitMs", waitNanos.sum() / 1_000_000.0);
+		stats.put("maxWaitMs", maxWaitNanos.get() / 1_000_000.0);
+		return stats;
+	}
+
+	int stripeOf(String gameId) {
+		int h = gameId == null ? 0 : gameId.hashCode();
+		return (h ^ (h >>> 16)) & (stripes.length - 1);
+	}
+
+	private void acquire(ReentrantLock lock) {
+		acquisitions.increment();
+		if (lock.tryLock())
+			return;
+		contended.increment();
+		long start = System.nanoTime();
+		lock.lock();
+		long waited = System.nanoTime() - start;
+		waitNanos.add(waited);
+		maxWaitNanos.accumulate(waited);
+	}
+}
@@ -2,19 +2,25 @@ package com.atraparalagato.impl.service;
 
 import java.time.Duration;
 import java.time.temporal.WeekFields;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.atraparalagato.base.model.GameBoard;
@@ -23,15 +29,33 @@ import com.atraparalagato.base.model.GameState.GameStatus;
 import com.atraparalagato.base.repository.DataRepository;
 import com.atraparalagato.base.service.GameService;
 import com.atraparalagato.base.strategy.CatMovementStrategy;
-import com.atraparalagato.example.strategy.BFSCatMovement;
 import com.atraparalagato.impl.factories.GameIdGenerator;
 import com.atraparalagato.impl.factories.GameStateFactory;
 import com.atraparalagato.impl.factories.HexBoardFactory;
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.model.HexEscapeCut;
 import com.atraparalagato.impl.model.HexGameBoard;
 import com.atraparalagato.impl.model.HexGameState;
 import com.atraparalagato.impl.model.HexGameState.LEVEL_OF_DIFFICULTY;
 import com.atraparalagato.impl.model.HexPosition;
+import com.atraparalagato.impl.repository.CachedGameRepository;
+import com.atraparalagato.impl.repository.JdbcPermits;
 import com.atraparalagato.impl.strategy.AStarCatMovement;
+import com.atraparalagato.impl.strategy.BFSCatMovement;
+import com.atraparalagato.impl.strategy.CachingCatMovementStrategy;
+import com.atraparalagato.impl.strategy.CatMoveCache;
+import com.atraparalagato.impl.strategy.DeadlineCatMovement;
+import com.atraparalagato.impl.strategy.HexCandidateEvaluator;
+import com.atraparalagato.impl.strategy.HexTablebase;
+import com.atraparalagato.impl.strategy.HexTablebaseLibrary;
+import com.atraparalagato.impl.strategy.HierarchicalCatMovement;
+import com.atraparalagato.impl.strategy.MctsCatMovement;
+import com.atraparalagato.impl.strategy.MctsSearchPool;
+import com.atraparalagato.impl.strategy.MinimaxCatMovement;
+import com.atraparalagato.impl.strategy.OpeningBook;
+import com.atraparalagato.impl.strategy.OpeningBookCatMovement;
+import com.atraparalagato.impl.strategy.SearchDeadlineMonitor;
+import com.atraparalagato.impl.strategy.TablebaseCatMovement;
 
 /**
  * Implementación esqueleto de GameService para el juego hexagonal.
@@ -55,9 +79,97 @@ public class HexGameService extends GameService<HexPosition> {
 	// TODO: Los estudiantes deben inyectar dependencias
 	// Ejemplos: repository, movementStrategy, validator, etc.
 
+	/**
+	 * Decisiones del gato memorizadas, compartidas entre juegos.
+	 */
+	private final CatMoveCache moveCache;
+
+	/**
+	 * Tiempo máximo de búsqueda por movimiento del gato en dificultad EXPERT.
+	 */
+	@Value("${game.minimax.budget-ms:3}")
+	private long minimaxBudgetMillis;
+
+	/**
+	 * Hilos y presupuesto de playouts de la estrategia MCTS.
+	 */
+	private final MctsSearchPool mctsSearchPool;
+
+	/**
+	 * Estrategia configurada; con "mcts" la dificultad EXPERT usa MCTS en lugar de
+	 * minimax.
+	 */
+	@Value("${game.strategy:aStar}")
+	private String strategyName;
+
+	/**
+	 * Tamaño de tablero desde el que la dificultad HARD planifica sobre grupos de
+	 * celdas en lugar de recorrer todo el tablero.
+	 */
+	@Value("${game.hierarchical.min-size:40}")
+	private int hierarchicalMinSize;
+
+	/**
+	 * Tablas de finales con el juego perfecto de los tableros pequeños.
+	 */
+	private final HexTablebaseLibrary tablebases;
+
+	/**
+	 * Respuestas precalculadas del gato para las primeras jugadas.
+	 */
+	private final OpeningBook openingBook;
+
+	/**
+	 * Plazo por movimiento del gato y registro de las búsquedas que lo alcanzan.
+	 */
+	private final SearchDeadlineMonitor searchDeadline;
+
+	/**
+	 * Locks por juego: las operaciones sobre un mismo juego se aplican de a una,
+	 * juegos distintos avanzan en paralelo.
+	 */
+	private final GameLocks gameLocks;
+
+	/**
+	 * Cota de llamadas JDBC simultáneas; solo se usa para informar sus métricas.
+	 */
+	private final JdbcPermits jdbcPermits;
+
+	/**
+	 * Hilos de los movimientos asíncronos y de los avisos que no necesitan el lock
+	 * del juego.
+	 */
+	private final Executor moveExecutor;
+
+	/**
+	 * Cantidad máxima de tableros con su cadena de estrategias armada.
+	 */
+	private static final int MAX_STRATEGY_CHAINS = 1024;
+
+	/**
+	 * Cadenas de estrategias del gato ya armadas, por tablero y dificultad. Con la
+	 * caché de sesiones el tablero de un juego sigue vivo entre movimientos, así
+	 * que su cadena se arma una sola vez. Se usa con su propio lock y cada cadena
+	 * con el lock del juego; olvida primero los tableros usados hace más tiempo.
+	 */
+	private final Map<HexGameBoard, Map<LEVEL_OF_DIFFICULTY, CatMovementStrategy<HexPosition>>> strategyChains = new LinkedHashMap<>(
+			16, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(
+				Map.Entry<HexGameBoard, Map<LEVEL_OF_DIFFICULTY, CatMovementStrategy<HexPosition>>> eldest) {
+			return size() > MAX_STRATEGY_CHAINS;
+		}
+	};
+
 	public HexGameService(HexBoardFactory boardFactory, CatMovementStrategy<HexPosition> movementStrategy,
 			DataRepository<GameState<HexPosition>, String> repository, GameIdGenerator idGenerator,
-			GameStateFactory stateFactory) {
+			GameStateFactory stateFactory, CatMoveCache moveCache,
+			MctsSearchPool mctsSearchPool, HexTablebaseLibrary tablebases, OpeningBook openingBook,
+			SearchDeadlineMonitor searchDeadline, GameLocks gameLocks, JdbcPermits jdbcPermits,
+			@Qualifier("gameMoveExecutor") Executor moveExecutor) {
 		// TODO: Los estudiantes deben inyectar las dependencias requeridas
 
 		super(boardFactory.apply(10), // gameBoard - TODO: Crear HexGameBoard
@@ -71,6 +183,14 @@ public class HexGameService extends GameService<HexPosition> {
 		);
 		// TODO: Inicializar dependencias y configuración
 		// Pista: Usar el patrón Factory para crear componentes
+		this.moveCache = moveCache;
+		this.mctsSearchPool = mctsSearchPool;
+		this.tablebases = tablebases;
+		this.openingBook = openingBook;
+		this.searchDeadline = searchDeadline;
+		this.gameLocks = gameLocks;
+		this.jdbcPermits = jdbcPermits;
+		this.moveExecutor = moveExecutor;
 		// throw new UnsupportedOperationException("Los estudiantes deben implementar el
 		// constructor");
 	}
@@ -110,16 +230,40 @@ public class HexGameService extends GameService<HexPosition> {
 	}
 
 	/**
-	 * Graba el gameState actualizándolo
+	 * Graba el gameState actualizándolo, bajo el lock del juego.
 	 */
 	public HexGameState saveGameState(HexGameState gameState) {
+		return gameLocks.withGame(gameState.getGameId(), () -> {
+			GameState<HexPosition> savedState = persistGameState(gameState);
+			onGameStarted(savedState);
+			return (HexGameState) savedState;
+		});
+	}
 
-		GameState<HexPosition> savedState = persistGameState(gameState);
-		onGameStarted(savedState);
-		return (HexGameState) savedState;
+	/**
+	 * Asigna el jugador al juego y lo graba. Todo ocurre bajo el lock del juego,
+	 * y la respuesta se arma con view antes de soltarlo.
+	 */
+	public <R> Optional<R> savePlayerScore(String gameId, String playerId, Function<HexGameState, R> view) {
+		return gameLocks.withGame(gameId, () -> readGameStatus(gameId).map(gameState -> {
+			gameState.setPlayerId(playerId);
+			return view.apply(saveGameState(gameState));
+		}));
 	}
 
 	public Optional<HexGameState> obtainGameStatus(String gameId) {
+		return obtainGameStatus(gameId, gameState -> gameState);
+	}
+
+	/**
+	 * Estado del juego con la vista armada bajo el lock, así no se lee el tablero
+	 * mientras otro pedido lo está cambiando.
+	 */
+	public <R> Optional<R> obtainGameStatus(String gameId, Function<HexGameState, R> view) {
+		return gameLocks.withGame(gameId, () -> readGameStatus(gameId).map(view));
+	}
+
+	private Optional<HexGameState> readGameStatus(String gameId) {
 		Optional<GameState<HexPosition>> gameStateOpt = super.loadGameState(gameId);
 
 		if (gameStateOpt.isEmpty()) {
@@ -136,6 +280,10 @@ public class HexGameService extends GameService<HexPosition> {
 	 * TODO: Ejecutar movimiento del jugador con validaciones avanzadas.
 	 */
 	public Optional<HexGameState> executePlayerMove(String gameId, HexPosition position, String playerId) {
+		return gameLocks.withGame(gameId, () -> applyPlayerMove(gameId, position, playerId));
+	}
+
+	private Optional<HexGameState> applyPlayerMove(String gameId, HexPosition position, String playerId) {
 		// TODO: Implementar movimiento del jugador
 		// Considerar:
 		// 1. Validar que el juego existe y está activo
@@ -184,10 +332,109 @@ public class HexGameService extends GameService<HexPosition> {
 		// executePlayerMove");
 	}
 
+	/**
+	 * Movimiento del jugador sin validar quién lo hace, igual al de GameService
+	 * pero bajo el lock del juego.
+	 */
+	public Optional<HexGameState> blockPosition(String gameId, HexPosition position) {
+		return gameLocks.withGame(gameId, () -> applyBlock(gameId, position, Runnable::run));
+	}
+
+	/**
+	 * Variante asíncrona de blockPosition: el movimiento se aplica en los hilos de
+	 * movimientos y el futuro se cumple con la vista del estado, armada bajo el
+	 * lock, apenas el estado en memoria es el final. La escritura en la base de
+	 * datos sigue en segundo plano (ver whenDurable) y el aviso onMoveExecuted se
+	 * hace fuera del lock.
+	 */
+	public <R> CompletableFuture<Optional<R>> blockPositionAsync(String gameId, HexPosition position,
+			Function<HexGameState, R> view) {
+		return CompletableFuture.supplyAsync(
+				() -> gameLocks.withGame(gameId, () -> applyBlock(gameId, position, moveExecutor).map(view)),
+				moveExecutor);
+	}
+
+	/**
+	 * Aviso que se cumple cuando los movimientos ya aplicados al juego están
+	 * escritos en la base de datos. Sin caché de sesiones cada movimiento se
+	 * escribe antes de responder y el aviso ya está cumplido.
+	 */
+	public CompletableFuture<Void> whenDurable(String gameId) {
+		if (gameRepository instanceof CachedGameRepository sessionCache)
+			return sessionCache.whenDurable(gameId);
+		return CompletableFuture.completedFuture(null);
+	}
+
+	/**
+	 * Aplica en orden una lista de movimientos del jugador, con la respuesta del
+	 * gato después de cada uno, en una sola carga y una sola escritura del juego.
+	 * Al terminar el juego los movimientos que quedan no se juegan. La vista se
+	 * arma bajo el lock con el estado final y el resultado de cada movimiento:
+	 * "applied", "rejected" (celda inválida), "paused" (el juego está en pausa,
+	 * como en blockPosition no se juega ninguno) o "skipped" (juego ya terminado).
+	 */
+	public <R> Optional<R> blockPositions(String gameId, List<HexPosition> positions,
+			BiFunction<HexGameState, List<Map<String, Object>>, R> view) {
+		return gameLocks.withGame(gameId, () -> {
+			Optional<GameState<HexPosition>> gameStateOpt = loadGameState(gameId);
+			if (gameStateOpt.isEmpty())
+				return Optional.empty();
+
+			HexGameState gameState = (HexGameState) gameStateOpt.get();
+			List<Map<String, Object>> outcomes = new ArrayList<>(positions.size());
+			List<HexPosition> applied = new ArrayList<>();
+			for (HexPosition position : positions) {
+				Map<String, Object> outcome = new LinkedHashMap<>();
+				outcome.put("q", position.getQ());
+				outcome.put("r", position.getR());
+				if (GameStatus.PAUSED.equals(gameState.getStatus())) {
+					outcome.put("result", "paused");
+				} else if (!GameStatus.IN_PROGRESS.equals(gameState.getStatus())) {
+					outcome.put("result", "skipped");
+				} else if (!gameState.executeMove(position)) {
+					outcome.put("result", "rejected");
+				} else {
+					executeCatMove(gameState);
+					applied.add(position);
+					outcome.put("result", "applied");
+					outcome.put("catPosition",
+							Map.of("q", gameState.getCatPosition().getQ(), "r", gameState.getCatPosition().getR()));
+					outcome.put("status", gameState.getStatus().toString());
+				}
+				outcomes.add(outcome);
+			}
+
+			HexGameState updatedState = applied.isEmpty() ? gameState : (HexGameState) persistGameState(gameState);
+			for (HexPosition position : applied) {
+				onMoveExecuted(updatedState, position);
+			}
+			return Optional.of(view.apply(updatedState, outcomes));
+		});
+	}
+
+	private Optional<HexGameState> applyBlock(String gameId, HexPosition position, Executor notifier) {
+		Optional<GameState<HexPosition>> gameStateOpt = loadGameState(gameId);
+		if (gameStateOpt.isEmpty())
+			return Optional.empty();
+
+		HexGameState gameState = (HexGameState) gameStateOpt.get();
+		if (!gameState.executeMove(position))
+			return Optional.of(gameState);
+
+		executeCatMove(gameState);
+		HexGameState updatedState = (HexGameState) persistGameState(gameState);
+		notifier.execute(() -> onMoveExecuted(updatedState, position));
+		return Optional.of(updatedState);
+	}
+
 	/**
 	 * TODO: Obtener estado del juego con información enriquecida.
 	 */
 	public Optional<Map<String, Object>> getEnrichedGameState(String gameId) {
+		return gameLocks.withGame(gameId, () -> readEnrichedGameState(gameId));
+	}
+
+	private Optional<Map<String, Object>> readEnrichedGameState(String gameId) {
 		// TODO: Obtener estado enriquecido del juego
 		// Incluir:
 		// 1. Estado básico del juego
@@ -231,6 +478,10 @@ public class HexGameService extends GameService<HexPosition> {
 	 * TODO: Obtener sugerencia inteligente de movimiento.
 	 */
 	public Optional<HexPosition> getIntelligentSuggestion(String gameId, String difficulty) {
+		return gameLocks.withGame(gameId, () -> computeIntelligentSuggestion(gameId, difficulty));
+	}
+
+	private Optional<HexPosition> computeIntelligentSuggestion(String gameId, String difficulty) {
 		// TODO: Generar sugerencia inteligente
 		// Considerar:
 		// 1. Analizar estado actual del tablero
@@ -245,11 +496,31 @@ public class HexGameService extends GameService<HexPosition> {
 		}
 		String myDifficult = difficulty;
 		HexGameState gameState = (HexGameState) gameStateOpt.get();
+
+		/*
+		 * La mejor sugerencia es el bloqueo que más reduce el corte mínimo entre el
+		 * gato y la salida. Si no hay corte que reducir (el gato ya escapa o ya está
+		 * encerrado) se sugiere la celda a la que iría el gato.
+		 */
+		HexGameBoard board = gameState.getGameBoard();
+		Optional<HexTablebase> tablebase = tablebases.forBoard(board);
+		if (tablebase.isPresent()) {
+			// Con tabla de finales se sugiere un bloqueo ganador, si existe
+			int block = tablebase.get().bestBlock(board, board.indexOf(gameState.getCatPosition()));
+			if (block >= 0)
+				return Optional.of(board.positionAt(block));
+		}
+
+		int[] cells = new int[1];
+		int[] cuts = new int[1];
+		if (rankEscapeBlocks(gameState, 1, cells, cuts) > 0)
+			return Optional.of(board.positionAt(cells[0]));
+
 		if (difficulty == null) {
 			myDifficult = gameState.getLevelOfDifficulty().name();
 		}
 
-		CatMovementStrategy<HexPosition> strategy = createMovementStrategy(myDifficult, gameState.getGameBoard());
+		CatMovementStrategy<HexPosition> strategy = movementStrategyFor(myDifficult, gameState.getGameBoard());
 
 		HexPosition targetPosition = getTargetPosition(gameState);
 
@@ -265,6 +536,68 @@ public class HexGameService extends GameService<HexPosition> {
 		// getIntelligentSuggestion");
 	}
 
+	/**
+	 * Los k bloqueos que más reducen el corte mínimo entre el gato y la salida,
+	 * con el tamaño del corte antes y después de cada uno y la respuesta del gato.
+	 */
+	public Optional<Map<String, Object>> getBlockSuggestions(String gameId, int k) {
+		return gameLocks.withGame(gameId, () -> computeBlockSuggestions(gameId, k));
+	}
+
+	private Optional<Map<String, Object>> computeBlockSuggestions(String gameId, int k) {
+		Optional<GameState<HexPosition>> gameStateOpt = super.loadGameState(gameId);
+		if (gameStateOpt.isEmpty())
+			return Optional.empty();
+
+		HexGameState gameState = (HexGameState) gameStateOpt.get();
+		HexGameBoard board = gameState.getGameBoard();
+		int limit = Math.max(0, Math.min(k, board.getCellCount()));
+		int[] cells = new int[limit];
+		int[] cuts = new int[limit];
+		int count = rankEscapeBlocks(gameState, limit, cells, cuts);
+
+		List<HexPosition> candidates = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			candidates.add(board.positionAt(cells[i]));
+		}
+		// Cómo respondería el gato a cada bloqueo, evaluados en lote
+		List<HexCandidateEvaluator.Evaluation> evaluations = new HexCandidateEvaluator(board)
+				.evaluate(gameState.getCatPosition(), candidates);
+
+		List<Map<String, Object>> suggestions = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			HexPosition position = candidates.get(i);
+			HexCandidateEvaluator.Evaluation evaluation = evaluations.get(i);
+			Map<String, Object> suggestion = new HashMap<>();
+			suggestion.put("q", position.getQ());
+			suggestion.put("r", position.getR());
+			suggestion.put("cutAfter", cuts[i]);
+			suggestion.put("catEscapeDistance", evaluation.getEscapeDistance() == HexCandidateEvaluator.UNREACHABLE
+					? null : evaluation.getEscapeDistance());
+			evaluation.getBestReply().ifPresent(reply -> suggestion.put("catReply", reply));
+			suggestions.add(suggestion);
+		}
+		int cut = board.getEscapeCut().cutSize();
+
+		Map<String, Object> result = new HashMap<>();
+		result.put("gameId", gameId);
+		// null cuando el gato ya no puede ser encerrado
+		result.put("escapeCut", cut == HexEscapeCut.UNBOUNDED ? null : cut);
+		result.put("suggestions", suggestions);
+		return Optional.of(result);
+	}
+
+	/**
+	 * Ordena los bloqueos según el corte mínimo entre el gato y la salida. El
+	 * flujo del corte vive en el tablero y se reaprovecha entre consultas.
+	 */
+	private int rankEscapeBlocks(HexGameState gameState, int k, int[] cells, int[] cuts) {
+		HexGameBoard board = gameState.getGameBoard();
+		HexEscapeCut escapeCut = board.getEscapeCut();
+		escapeCut.setCat(board.indexOf(gameState.getCatPosition()));
+		return escapeCut.rankBlocks(k, cells, cuts);
+	}
+
 	/**
 	 * TODO: Analizar la partida y generar reporte.
 	 */
@@ -341,6 +674,10 @@ public class HexGameService extends GameService<HexPosition> {
 	 * TODO: Configurar dificultad del juego.
 	 */
 	public void setGameDifficulty(String gameId, String difficulty) {
+		gameLocks.withGame(gameId, () -> applyGameDifficulty(gameId, difficulty));
+	}
+
+	private void applyGameDifficulty(String gameId, String difficulty) {
 		// TODO: Cambiar dificultad del juego
 		// Afectar:
 		// 1. Estrategia de movimiento del gato
@@ -371,6 +708,10 @@ public class HexGameService extends GameService<HexPosition> {
 	 * TODO: Pausar/reanudar juego.
 	 */
 	public boolean toggleGamePause(String gameId) {
+		return gameLocks.withGame(gameId, () -> applyTogglePause(gameId));
+	}
+
+	private boolean applyTogglePause(String gameId) {
 		// TODO: Manejar pausa del juego
 		// Considerar:
 		// 1. Guardar timestamp de pausa
@@ -442,10 +783,12 @@ public class HexGameService extends GameService<HexPosition> {
 	 * @return Un opcional con el contenido del juego.
 	 */
 	public Optional<HexGameState> getGame(String gameId) {
-		var result = gameRepository.findById(gameId);
-		if(result.isEmpty())
-			return Optional.empty();
-		return  Optional.of((HexGameState)result.get());
+		return gameLocks.withGame(gameId, () -> {
+			var result = gameRepository.findById(gameId);
+			if(result.isEmpty())
+				return Optional.<HexGameState>empty();
+			return  Optional.of((HexGameState)result.get());
+		});
 	}
 
 	/**
@@ -527,18 +870,79 @@ public class HexGameService extends GameService<HexPosition> {
 	}
 
 	/**
-	 * TODO: Crear factory de estrategias según dificultad.
+	 * Estrategia del gato para el tablero y la dificultad; se arma la primera vez
+	 * y después se reutiliza mientras el tablero siga en uso.
 	 */
-	private CatMovementStrategy<HexPosition> createMovementStrategy(String difficulty, HexGameBoard board) {
-		if (difficulty != null && difficulty.toUpperCase().contains(LEVEL_OF_DIFFICULTY.HARD.name()))
-			return new AStarCatMovement(board);
+	private CatMovementStrategy<HexPosition> movementStrategyFor(String difficulty, HexGameBoard board) {
+		LEVEL_OF_DIFFICULTY level = LEVEL_OF_DIFFICULTY.EASY;
+		if (difficulty != null && difficulty.toUpperCase().contains(LEVEL_OF_DIFFICULTY.EXPERT.name()))
+			level = LEVEL_OF_DIFFICULTY.EXPERT;
+		else if (difficulty != null && difficulty.toUpperCase().contains(LEVEL_OF_DIFFICULTY.HARD.name()))
+			level = LEVEL_OF_DIFFICULTY.HARD;
+
+		LEVEL_OF_DIFFICULTY chosen = level;
+		synchronized (strategyChains) {
+			return strategyChains.computeIfAbsent(board, key -> new EnumMap<>(LEVEL_OF_DIFFICULTY.class))
+					.computeIfAbsent(chosen, key -> createMovementStrategy(key, board));
+		}
+	}
 
+	/**
+	 * TODO: Crear factory de estrategias según dificultad.
+	 */
+	private CatMovementStrategy<HexPosition> createMovementStrategy(LEVEL_OF_DIFFICULTY level, HexGameBoard board) {
+		CatMovementStrategy<HexPosition> strategy = switch (level) {
+		case EXPERT -> "mcts".equals(strategyName) ? new MctsCatMovement(board, mctsSearchPool)
+				: new MinimaxCatMovement(board, minimaxBudgetMillis);
+		case HARD -> board.getSize() >= hierarchicalMinSize ? new HierarchicalCatMovement(board)
+				: new AStarCatMovement(board);
 		// Por defecto facil
-		return new BFSCatMovement(board);
+		default -> new BFSCatMovement(board);
+		};
+
+		// Las aperturas se responden desde el libro, sin buscar
+		if (openingBook.size() > 0)
+			strategy = new OpeningBookCatMovement(board, openingBook, level.name(), strategy);
+
+		// En tableros con tabla de finales, EXPERT juega perfecto mientras las salidas sigan libres
+		if (level == LEVEL_OF_DIFFICULTY.EXPERT) {
+			Optional<HexTablebase> tablebase = tablebases.forBoard(board);
+			if (tablebase.isPresent())
+				strategy = new TablebaseCatMovement(board, tablebase.get(), strategy);
+		}
+
+		/*
+		 * Las decisiones se consultan primero en la caché compartida, así las
+		 * posiciones repetidas entre juegos no se vuelven a calcular. EXPERT no se
+		 * memoriza: minimax llega a la profundidad que le permite su presupuesto de
+		 * tiempo y MCTS es aleatorio, así que la misma posición puede tener otra
+		 * respuesta y la caché fijaría la de una búsqueda poco profunda.
+		 */
+		if (level != LEVEL_OF_DIFFICULTY.EXPERT)
+			strategy = new CachingCatMovementStrategy(strategy, board, moveCache, level.name());
+
+		// Ninguna búsqueda pasa del plazo por movimiento, sea cual sea el tablero
+		return new DeadlineCatMovement(board, strategy, searchDeadline);
 
 		// throw new UnsupportedOperationException("Método auxiliar para implementar");
 	}
 
+	/**
+	 * Métricas de rendimiento del servicio.
+	 */
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new HashMap<>();
+		metrics.put("catMoveCache", moveCache.getStatistics());
+		metrics.put("mcts", mctsSearchPool.getStatistics());
+		metrics.put("openingBook", openingBook.getStatistics());
+		metrics.put("searchDeadline", searchDeadline.getStatistics());
+		metrics.put("gameLocks", gameLocks.getStatistics());
+		metrics.put("jdbc", jdbcPermits.getStatistics());
+		if (gameRepository instanceof CachedGameRepository sessionCache)
+			metrics.put("sessionCache", sessionCache.getStatistics());
+		return metrics;
+	}
+
 	// Métodos abstractos requeridos por GameService
 
 	@Override
@@ -547,7 +951,7 @@ public class HexGameService extends GameService<HexPosition> {
 
 		HexGameState hexGameState = (HexGameState) gameState;
 		hexGameState.setGameBoard((HexGameBoard) gameBoard);
-		hexGameState.setCatPosition(new HexPosition(0, 0));
+		hexGameState.setCatPosition(HexPosition.of(0, 0));
 
 		// throw new UnsupportedOperationException("Los estudiantes deben implementar
 		// initializeGame");
@@ -555,6 +959,10 @@ public class HexGameService extends GameService<HexPosition> {
 
 	@Override
 	public boolean isValidMove(String gameId, HexPosition position) {
+		return gameLocks.withGame(gameId, () -> checkValidMove(gameId, position));
+	}
+
+	private boolean checkValidMove(String gameId, HexPosition position) {
 		Optional<GameState<HexPosition>> optional = gameRepository.findById(gameId);
 		if (optional.isEmpty())
 			return false;
@@ -568,6 +976,10 @@ public class HexGameService extends GameService<HexPosition> {
 
 	@Override
 	public Optional<HexPosition> getSuggestedMove(String gameId) {
+		return gameLocks.withGame(gameId, () -> computeSuggestedMove(gameId));
+	}
+
+	private Optional<HexPosition> computeSuggestedMove(String gameId) {
 		// TODO: Obtener sugerencia de movimiento
 		Optional<GameState<HexPosition>> optional = gameRepository.findById(gameId);
 		if (optional.isEmpty())
@@ -583,8 +995,10 @@ public class HexGameService extends GameService<HexPosition> {
 	}
 
 	/**
-	 * Para calcular el target, obtiene todos los bordes y luego busca el que tiene
-	 * menor distancia.
+	 * El target es la salida más cercana a la que el gato puede llegar, obtenida
+	 * del campo de distancias que mantiene el tablero. Si el gato ya no puede
+	 * llegar a ninguna, es la celda del anillo exterior más cercana, calculada
+	 * directamente a partir de sus coordenadas.
 	 */
 	@Override
 	protected HexPosition getTargetPosition(GameState<HexPosition> gameState) {
@@ -594,25 +1008,29 @@ public class HexGameService extends GameService<HexPosition> {
 
 		HexGameState hexGameState = (HexGameState) gameState;
 		HexGameBoard board = hexGameState.getGameBoard();
-
-		int size = hexGameState.getBoardSize();
-		Predicate<HexPosition> isOnBorder = position -> Math.abs(position.getQ()) == size
-				|| Math.abs(position.getR()) == size || Math.abs(position.getS()) == size;
-
-		List<HexPosition> targetPositions = board.getPositionsWhere(isOnBorder);
-		if (targetPositions == null || targetPositions.isEmpty())
-			return null;
-
 		HexPosition catPosition = hexGameState.getCatPosition();
 
+		int catIndex = board.indexOf(catPosition);
+		if (catIndex >= 0) {
+			int border = board.getBorderDistance().nearestBorder(catIndex);
+			if (border >= 0)
+				return board.positionAt(border);
+		}
+
 		// Se considera objetivo, el borde más cercano.
-		return targetPositions.stream().min(Comparator.comparing(pos -> catPosition.distanceTo(pos))).orElse(null);
+		HexBoardLayout layout = board.getLayout();
+		int border = layout.nearestOnRing(catPosition.getQ(), catPosition.getR(), layout.getSize());
+		return border >= 0 ? layout.positionAt(border) : null;
 		// throw new UnsupportedOperationException("Los estudiantes deben implementar
 		// getTargetPosition");
 	}
 
 	@Override
 	public Object getGameStatistics(String gameId) {
+		return gameLocks.withGame(gameId, () -> readGameStatistics(gameId));
+	}
+
+	private Object readGameStatistics(String gameId) {
 		// TODO: Obtener estadísticas del juego
 
 		Optional<GameState<HexPosition>> gameStateOpt = super.loadGameState(gameId);
@@ -648,7 +1066,7 @@ public class HexGameService extends GameService<HexPosition> {
 	 * TODO: Ejecutar movimiento del gato usando estrategia apropiada.
 	 */
 	private void executeCatMove(HexGameState gameState, String difficulty) {
-		var strategy = createMovementStrategy(difficulty, gameState.getGameBoard());
+		var strategy = movementStrategyFor(difficulty, gameState.getGameBoard());
 		Optional<HexPosition> movement = strategy.findBestMove(gameState.getCatPosition(),
 				getTargetPosition(gameState));
 		if (movement.isEmpty())
@@ -1,11 +1,12 @@
 package com.atraparalagato.impl.strategy;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -13,11 +14,14 @@ import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import com.atraparalagato.base.model.GameBoard;
+import com.atraparalagato.base.model.IndexedBoard;
 import com.atraparalagato.base.strategy.CatMovementStrategy;
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.model.HexGameBoard;
 import com.atraparalagato.impl.model.HexPosition;
 
 /**
@@ -31,6 +35,15 @@ import com.atraparalagato.impl.model.HexPosition;
  */
 public class AStarCatMovement extends CatMovementStrategy<HexPosition> {
 
+	/*
+	 * Estructuras de A* reutilizadas entre búsquedas, indexadas por celda. Son
+	 * del hilo y cada búsqueda las toma en variables locales, así una misma
+	 * instancia se puede usar desde varios hilos a la vez. seenMark y closedMark
+	 * evitan limpiar los arreglos: una celda tiene gScore válido o está cerrada
+	 * si su marca coincide con la de la búsqueda actual.
+	 */
+	private static final ThreadLocal<SearchBuffers> BUFFERS = ThreadLocal.withInitial(SearchBuffers::new);
+
 	public AStarCatMovement(GameBoard<HexPosition> board) {
 		super(board);
 	}
@@ -50,10 +63,12 @@ public class AStarCatMovement extends CatMovementStrategy<HexPosition> {
 		 * E.OSORIO
 		 * 
 		 * Se buscan las posiciones adjacentes del gato, para se usadas después en
-		 * determinar el mejor camino a una salida.
+		 * determinar el mejor camino a una salida. El tablero ya excluye las
+		 * posiciones bloqueadas.
 		 */
-		return board.getAdjacentPositions(currentPosition).stream().filter(p -> !board.isBlocked(currentPosition))
-				.collect(Collectors.toList());
+		List<HexPosition> possibleMoves = new ArrayList<>(6);
+		board.forEachAdjacentPosition(currentPosition, possibleMoves::add);
+		return possibleMoves;
 		// throw new UnsupportedOperationException("Los estudiantes deben implementar
 		// este método");
 	}
@@ -70,31 +85,21 @@ public class AStarCatMovement extends CatMovementStrategy<HexPosition> {
 		// Pista: Usar Function para calcular costos y comparar
 
 		/*
-		 * E.OSORIO
-		 * 
-		 * Primero se habilita la función de heurística en base al targePosition Segundo
-		 * se crea la función fScore que pide de parámetro la posición actual y la
-		 * destino para calcular el costo de movers y la heurística.
+		 * Con A* se obtiene el camino más corto hasta el objetivo y el gato avanza al
+		 * primer paso. Si el objetivo no es alcanzable, se elige el movimiento
+		 * posible con menor f = g + h.
 		 */
+		List<HexPosition> path = getFullPath(currentPosition, targetPosition);
+		if (path.size() > 1)
+			return Optional.of(path.get(1));
+
 		Function<HexPosition, Double> heuristicFunction = getHeuristicFunction(targetPosition);
-		
+
 		BiFunction<HexPosition, HexPosition, Double> fScoreFun = (currentPos, toPos) -> getMoveCost(currentPos, toPos)
 				+ heuristicFunction.apply(toPos);
 
-		/*
-		 * E.OSORIO
-		 * 
-		 * Se recorre el stream de posiciones, se mapean a AStarNode y se busca el
-		 * mínimo de los fScore y se retorna un Opcional que contiene la posición de ese
-		 * elemento o nulo.
-		 */
 		return possibleMoves.stream()
-				// Se crean AStarNode falso por cada posición
-				.map(p -> new AStarNode(p, 0, fScoreFun.apply(currentPosition, p), null))
-				// Se busca el menor en base al fScore calculado en el punto anterior
-				.min(Comparator.comparing(a -> a.fScore))
-				// Se mapea el AStarNode ganador a su posición.
-				.map(o -> o.position);
+				.min(Comparator.comparingDouble(p -> fScoreFun.apply(currentPosition, p)));
 		// throw new UnsupportedOperationException("Los estudiantes deben implementar
 		// este método");
 	}
@@ -130,14 +135,10 @@ public class AStarCatMovement extends CatMovementStrategy<HexPosition> {
 		// Math.abs(position.getS()) == board.getSize();
 
 		/*
-		 * E.OSORIO
-		 * 
-		 * Cómo Position tiene implementado el isWithinBoudnds, el que indica si ls
-		 * posición está en el borde sabiendo el tamñao del tablero, entonces lo usamos
-		 * pasando el tamaño del tablero que me dieron al construir mi instancia.
+		 * El gato escapa al llegar a una salida, la misma regla con la que el juego
+		 * declara PLAYER_LOST (HexGameBoard.isAtBorder).
 		 */
-		Predicate<HexPosition> isBorder = position -> position.isWithinBounds(this.board.getSize());
-		return isBorder;
+		return HexBoardLayout.of(this.board.getSize())::isEscape;
 		// throw new UnsupportedOperationException("Los estudiantes deben implementar
 		// este método");
 	}
@@ -169,38 +170,30 @@ public class AStarCatMovement extends CatMovementStrategy<HexPosition> {
 		// Pista: Usar getGoalPredicate() para identificar objetivos
 
 		/*
-		 * E.OSORIO
-		 * 
-		 * Se construye una lista enlazada para contener los elementos.
-		 * 
-		 * Estos elementos se sacan en el orden que fueron agrgados.
-		 * 
-		 * Se utiliza BFS (Breadth-First Search) búsqueda en anchura: Dado un nodo se
-		 * analizan todos los adyacentes primero.
-		 * 
-		 * 1. Se toma el nodo de cola, se analiza nodo es meta => se termina
-		 * 
-		 * 2. Se agregan todos los vecinos del nodo que se está analizando al final de
-		 * la cola.
-		 * 
-		 * 3. Se repite paso 1 hasta que no hayan nodos que revisar.
-		 * 
+		 * Con un HexGameBoard la pregunta la responde el propio tablero, que mantiene
+		 * las regiones de celdas libres al día con cada bloqueo. Para otros tableros se hace un BFS por
+		 * posiciones con un conjunto de visitadas, para no volver a encolar celdas.
 		 */
+		if (board instanceof HexGameBoard hexBoard && hexBoard.indexOf(currentPosition) >= 0)
+			return hexBoard.canReachBorder(currentPosition);
+
 		Predicate<HexPosition> isGoal = getGoalPredicate();
-		LinkedList<HexPosition> queue = new LinkedList<>();
+		ArrayDeque<HexPosition> queue = new ArrayDeque<>();
+		Set<HexPosition> visited = new HashSet<>();
 
 		queue.add(currentPosition);
+		visited.add(currentPosition);
 		while (!queue.isEmpty()) {
 			HexPosition current = queue.poll();
 
 			if (isGoal.test(current))
 				return true;
 
-			for (HexPosition neighbor : getPossibleMoves(current)) {
-				if (!queue.contains(neighbor)) {
+			board.forEachAdjacentPosition(current, neighbor -> {
+				if (visited.add(neighbor)) {
 					queue.add(neighbor);
 				}
-			}
+			});
 		}
 
 		return false; // no hay camino hacia ninguna meta
@@ -228,131 +221,209 @@ public class AStarCatMovement extends CatMovementStrategy<HexPosition> {
 		// 4. Si no se encuentra camino, retornar lista vacía
 
 		/*
-		 * E.OSORIO
-		 * 
-		 * Obtengo la función que calcula la heurística con respecto a targetPosition.
-		 * Se hace acá, porque se crea cada vez que se ejecuta esta función.
+		 * La búsqueda trabaja con índices de celda: gScore y parent son arreglos
+		 * reutilizados entre llamadas y la frontera es un heap indexado que permite
+		 * mejorar la prioridad de una celda ya encolada sin recorrer la cola.
 		 */
-		Function<HexPosition, Double> heuristicFunc = getHeuristicFunction(targetPosition);
-
-		AStarNode startNode = new AStarNode(currentPosition, 0, 0, null);
+		if (!(board instanceof HexGameBoard hexBoard))
+			return getFullPathByPosition(currentPosition, targetPosition);
+
+		IndexedBoard<HexPosition> cells = hexBoard;
+		int start = cells.indexOf(currentPosition);
+		int goal = cells.indexOf(targetPosition);
+		if (start < 0 || goal < 0 || board.isBlocked(targetPosition))
+			return new ArrayList<>();
+
+		SearchBuffers buffers = BUFFERS.get();
+		buffers.begin(cells.getCellCount(), targetPosition);
+		IndexedMinHeap openSet = buffers.openSet;
+		IntConsumer relaxNeighbor = neighbor -> relaxNeighbor(cells, buffers, neighbor);
+
+		// 1 y 2. Se agrega la posición inicial a la frontera
+		buffers.seenMark[start] = buffers.searchMark;
+		buffers.gScore[start] = 0;
+		buffers.parent[start] = -1;
+		openSet.offerOrDecrease(start, priority(cells, buffers, 0, start));
 
 		/*
-		 * E.OSORIO Para que una cola de prioridad funcione, debe existir algún
-		 * mecanismo de determinar el orden de los elementos. En este caso, los fScore
-		 * menores irán primero.
+		 * Si vence el plazo de la búsqueda, se retorna el camino hasta el nodo
+		 * cerrado más cercano al objetivo: su primer paso es el mejor conocido.
 		 */
+		int closest = start;
+		int closestH = Integer.MAX_VALUE;
+		int polled = 0;
 
-		// 1. Inicializa openSet y closedSet
-		PriorityQueue<AStarNode> openSet = new PriorityQueue<>(Comparator.comparingDouble(node -> node.fScore));
-		// Se crea un mapa en base a la posición con el nodo estrella correspondiente.
-		Map<HexPosition, AStarNode> openSetMap = new HashMap<>();
+		// 3. Mientras haya nodos por explorar
+		while (!openSet.isEmpty()) {
+			// 3.a Nodo con menor f = g + h
+			int current = openSet.poll();
 
-		Set<AStarNode> closedSet = new HashSet<>();
+			// 3.b Si es el objetivo, se reconstruye el camino
+			if (current == goal)
+				return reconstructPath(cells, buffers, goal);
 
-		// 2. Agrega posición inicial a openSet
-		openSet.add(startNode);
+			int h = heuristic(cells, buffers, current);
+			if (h < closestH) {
+				closestH = h;
+				closest = current;
+			}
+			if ((++polled & 63) == 0 && SearchDeadline.expired())
+				return closest == start ? new ArrayList<>() : reconstructPath(cells, buffers, closest);
 
-		// 3 Mientras openset no está vacío
-		while (!openSet.isEmpty()) {
-			// 3.a Se selecciona el nodo con menor fScor (Cola de prioridad por fScore)
-			AStarNode current = openSet.poll(); // Toma el primer elemento en la cola vacía y lo quita
-
-			// 3.b si es el objetivo, reconstruimos el camino y lo retornamos.
-			if (current.position.equals(targetPosition))
-				return reconstructPath(current);
-
-			// 3.c agrega el current al closedSet
-			closedSet.add(current);
-
-			// Obtiene los nodos adyacentes
-			List<HexPosition> adjacentPositions = board.getAdjacentPositions(currentPosition);
-			// 3.d Por cada vecino calculo su score y actualizo (Agrego a la lista openSet.
-			for (HexPosition pos : adjacentPositions) {
-
-				/*
-				 * E.OSORIO
-				 * 
-				 * Se calcula el costo de moverse desde donde está hacia la siguiente posición.
-				 * 
-				 * Luego se calcula el gScore a asignar, valor gScroe del padre más el costo de
-				 * moverse a dicha posición.
-				 */
-				double moveCost = getMoveCost(current.position, pos);
-				double gScore = current.gScore + moveCost;
-
-				double hScore = heuristicFunc.apply(pos);
-
-				double fScore = gScore + hScore; // (f = g + h)
-
-				/*
-				 * E.OSORIO
-				 * 
-				 * Se crea un nodo estrella por cada uno de los vecinos y se agrega al openSet
-				 * teniendo cuidado de reemplazarlo cuando el nuevo nodo tengo un f menor.
-				 */
-				AStarNode neighbor = new AStarNode(pos, moveCost, fScore, current);
-				// Tengo que validar qué si el nodo está en el openSet, dejo que el que tenga
-				// menor f
-				AStarNode oldNeighbor = openSetMap.get(pos);
-				if (oldNeighbor == null || oldNeighbor.fScore > neighbor.fScore) {
-					// quiere decir que el nuevo es mejor, o que no estaba en el openSet
-					openSet.remove(oldNeighbor); // No es problema si oldNeighbor es nulo
-					openSet.add(neighbor);
-					openSetMap.put(neighbor.position, neighbor);
-				}
+			// 3.c Con una heurística consistente, un nodo cerrado ya tiene su costo final
+			buffers.closedMark[current] = buffers.searchMark;
 
-			}
+			// 3.d Se relajan los vecinos libres del nodo actual
+			buffers.expanding = current;
+			cells.forEachAdjacentIndex(current, relaxNeighbor);
 		}
-		/*
-		 * E.OSORIO
-		 * 
-		 * Si llega aquí, quiere decir que no hubo solución
-		 */
+
+		// 4. No hay camino
 		return new ArrayList<>();
 		// throw new UnsupportedOperationException("Los estudiantes deben implementar
 		// este método");
 	}
 
-	// Clase auxiliar para nodos del algoritmo A*
-	private static class AStarNode {
-		public final HexPosition position;
-		public final double gScore; // Costo desde inicio
-		public final double fScore; // gScore + heurística
-		public final AStarNode parent;
-
-		public AStarNode(HexPosition position, double gScore, double fScore, AStarNode parent) {
-			this.position = position;
-			this.gScore = gScore;
-			this.fScore = fScore;
-			this.parent = parent;
+	/**
+	 * A* por posiciones para tableros sin índices de celda, con mapas de costos y
+	 * padres en lugar de los arreglos por celda.
+	 */
+	private List<HexPosition> getFullPathByPosition(HexPosition currentPosition, HexPosition targetPosition) {
+		if (targetPosition == null || board.isBlocked(targetPosition))
+			return new ArrayList<>();
+
+		Function<HexPosition, Double> heuristicFunction = getHeuristicFunction(targetPosition);
+		Map<HexPosition, Double> costs = new HashMap<>();
+		Map<HexPosition, HexPosition> parents = new HashMap<>();
+		Set<HexPosition> closed = new HashSet<>();
+		PriorityQueue<Map.Entry<HexPosition, Double>> frontier = new PriorityQueue<>(
+				Map.Entry.comparingByValue());
+
+		costs.put(currentPosition, 0.0);
+		frontier.add(Map.entry(currentPosition, heuristicFunction.apply(currentPosition)));
+		int polled = 0;
+		while (!frontier.isEmpty()) {
+			HexPosition current = frontier.poll().getKey();
+			if (!closed.add(current))
+				continue;
+			if (current.equals(targetPosition)) {
+				List<HexPosition> path = new ArrayList<>();
+				for (HexPosition cell = current; cell != null; cell = parents.get(cell))
+					path.add(cell);
+				Collections.reverse(path);
+				return path;
+			}
+			if ((++polled & 63) == 0 && SearchDeadline.expired())
+				return new ArrayList<>();
+
+			double g = costs.get(current);
+			board.forEachAdjacentPosition(current, neighbor -> {
+				double tentative = g + getMoveCost(current, neighbor);
+				if (!closed.contains(neighbor) && tentative < costs.getOrDefault(neighbor, Double.MAX_VALUE)) {
+					costs.put(neighbor, tentative);
+					parents.put(neighbor, current);
+					frontier.add(Map.entry(neighbor, tentative + heuristicFunction.apply(neighbor)));
+				}
+			});
 		}
+		return new ArrayList<>();
+	}
 
+	/**
+	 * Actualiza el costo de un vecino del nodo en expansión si el camino por él es
+	 * mejor. El costo de moverse a una celda adyacente es 1.
+	 */
+	private void relaxNeighbor(IndexedBoard<HexPosition> cells, SearchBuffers buffers, int neighbor) {
+		int mark = buffers.searchMark;
+		if (buffers.closedMark[neighbor] == mark)
+			return;
+		int tentative = buffers.gScore[buffers.expanding] + 1;
+		if (buffers.seenMark[neighbor] == mark && tentative >= buffers.gScore[neighbor])
+			return;
+		buffers.seenMark[neighbor] = mark;
+		buffers.gScore[neighbor] = tentative;
+		buffers.parent[neighbor] = buffers.expanding;
+		buffers.openSet.offerOrDecrease(neighbor, priority(cells, buffers, tentative, neighbor));
 	}
 
-	// Método auxiliar para reconstruir el camino
-	private List<HexPosition> reconstructPath(AStarNode goalNode) {
-		// TODO: Reconstruir camino desde nodo objetivo hasta inicio
-		// Seguir la cadena de padres hasta llegar al inicio
-		// Retornar lista en orden correcto (desde inicio hasta objetivo)
+	/**
+	 * Prioridad en el heap: ordena por f = g + h y, a igual f, prefiere el nodo con
+	 * mayor g, que está más cerca del objetivo. f ocupa los 32 bits altos y -g los
+	 * bajos, así la clave no desborda con ningún tamaño de tablero.
+	 */
+	private long priority(IndexedBoard<HexPosition> cells, SearchBuffers buffers, int g, int index) {
+		return ((long) (g + heuristic(cells, buffers, index)) << 32) - g;
+	}
 
-		/*
-		 * E.OSORIO
-		 * 
-		 * Se hace el while, miestras el nodo actual tenga padre. Se asegura finalmente
-		 * agregar el nodo que no tiene padre.
+	/**
+	 * Distancia hexagonal de la celda al objetivo de la búsqueda actual.
+	 */
+	private int heuristic(IndexedBoard<HexPosition> cells, SearchBuffers buffers, int index) {
+		HexPosition position = cells.positionAt(index);
+		int dq = position.getQ() - buffers.targetQ;
+		int dr = position.getR() - buffers.targetR;
+		return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
+	}
+
+	/**
+	 * Estructuras de búsqueda de un hilo, con la marca, el objetivo y el nodo en
+	 * expansión de la búsqueda en curso.
+	 */
+	private static final class SearchBuffers {
+
+		int[] gScore = new int[0];
+		int[] parent = new int[0];
+		int[] seenMark = new int[0];
+		int[] closedMark = new int[0];
+		IndexedMinHeap openSet = new IndexedMinHeap(0);
+		int searchMark;
+		int expanding;
+		int targetQ;
+		int targetR;
+
+		/**
+		 * Prepara las estructuras para una búsqueda nueva hacia target.
 		 */
-		AStarNode actualNode = goalNode;
-		List<HexPosition> nodes = new LinkedList<>();
-		while (actualNode.parent != null) {
-			nodes.add(actualNode.position);
-			actualNode = actualNode.parent;
+		void begin(int cells, HexPosition target) {
+			ensureCapacity(cells);
+			nextSearchMark();
+			targetQ = target.getQ();
+			targetR = target.getR();
+			openSet.clear();
+		}
+
+		void ensureCapacity(int cells) {
+			if (gScore.length < cells) {
+				gScore = new int[cells];
+				parent = new int[cells];
+				seenMark = new int[cells];
+				closedMark = new int[cells];
+				openSet = new IndexedMinHeap(cells);
+				searchMark = 0;
+			}
 		}
-		nodes.add(actualNode.position);
-		Collections.reverse(nodes);
-		return nodes;
 
-		// throw new UnsupportedOperationException("Método auxiliar para implementar");
+		int nextSearchMark() {
+			if (++searchMark == 0) {
+				Arrays.fill(seenMark, 0);
+				Arrays.fill(closedMark, 0);
+				searchMark = 1;
+			}
+			return searchMark;
+		}
+	}
+
+	// Método auxiliar para reconstruir el camino
+	private List<HexPosition> reconstructPath(IndexedBoard<HexPosition> cells, SearchBuffers buffers, int goal) {
+		/*
+		 * Se sigue la cadena de padres desde el objetivo hasta el inicio y luego se
+		 * invierte la lista.
+		 */
+		List<HexPosition> path = new ArrayList<>(buffers.gScore[goal] + 1);
+		for (int cell = goal; cell >= 0; cell = buffers.parent[cell])
+			path.add(cells.positionAt(cell));
+		Collections.reverse(path);
+		return path;
 	}
 
 	// Hook methods - los estudiantes pueden override para debugging
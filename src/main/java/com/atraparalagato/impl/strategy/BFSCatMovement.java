@@ -1,36 +1,55 @@
 package com.atraparalagato.impl.strategy;
 
 import com.atraparalagato.base.model.GameBoard;
+import com.atraparalagato.base.model.IndexedBoard;
 import com.atraparalagato.base.strategy.CatMovementStrategy;
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.model.HexDistanceField;
+import com.atraparalagato.impl.model.HexGameBoard;
 import com.atraparalagato.impl.model.HexPosition;
 
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
  * Estrategia de movimiento del gato basada en BFS.
  * Busca siempre el camino más corto al borde del tablero.
+ * 
+ * Con un HexGameBoard usa su campo de distancias al borde, que ya contiene el
+ * resultado del BFS y se mantiene al día con cada bloqueo. Con otros tableros
+ * hace el BFS por posiciones.
  */
 public class BFSCatMovement extends CatMovementStrategy<HexPosition> {
 
+    private final List<HexPosition> possibleMoves = new ArrayList<>(6);
+    private final Consumer<HexPosition> addPossibleMove = possibleMoves::add;
+
     public BFSCatMovement(GameBoard<HexPosition> board) {
         super(board);
     }
 
     @Override
     protected List<HexPosition> getPossibleMoves(HexPosition currentPosition) {
-        return board.getAdjacentPositions(currentPosition).stream()
-                .filter(pos -> !board.isBlocked(pos))
-                .toList();
+        // El tablero ya excluye las posiciones bloqueadas. La lista se reutiliza.
+        possibleMoves.clear();
+        board.forEachAdjacentPosition(currentPosition, addPossibleMove);
+        return possibleMoves;
     }
 
     @Override
     protected Optional<HexPosition> selectBestMove(List<HexPosition> possibleMoves,
                                                    HexPosition currentPosition,
                                                    HexPosition targetPosition) {
-        List<HexPosition> path = findShortestPathToBorder(currentPosition);
-        return (path.size() >= 2) ? Optional.of(path.get(1)) : Optional.empty();
+        if (board instanceof HexGameBoard hexBoard) {
+            // El campo de distancias del tablero ya conoce el paso hacia el borde.
+            int start = hexBoard.indexOf(currentPosition);
+            int step = start < 0 ? -1 : hexBoard.getBorderDistance().nextStep(start);
+            return step < 0 ? Optional.empty() : Optional.of(hexBoard.positionAt(step));
+        }
+        List<HexPosition> path = searchBorder(currentPosition);
+        return path.size() > 1 ? Optional.of(path.get(1)) : Optional.empty();
     }
 
     @Override
@@ -40,10 +59,7 @@ public class BFSCatMovement extends CatMovementStrategy<HexPosition> {
 
     @Override
     protected Predicate<HexPosition> getGoalPredicate() {
-        int size = board.getSize();
-        return p -> Math.abs(p.getQ()) >= size ||
-                    Math.abs(p.getR()) >= size ||
-                    Math.abs(p.getS()) >= size;
+        return HexBoardLayout.of(board.getSize())::isEscape;
     }
 
     @Override
@@ -53,7 +69,12 @@ public class BFSCatMovement extends CatMovementStrategy<HexPosition> {
 
     @Override
     public boolean hasPathToGoal(HexPosition currentPosition) {
-        return !findShortestPathToBorder(currentPosition).isEmpty();
+        if (board instanceof HexGameBoard hexBoard) {
+            return hexBoard.indexOf(currentPosition) < 0
+                    ? getGoalPredicate().test(currentPosition)
+                    : hexBoard.canReachBorder(currentPosition);
+        }
+        return !searchBorder(currentPosition).isEmpty();
     }
 
     @Override
@@ -64,39 +85,65 @@ public class BFSCatMovement extends CatMovementStrategy<HexPosition> {
     /* ---------------- Métodos auxiliares ---------------- */
 
     private List<HexPosition> findShortestPathToBorder(HexPosition start) {
-        Queue<HexPosition> queue = new LinkedList<>();
-        Map<HexPosition, HexPosition> parent = new HashMap<>();
-        Set<HexPosition> visited = new HashSet<>();
+        if (board instanceof HexGameBoard hexBoard) {
+            int startIndex = hexBoard.indexOf(start);
+            if (startIndex < 0) {
+                return getGoalPredicate().test(start) ? List.of(start) : Collections.emptyList();
+            }
+            return followBorderDistance(hexBoard, hexBoard.getBorderDistance(), startIndex);
+        }
+        return searchBorder(start);
+    }
 
-        queue.add(start);
-        visited.add(start);
+    /**
+     * BFS por posiciones desde start hasta la celda de salida más cercana, para
+     * tableros sin índices de celda. Retorna el camino incluyendo start, o una
+     * lista vacía si el gato no puede salir.
+     */
+    private List<HexPosition> searchBorder(HexPosition start) {
+        Predicate<HexPosition> isGoal = getGoalPredicate();
+        Map<HexPosition, HexPosition> parent = new HashMap<>();
+        ArrayDeque<HexPosition> queue = new ArrayDeque<>();
         parent.put(start, null);
+        queue.add(start);
 
+        int expanded = 0;
         while (!queue.isEmpty()) {
             HexPosition current = queue.poll();
-
-            if (getGoalPredicate().test(current)) {
+            if (isGoal.test(current)) {
                 return reconstructPath(parent, current);
             }
-
-            for (HexPosition neighbor : board.getAdjacentPositions(current)) {
-                if (!visited.contains(neighbor) && !board.isBlocked(neighbor)) {
-                    visited.add(neighbor);
+            if ((++expanded & 63) == 0 && SearchDeadline.expired()) {
+                return Collections.emptyList();
+            }
+            board.forEachAdjacentPosition(current, neighbor -> {
+                if (!parent.containsKey(neighbor)) {
                     parent.put(neighbor, current);
                     queue.add(neighbor);
                 }
-            }
+            });
         }
         return Collections.emptyList();
     }
 
-    private List<HexPosition> reconstructPath(Map<HexPosition, HexPosition> parent,
-                                              HexPosition goal) {
+    /**
+     * Camino al borde siguiendo el campo de distancias desde start.
+     */
+    private List<HexPosition> followBorderDistance(IndexedBoard<HexPosition> cells, HexDistanceField field, int start) {
+        if (field.distanceAt(start) == HexDistanceField.UNREACHABLE) {
+            return Collections.emptyList();
+        }
+        List<HexPosition> path = new ArrayList<>(field.distanceAt(start) + 1);
+        for (int cur = start; cur >= 0; cur = field.nextStep(cur)) {
+            path.add(cells.positionAt(cur));
+        }
+        return path;
+    }
+
+    private List<HexPosition> reconstructPath(Map<HexPosition, HexPosition> parent, HexPosition goal) {
         List<HexPosition> path = new ArrayList<>();
-        HexPosition cur = goal;
-        while (cur != null) {
+        for (HexPosition cur = goal; cur != null; cur = parent.get(cur)) {
             path.add(cur);
-            cur = parent.get(cur);
         }
         Collections.reverse(path);
         return path;
@@ -0,0 +1,132 @@
+package com.atraparalagato.impl.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.atraparalagato.base.model.GameBoard;
+import com.atraparalagato.base.strategy.CatMovementStrategy;
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+/**
+ * Decorador que memoriza las decisiones de otra estrategia en una
+ * {@link CatMoveCache} compartida.
+ *
+ * Antes de calcular un movimiento busca en la caché la posición actual (hash
+ * Zobrist del tablero y del gato), el objetivo y la dificultad. Si no está, le
+ * pide el movimiento a la estrategia decorada y guarda el resultado.
+ *
+ * La respuesta guardada es la que se calcularía solo si la estrategia decorada
+ * es determinista para una misma posición, como BFS, A* o la jerárquica. No
+ * debe decorar búsquedas limitadas por tiempo o aleatorias (minimax, MCTS):
+ * fijaría para siempre la respuesta de una búsqueda que esa vez llegó menos
+ * profundo.
+ *
+ * Solo memoriza sobre HexGameBoard, que mantiene su hash; con otros tableros
+ * delega siempre. Tampoco guarda las decisiones de búsquedas cortadas por un
+ * {@link SearchDeadline}.
+ */
+public class CachingCatMovementStrategy extends CatMovementStrategy<HexPosition> {
+
+	private final CatMovementStrategy<HexPosition> delegate;
+	private final CatMoveCache cache;
+	private final long difficultyKey;
+
+	private final List<HexPosition> possibleMoves = new ArrayList<>(6);
+	private final Consumer<HexPosition> addPossibleMove = possibleMoves::add;
+
+	/**
+	 * @param delegate   estrategia que calcula los movimientos no memorizados
+	 * @param board      tablero sobre el que trabaja la estrategia decorada
+	 * @param cache      caché compartida de decisiones
+	 * @param difficulty dificultad, para no mezclar decisiones de estrategias
+	 *                   distintas
+	 */
+	public CachingCatMovementStrategy(CatMovementStrategy<HexPosition> delegate, GameBoard<HexPosition> board,
+			CatMoveCache cache, String difficulty) {
+		super(board);
+		this.delegate = delegate;
+		this.cache = cache;
+		this.difficultyKey = (difficulty == null ? 0L : difficulty.hashCode()) * 0x9E3779B97F4A7C15L;
+	}
+
+	public CatMovementStrategy<HexPosition> getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	protected List<HexPosition> getPossibleMoves(HexPosition currentPosition) {
+		possibleMoves.clear();
+		board.forEachAdjacentPosition(currentPosition, addPossibleMove);
+		return possibleMoves;
+	}
+
+	@Override
+	protected Optional<HexPosition> selectBestMove(List<HexPosition> possibleMoves, HexPosition currentPosition,
+			HexPosition targetPosition) {
+		if (!(board instanceof HexGameBoard hexBoard) || hexBoard.indexOf(currentPosition) < 0)
+			return delegate.findBestMove(currentPosition, targetPosition);
+
+		long key = positionKey(hexBoard, currentPosition, targetPosition);
+		Integer cached = cache.get(key);
+		if (cached != null) {
+			if (cached == CatMoveCache.NO_MOVE)
+				return Optional.empty();
+			/*
+			 * Dos posiciones distintas pueden compartir clave: la celda guardada
+			 * solo se usa si es una vecina libre del gato en este tablero. Si no,
+			 * se calcula de nuevo y se reemplaza la entrada.
+			 */
+			if (cached >= 0 && cached < hexBoard.getCellCount()
+					&& possibleMoves.contains(hexBoard.positionAt(cached)))
+				return Optional.of(hexBoard.positionAt(cached));
+		}
+
+		Optional<HexPosition> move = delegate.findBestMove(currentPosition, targetPosition);
+		// Una búsqueda cortada por su plazo no es la respuesta completa: no se guarda
+		if (!SearchDeadline.expired())
+			cache.put(key, move.map(hexBoard::indexOf).orElse(CatMoveCache.NO_MOVE));
+		return move;
+	}
+
+	/**
+	 * Clave de la decisión: hash del tablero, celda del gato, celda objetivo y
+	 * dificultad.
+	 */
+	private long positionKey(HexGameBoard hexBoard, HexPosition currentPosition, HexPosition targetPosition) {
+		HexBoardLayout layout = hexBoard.getLayout();
+		long target = targetPosition == null ? 0L : layout.catKey(layout.indexOf(targetPosition));
+		return hexBoard.getZobristKey() ^ layout.catKey(layout.indexOf(currentPosition))
+				^ Long.rotateLeft(target, 29) ^ difficultyKey;
+	}
+
+	@Override
+	protected Function<HexPosition, Double> getHeuristicFunction(HexPosition targetPosition) {
+		return position -> position.distanceTo(targetPosition);
+	}
+
+	@Override
+	protected Predicate<HexPosition> getGoalPredicate() {
+		return HexBoardLayout.of(board.getSize())::isEscape;
+	}
+
+	@Override
+	protected double getMoveCost(HexPosition from, HexPosition to) {
+		return 1.0;
+	}
+
+	@Override
+	public boolean hasPathToGoal(HexPosition currentPosition) {
+		return delegate.hasPathToGoal(currentPosition);
+	}
+
+	@Override
+	public List<HexPosition> getFullPath(HexPosition currentPosition, HexPosition targetPosition) {
+		return delegate.getFullPath(currentPosition, targetPosition);
+	}
+}
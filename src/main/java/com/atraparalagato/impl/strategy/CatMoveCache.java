@@ -0,0 +1,141 @@
+package com.atraparalagato.impl.strategy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché acotada y concurrente de decisiones del gato.
+ *
+ * La clave es el hash Zobrist de la posición (tablero, celdas bloqueadas y gato)
+ * combinado con la dificultad, y el valor es el índice de la celda elegida, o
+ * {@link #NO_MOVE} si el gato no tenía movimiento. Se comparte entre todos los
+ * juegos, así que posiciones repetidas, como las aperturas habituales, se
+ * resuelven con una búsqueda en la caché.
+ *
+ * Está dividida en segmentos, cada uno un LinkedHashMap en orden de acceso con
+ * su propio lock, de modo que los hilos que consultan claves distintas rara vez
+ * compiten. Cada segmento expulsa su entrada menos usada al superar su parte
+ * de la capacidad total.
+ */
+public class CatMoveCache {
+
+	public static final int NO_MOVE = -1;
+
+	private final Segment[] segments;
+	private final int capacity;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * @param capacity     cantidad máxima de decisiones guardadas
+	 * @param segmentCount cantidad de segmentos; se redondea a una potencia de 2
+	 */
+	public CatMoveCache(int capacity, int segmentCount) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("La capacidad de la caché debe ser positiva: " + capacity);
+		int count = Integer.highestOneBit(Math.max(1, Math.min(segmentCount, capacity)));
+		this.capacity = capacity;
+		this.segments = new Segment[count];
+		for (int i = 0; i < count; i++)
+			segments[i] = new Segment(Math.max(1, capacity / count));
+	}
+
+	/**
+	 * Decisión guardada para la clave, o null si no está en la caché.
+	 */
+	public Integer get(long key) {
+		Segment segment = segmentFor(key);
+		Integer value;
+		synchronized (segment) {
+			value = segment.get(key);
+		}
+		if (value == null)
+			misses.increment();
+		else
+			hits.increment();
+		return value;
+	}
+
+	public void put(long key, int cell) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			segment.put(key, cell);
+		}
+	}
+
+	public void clear() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Métricas de la caché para exponerlas en la API.
+	 */
+	public Map<String, Object> getStatistics() {
+		long hitCount = getHits();
+		long total = hitCount + getMisses();
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("size", size());
+		stats.put("capacity", capacity);
+		stats.put("hits", hitCount);
+		stats.put("misses", total - hitCount);
+		stats.put("evictions", getEvictions());
+		stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+		return stats;
+	}
+
+	private Segment segmentFor(long key) {
+		int h = (int) (key ^ (key >>> 32));
+		return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+	}
+
+	private class Segment extends LinkedHashMap<Long, Integer> {
+
+		private static final long serialVersionUID = 1L;
+		private final int maxEntries;
+
+		Segment(int maxEntries) {
+			super(16, 0.75f, true);
+			this.maxEntries = maxEntries;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+			if (size() <= maxEntries)
+				return false;
+			evictions.increment();
+			return true;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package com.atraparalagato.impl.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.atraparalagato.base.model.GameBoard;
+import com.atraparalagato.base.strategy.CatMovementStrategy;
+import com.atraparalagato.impl.model.HexDistanceField;
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+/**
+ * Decorador que limita el tiempo de búsqueda de otra estrategia.
+ *
+ * Fija un {@link SearchDeadline} antes de delegar; las estrategias que lo
+ * consultan cortan al vencer y devuelven su mejor movimiento hasta ese momento.
+ * Si la búsqueda cortada no llegó a elegir ninguno, el gato hace el movimiento
+ * voraz: la vecina más cercana al borde. Cada búsqueda queda registrada en el
+ * {@link SearchDeadlineMonitor}.
+ */
+public class DeadlineCatMovement extends CatMovementStrategy<HexPosition> {
+
+	private final CatMovementStrategy<HexPosition> delegate;
+	private final SearchDeadlineMonitor monitor;
+
+	private final List<HexPosition> possibleMoves = new ArrayList<>(6);
+	private final Consumer<HexPosition> addPossibleMove = possibleMoves::add;
+
+	public DeadlineCatMovement(GameBoard<HexPosition> board, CatMovementStrategy<HexPosition> delegate,
+			SearchDeadlineMonitor monitor) {
+		super(board);
+		this.delegate = delegate;
+		this.monitor = monitor;
+	}
+
+	@Override
+	protected List<HexPosition> getPossibleMoves(HexPosition currentPosition) {
+		possibleMoves.clear();
+		board.forEachAdjacentPosition(currentPosition, addPossibleMove);
+		return possibleMoves;
+	}
+
+	@Override
+	protected Optional<HexPosition> selectBestMove(List<HexPosition> possibleMoves, HexPosition currentPosition,
+			HexPosition targetPosition) {
+		if (!monitor.isEnabled())
+			return delegate.findBestMove(currentPosition, targetPosition);
+
+		long start = System.nanoTime();
+		long previous = SearchDeadline.begin(monitor.getDeadlineNanos());
+		Optional<HexPosition> move;
+		boolean expired;
+		try {
+			move = delegate.findBestMove(currentPosition, targetPosition);
+		} finally {
+			expired = SearchDeadline.end(previous);
+		}
+
+		boolean fallback = expired && move.isEmpty();
+		if (fallback)
+			move = greedyMove(possibleMoves, targetPosition);
+		monitor.record(System.nanoTime() - start, expired, fallback);
+		return move;
+	}
+
+	/**
+	 * Vecina libre más cercana al borde según el campo de distancias del tablero,
+	 * o más cercana al objetivo si el tablero no lo tiene.
+	 */
+	private Optional<HexPosition> greedyMove(List<HexPosition> possibleMoves, HexPosition targetPosition) {
+		HexPosition best = null;
+		int bestDistance = Integer.MAX_VALUE;
+		HexGameBoard hexBoard = board instanceof HexGameBoard indexed ? indexed : null;
+		HexDistanceField field = hexBoard != null ? hexBoard.getBorderDistance() : null;
+		for (HexPosition move : possibleMoves) {
+			int distance;
+			if (field != null)
+				distance = field.distanceAt(hexBoard.indexOf(move));
+			else
+				distance = targetPosition == null ? 0 : (int) move.distanceTo(targetPosition);
+			if (best == null || distance < bestDistance) {
+				bestDistance = distance;
+				best = move;
+			}
+		}
+		return Optional.ofNullable(best);
+	}
+
+	@Override
+	protected Function<HexPosition, Double> getHeuristicFunction(HexPosition targetPosition) {
+		return position -> position.distanceTo(targetPosition);
+	}
+
+	@Override
+	protected Predicate<HexPosition> getGoalPredicate() {
+		return HexBoardLayout.of(board.getSize())::isEscape;
+	}
+
+	@Override
+	protected double getMoveCost(HexPosition from, HexPosition to) {
+		return 1.0;
+	}
+
+	@Override
+	public boolean hasPathToGoal(HexPosition currentPosition) {
+		return delegate.hasPathToGoal(currentPosition);
+	}
+
+	@Override
+	public List<HexPosition> getFullPath(HexPosition currentPosition, HexPosition targetPosition) {
+		return delegate.getFullPath(currentPosition, targetPosition);
+	}
+}
@@ -0,0 +1,256 @@
+package com.atraparalagato.impl.strategy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.model.HexDistanceField;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+/**
+ * Evalúa en lote bloqueos candidatos: para cada uno calcula a qué distancia de
+ * la salida quedaría el gato y hacia dónde respondería.
+ *
+ * El trabajo se comparte entre candidatos. Se calculan una vez las distancias
+ * de cada celda a la salida y al gato; con ellas se sabe qué celdas están en
+ * algún camino más corto del gato. Bloquear una celda fuera de esos caminos no
+ * cambia nada y se responde sin buscar; solo para las que están en ellos se
+ * repite la búsqueda, que se corta apenas llega al gato.
+ *
+ * Con muchos candidatos la evaluación se reparte entre los núcleos; las tablas
+ * de trabajo de cada hilo se reutilizan entre llamadas.
+ */
+public class HexCandidateEvaluator {
+
+	public static final int UNREACHABLE = HexDistanceField.UNREACHABLE;
+
+	/**
+	 * Desde cuántos candidatos conviene repartir la evaluación entre hilos.
+	 */
+	private static final int PARALLEL_THRESHOLD = 64;
+
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+	private final HexGameBoard board;
+	private final HexBoardLayout layout;
+
+	public HexCandidateEvaluator(HexGameBoard board) {
+		this.board = board;
+		this.layout = board.getLayout();
+	}
+
+	/**
+	 * Resultado de bloquear una celda candidata.
+	 */
+	public static final class Evaluation {
+
+		private final HexPosition position;
+		private final boolean valid;
+		private final int escapeDistance;
+		private final HexPosition bestReply;
+
+		Evaluation(HexPosition position, boolean valid, int escapeDistance, HexPosition bestReply) {
+			this.position = position;
+			this.valid = valid;
+			this.escapeDistance = escapeDistance;
+			this.bestReply = bestReply;
+		}
+
+		public HexPosition getPosition() {
+			return position;
+		}
+
+		/**
+		 * Falso si la celda no se puede bloquear (fuera del tablero, ya bloqueada o
+		 * la del gato); en ese caso el resto describe el tablero actual. Las celdas
+		 * de escape libres sí se pueden bloquear.
+		 */
+		public boolean isValid() {
+			return valid;
+		}
+
+		/**
+		 * Pasos que le faltarían al gato para escapar, o {@link #UNREACHABLE} si
+		 * quedaría encerrado.
+		 */
+		public int getEscapeDistance() {
+			return escapeDistance;
+		}
+
+		/**
+		 * Movimiento del gato por su camino más corto a la salida, vacío si ya no
+		 * puede escapar.
+		 */
+		public Optional<HexPosition> getBestReply() {
+			return Optional.ofNullable(bestReply);
+		}
+	}
+
+	/**
+	 * Evalúa cada candidata por separado, como si fuera el único bloqueo.
+	 */
+	public List<Evaluation> evaluate(HexPosition catPosition, List<HexPosition> candidates) {
+		int cat = board.indexOf(catPosition);
+		int cells = layout.getCellCount();
+		int[] distEscape = new int[cells];
+		int[] distCat = new int[cells];
+		if (cat >= 0) {
+			Scratch scratch = SCRATCH.get().prepare(layout);
+			escapeDistances(scratch, distEscape);
+			catDistances(scratch, cat, distCat);
+		}
+
+		Evaluation[] result = new Evaluation[candidates.size()];
+		IntStream indexes = IntStream.range(0, result.length);
+		if (result.length >= PARALLEL_THRESHOLD)
+			indexes = indexes.parallel();
+		indexes.forEach(i -> result[i] = evaluate(candidates.get(i), cat, distEscape, distCat));
+		return Arrays.asList(result);
+	}
+
+	private Evaluation evaluate(HexPosition position, int cat, int[] distEscape, int[] distCat) {
+		if (cat < 0)
+			return new Evaluation(position, false, UNREACHABLE, null);
+		int candidate = layout.indexOf(position);
+		boolean valid = candidate >= 0 && candidate != cat && !board.isBlocked(candidate);
+		int distance = distEscape[cat];
+		if (!valid || distance == UNREACHABLE || distance == 0)
+			return new Evaluation(position, valid, distance, currentReply(cat, distEscape));
+
+		if (distCat[candidate] == UNREACHABLE || distCat[candidate] + distEscape[candidate] != distance) {
+			// No está en ningún camino más corto del gato: el bloqueo no cambia nada
+			return new Evaluation(position, true, distance, currentReply(cat, distEscape));
+		}
+		return replay(position, candidate, cat);
+	}
+
+	/**
+	 * Primer vecino del gato en un camino más corto a la salida.
+	 */
+	private HexPosition currentReply(int cat, int[] distEscape) {
+		int distance = distEscape[cat];
+		if (distance == UNREACHABLE || distance == 0)
+			return null;
+		int end = layout.neighborEnd(cat);
+		for (int k = layout.neighborStart(cat); k < end; k++) {
+			int neighbor = layout.neighborAt(k);
+			if (distEscape[neighbor] == distance - 1)
+				return layout.positionAt(neighbor);
+		}
+		return null;
+	}
+
+	/**
+	 * Repite la búsqueda desde la salida con la candidata bloqueada y se detiene
+	 * al llegar al gato; la celda desde la que se llega es su mejor respuesta.
+	 */
+	private Evaluation replay(HexPosition position, int candidate, int cat) {
+		Scratch scratch = SCRATCH.get().prepare(layout);
+		int stamp = scratch.nextStamp();
+		int[] mark = scratch.mark;
+		int[] dist = scratch.dist;
+		int[] queue = scratch.queue;
+		int tail = 0;
+		mark[candidate] = stamp;
+		for (int i = 0; i < layout.getCellCount(); i++) {
+			// Si la candidata es de escape, con el bloqueo deja de ser salida
+			if (i != candidate && layout.isEscape(i) && !board.isBlocked(i)) {
+				mark[i] = stamp;
+				dist[i] = 0;
+				queue[tail++] = i;
+			}
+		}
+		for (int head = 0; head < tail; head++) {
+			int current = queue[head];
+			int end = layout.neighborEnd(current);
+			for (int k = layout.neighborStart(current); k < end; k++) {
+				int neighbor = layout.neighborAt(k);
+				if (mark[neighbor] == stamp || board.isBlocked(neighbor))
+					continue;
+				if (neighbor == cat)
+					return new Evaluation(position, true, dist[current] + 1, layout.positionAt(current));
+				mark[neighbor] = stamp;
+				dist[neighbor] = dist[current] + 1;
+				queue[tail++] = neighbor;
+			}
+		}
+		return new Evaluation(position, true, UNREACHABLE, null);
+	}
+
+	/**
+	 * BFS multi-origen desde las celdas de escape libres.
+	 */
+	private void escapeDistances(Scratch scratch, int[] dist) {
+		Arrays.fill(dist, UNREACHABLE);
+		int[] queue = scratch.queue;
+		int tail = 0;
+		for (int i = 0; i < layout.getCellCount(); i++) {
+			if (layout.isEscape(i) && !board.isBlocked(i)) {
+				dist[i] = 0;
+				queue[tail++] = i;
+			}
+		}
+		spread(queue, tail, dist);
+	}
+
+	/**
+	 * BFS desde el gato.
+	 */
+	private void catDistances(Scratch scratch, int cat, int[] dist) {
+		Arrays.fill(dist, UNREACHABLE);
+		int[] queue = scratch.queue;
+		dist[cat] = 0;
+		queue[0] = cat;
+		spread(queue, 1, dist);
+	}
+
+	private void spread(int[] queue, int tail, int[] dist) {
+		for (int head = 0; head < tail; head++) {
+			int current = queue[head];
+			int end = layout.neighborEnd(current);
+			for (int k = layout.neighborStart(current); k < end; k++) {
+				int neighbor = layout.neighborAt(k);
+				if (dist[neighbor] == UNREACHABLE && !board.isBlocked(neighbor)) {
+					dist[neighbor] = dist[current] + 1;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tablas de trabajo de un hilo. Las marcas por época evitan limpiar las
+	 * distancias entre búsquedas.
+	 */
+	private static final class Scratch {
+
+		private HexBoardLayout layout;
+		private int[] mark;
+		private int[] dist;
+		private int[] queue;
+		private int stamp;
+
+		Scratch prepare(HexBoardLayout target) {
+			if (layout != target) {
+				layout = target;
+				int cells = target.getCellCount();
+				mark = new int[cells];
+				dist = new int[cells];
+				queue = new int[cells];
+				stamp = 0;
+			}
+			return this;
+		}
+
+		int nextStamp() {
+			if (++stamp == 0) {
+				Arrays.fill(mark, 0);
+				stamp = 1;
+			}
+			return stamp;
+		}
+	}
+}
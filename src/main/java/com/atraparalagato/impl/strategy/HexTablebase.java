@@ -0,0 +1,244 @@
+package com.atraparalagato.impl.strategy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.model.HexGameBoard;
+
+/**
+ * Tabla de finales: el resultado con juego perfecto de todas las posiciones de
+ * un tablero pequeño, leída de un archivo mapeado en memoria.
+ *
+ * Una posición es el conjunto de celdas interiores bloqueadas, la celda del
+ * gato y a quién le toca. Las celdas interiores son las que están a más de un
+ * paso del anillo de escape. Cada posición ocupa un bit, que vale 1 si el gato
+ * escapa con juego perfecto.
+ *
+ * La tabla supone todas las salidas libres y que el jugador solo bloquea celdas
+ * interiores: guardar también las salidas no entra en memoria con size 4. Si
+ * el jugador ya bloqueó alguna salida vecina al interior, la posición no está
+ * en la tabla y las consultas lo informan para que decida otra estrategia.
+ *
+ * El archivo lo genera {@link HexTablebaseGenerator}. Tiene una cabecera de
+ * {@value #HEADER_BYTES} bytes (firma, versión, tamaño del tablero y cantidad
+ * de celdas interiores) seguida del bitset.
+ *
+ * El tamaño crece como 2^n por celda interior: con size 4 son 19 celdas
+ * interiores y unos 2,5 MB; con size 5 serían 37 celdas, fuera de alcance. Por
+ * eso se admiten tamaños de {@value #MIN_SIZE} a {@value #MAX_SIZE}.
+ */
+public final class HexTablebase {
+
+	public static final int MIN_SIZE = 2;
+	public static final int MAX_SIZE = 4;
+
+	static final int MAGIC = 0x48585442;
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 16;
+
+	static final int CAT_TO_MOVE = 0;
+	static final int PLAYER_TO_MOVE = 1;
+
+	private final Geometry geometry;
+	private final ByteBuffer data;
+
+	private HexTablebase(Geometry geometry, ByteBuffer data) {
+		this.geometry = geometry;
+		this.data = data;
+	}
+
+	/**
+	 * Mapea el archivo en memoria y valida su cabecera.
+	 */
+	public static HexTablebase open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC || data.getInt(4) != VERSION)
+				throw new IOException("No es una tabla de finales: " + file);
+			Geometry geometry = new Geometry(HexBoardLayout.of(data.getInt(8)));
+			if (data.getInt(12) != geometry.interiorCount
+					|| data.capacity() != HEADER_BYTES + geometry.dataBytes())
+				throw new IOException("Tabla de finales incompleta: " + file);
+			return new HexTablebase(geometry, data);
+		}
+	}
+
+	public int getSize() {
+		return geometry.layout.getSize();
+	}
+
+	/**
+	 * Verifica si la tabla resuelve las posiciones del tablero.
+	 */
+	public boolean covers(HexGameBoard board) {
+		return board.getLayout() == geometry.layout;
+	}
+
+	/**
+	 * Verifica si la posición está en la tabla: el gato en una celda interior y
+	 * ninguna salida vecina al interior bloqueada.
+	 */
+	public boolean contains(HexGameBoard board, int catIndex) {
+		if (catIndex < 0 || geometry.ordinalOf[catIndex] < 0)
+			return false;
+		for (int exit : geometry.exits) {
+			if (board.isBlocked(exit))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Resultado con juego perfecto: verdadero si el gato escapa.
+	 *
+	 * @param catIndex  celda del gato, que debe ser interior
+	 * @param catToMove a quién le toca mover
+	 * @throws IllegalArgumentException si la posición no está en la tabla
+	 */
+	public boolean catWins(HexGameBoard board, int catIndex, boolean catToMove) {
+		if (!contains(board, catIndex))
+			throw new IllegalArgumentException("La posición no está en la tabla de finales: " + catIndex);
+		return catWins(catToMove ? CAT_TO_MOVE : PLAYER_TO_MOVE, geometry.ordinalOf[catIndex], blockedMask(board));
+	}
+
+	/**
+	 * Mejor movimiento del gato: una salida adyacente o una celda desde la que
+	 * sigue ganando. Retorna -1 si el gato está perdido con juego perfecto (o la
+	 * posición no está en la tabla), para que decida otra estrategia.
+	 */
+	public int bestCatMove(HexGameBoard board, int catIndex) {
+		if (!contains(board, catIndex))
+			return -1;
+		int cat = geometry.ordinalOf[catIndex];
+		HexBoardLayout layout = geometry.layout;
+		int end = layout.neighborEnd(catIndex);
+		for (int k = layout.neighborStart(catIndex); k < end; k++) {
+			int neighbor = layout.neighborAt(k);
+			if (layout.isEscape(neighbor) && !board.isBlocked(neighbor))
+				return neighbor;
+		}
+		long mask = blockedMask(board);
+		for (int next : geometry.neighbors[cat]) {
+			if ((mask & (1L << next)) == 0 && catWins(PLAYER_TO_MOVE, next, mask))
+				return geometry.cellOf[next];
+		}
+		return -1;
+	}
+
+	/**
+	 * Bloqueo con el que el jugador gana con juego perfecto, o -1 si no hay
+	 * ninguno (o la posición no está en la tabla).
+	 */
+	public int bestBlock(HexGameBoard board, int catIndex) {
+		if (!contains(board, catIndex))
+			return -1;
+		int cat = geometry.ordinalOf[catIndex];
+		long mask = blockedMask(board);
+		for (int cell = 0; cell < geometry.interiorCount; cell++) {
+			long bit = 1L << cell;
+			if (cell != cat && (mask & bit) == 0 && !catWins(CAT_TO_MOVE, cat, mask | bit))
+				return geometry.cellOf[cell];
+		}
+		return -1;
+	}
+
+	private boolean catWins(int side, int cat, long mask) {
+		long bit = geometry.stateIndex(side, cat, mask);
+		return (data.get(HEADER_BYTES + (int) (bit >>> 3)) & (1 << (bit & 7))) != 0;
+	}
+
+	private long blockedMask(HexGameBoard board) {
+		long mask = 0;
+		for (int cell = 0; cell < geometry.interiorCount; cell++) {
+			if (board.isBlocked(geometry.cellOf[cell]))
+				mask |= 1L << cell;
+		}
+		return mask;
+	}
+
+	/**
+	 * Numeración de las celdas interiores y sus vecinas interiores, compartida con
+	 * el generador, y las salidas vecinas al interior.
+	 */
+	static final class Geometry {
+
+		final HexBoardLayout layout;
+		final int interiorCount;
+		final int[] cellOf;
+		final int[] ordinalOf;
+		final int[][] neighbors;
+		final boolean[] nearEscape;
+		final int[] exits;
+
+		Geometry(HexBoardLayout layout) {
+			if (layout.getSize() < MIN_SIZE || layout.getSize() > MAX_SIZE)
+				throw new IllegalArgumentException("Tamaño de tablero sin tabla de finales: " + layout.getSize());
+			this.layout = layout;
+			int cells = layout.getCellCount();
+			int interior = layout.getSize() - 2;
+			this.ordinalOf = new int[cells];
+			int count = 0;
+			for (int i = 0; i < cells; i++) {
+				int q = layout.getQ(i);
+				int r = layout.getR(i);
+				ordinalOf[i] = Math.max(Math.abs(q), Math.max(Math.abs(r), Math.abs(q + r))) <= interior ? count++
+						: -1;
+			}
+			this.interiorCount = count;
+			this.cellOf = new int[count];
+			this.neighbors = new int[count][];
+			this.nearEscape = new boolean[count];
+			int[] adjacentExits = new int[cells];
+			int exitCount = 0;
+			boolean[] seenExit = new boolean[cells];
+			for (int i = 0; i < cells; i++) {
+				int ordinal = ordinalOf[i];
+				if (ordinal < 0)
+					continue;
+				cellOf[ordinal] = i;
+				int[] adjacent = new int[6];
+				int found = 0;
+				int end = layout.neighborEnd(i);
+				for (int k = layout.neighborStart(i); k < end; k++) {
+					int neighbor = layout.neighborAt(k);
+					if (ordinalOf[neighbor] >= 0)
+						adjacent[found++] = ordinalOf[neighbor];
+					else if (layout.isEscape(neighbor)) {
+						nearEscape[ordinal] = true;
+						if (!seenExit[neighbor]) {
+							seenExit[neighbor] = true;
+							adjacentExits[exitCount++] = neighbor;
+						}
+					}
+				}
+				neighbors[ordinal] = Arrays.copyOf(adjacent, found);
+			}
+			this.exits = Arrays.copyOf(adjacentExits, exitCount);
+		}
+
+		/**
+		 * Cantidad de posiciones: dos turnos, cada celda del gato y cada conjunto de
+		 * bloqueadas.
+		 */
+		long stateCount() {
+			return 2L * interiorCount << interiorCount;
+		}
+
+		long dataBytes() {
+			return (stateCount() + 7) / 8;
+		}
+
+		/**
+		 * Bit de la posición. Para un mismo turno y gato, las máscaras consecutivas
+		 * ocupan bits consecutivos.
+		 */
+		long stateIndex(int side, int cat, long mask) {
+			return ((long) (side * interiorCount + cat) << interiorCount) | mask;
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package com.atraparalagato.impl.strategy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.strategy.HexTablebase.Geometry;
+
+/**
+ * Generador de la tabla de finales de {@link HexTablebase}.
+ *
+ * Resuelve las posiciones hacia atrás, por cantidad de celdas bloqueadas:
+ * cada bloqueo del jugador agrega una celda, así que una posición solo depende
+ * de otras con la misma cantidad de bloqueadas (movimientos del gato) o con una
+ * más (bloqueos). Se empieza por el tablero lleno y se baja nivel por nivel;
+ * dentro de un nivel los conjuntos de bloqueadas se reparten entre los núcleos,
+ * de a 64 para que cada hilo escriba palabras propias del bitset.
+ *
+ * Uso: {@code java ... HexTablebaseGenerator <size> <archivo>}
+ */
+public final class HexTablebaseGenerator {
+
+	private static final int BLOCK_BITS = 6;
+
+	private HexTablebaseGenerator() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Uso: HexTablebaseGenerator <size> <archivo>");
+			System.exit(1);
+		}
+		int size = Integer.parseInt(args[0]);
+		Path file = Path.of(args[1]);
+		long start = System.nanoTime();
+		long[] bits = solve(size, System.out::println);
+		write(file, size, bits);
+		System.out.printf("Tabla de size %d escrita en %s (%d bytes) en %d ms%n", size, file, Files.size(file),
+				(System.nanoTime() - start) / 1_000_000);
+	}
+
+	/**
+	 * Resuelve todas las posiciones del tablero.
+	 *
+	 * @param progress recibe una línea por nivel resuelto
+	 * @return bitset de posiciones ganadas por el gato, indexado como en
+	 *         {@link Geometry#stateIndex(int, int, long)}
+	 */
+	public static long[] solve(int size, Consumer<String> progress) {
+		Geometry geometry = new Geometry(HexBoardLayout.of(size));
+		int n = geometry.interiorCount;
+		long[] bits = new long[(int) ((geometry.stateCount() + 63) >>> 6)];
+		int blockBits = Math.min(BLOCK_BITS, n);
+		int blocks = 1 << (n - blockBits);
+
+		long start = System.nanoTime();
+		for (int level = n; level >= 0; level--) {
+			int blockedCount = level;
+			IntStream indexes = IntStream.range(0, blocks);
+			if (blocks > 1)
+				indexes = indexes.parallel();
+			indexes.forEach(block -> solveBlock(geometry, bits, block << blockBits, 1 << blockBits, blockedCount));
+			progress.accept(String.format("Nivel %d/%d resuelto (%d ms)", n - level + 1, n + 1,
+					(System.nanoTime() - start) / 1_000_000));
+		}
+		return bits;
+	}
+
+	/**
+	 * Resuelve los conjuntos de bloqueadas del bloque que tienen la cantidad
+	 * indicada de celdas.
+	 */
+	private static void solveBlock(Geometry geometry, long[] bits, int firstMask, int masks, int blockedCount) {
+		int n = geometry.interiorCount;
+		for (int mask = firstMask; mask < firstMask + masks; mask++) {
+			if (Integer.bitCount(mask) != blockedCount)
+				continue;
+			// Turno del jugador: el gato gana si gana después de cualquier bloqueo
+			for (int cat = 0; cat < n; cat++) {
+				if ((mask & (1 << cat)) != 0)
+					continue;
+				boolean catWins;
+				if (blockedCount == n - 1) {
+					// Sin celdas que bloquear solo importa si el gato tiene una salida al lado
+					catWins = geometry.nearEscape[cat];
+				} else {
+					catWins = true;
+					for (int cell = 0; cell < n && catWins; cell++) {
+						int bit = 1 << cell;
+						if (cell != cat && (mask & bit) == 0)
+							catWins = get(geometry, bits, HexTablebase.CAT_TO_MOVE, cat, mask | bit);
+					}
+				}
+				if (catWins)
+					set(geometry, bits, HexTablebase.PLAYER_TO_MOVE, cat, mask);
+			}
+			// Turno del gato: gana si tiene una salida al lado o una vecina ganadora
+			for (int cat = 0; cat < n; cat++) {
+				if ((mask & (1 << cat)) != 0)
+					continue;
+				boolean catWins = geometry.nearEscape[cat];
+				for (int next : geometry.neighbors[cat]) {
+					if (catWins)
+						break;
+					if ((mask & (1 << next)) == 0)
+						catWins = get(geometry, bits, HexTablebase.PLAYER_TO_MOVE, next, mask);
+				}
+				if (catWins)
+					set(geometry, bits, HexTablebase.CAT_TO_MOVE, cat, mask);
+			}
+		}
+	}
+
+	private static boolean get(Geometry geometry, long[] bits, int side, int cat, int mask) {
+		long index = geometry.stateIndex(side, cat, mask);
+		return (bits[(int) (index >>> 6)] & (1L << index)) != 0;
+	}
+
+	private static void set(Geometry geometry, long[] bits, int side, int cat, int mask) {
+		long index = geometry.stateIndex(side, cat, mask);
+		bits[(int) (index >>> 6)] |= 1L << index;
+	}
+
+	/**
+	 * Escribe la cabecera y el bitset, primero en un archivo temporal que luego
+	 * reemplaza al destino.
+	 */
+	public static void write(Path file, int size, long[] bits) throws IOException {
+		Geometry geometry = new Geometry(HexBoardLayout.of(size));
+		int dataBytes = (int) geometry.dataBytes();
+		ByteBuffer buffer = ByteBuffer.allocate(HexTablebase.HEADER_BYTES + dataBytes);
+		buffer.putInt(HexTablebase.MAGIC).putInt(HexTablebase.VERSION).putInt(size).putInt(geometry.interiorCount);
+		ByteBuffer data = ByteBuffer.allocate(bits.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		data.asLongBuffer().put(bits);
+		buffer.put(data.array(), 0, dataBytes);
+		buffer.flip();
+
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null)
+			Files.createDirectories(parent);
+		Path temporary = Files.createTempFile(parent, "tablebase", ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
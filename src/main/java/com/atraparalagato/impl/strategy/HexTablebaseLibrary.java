@@ -0,0 +1,63 @@
+package com.atraparalagato.impl.strategy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.atraparalagato.impl.model.HexGameBoard;
+
+/**
+ * Tablas de finales disponibles, una por tamaño de tablero.
+ *
+ * Se cargan al iniciar desde un directorio con archivos
+ * {@code tablebase-<size>.bin} generados con {@link HexTablebaseGenerator}. Los
+ * tamaños sin archivo, o con un archivo inválido, quedan sin tabla.
+ */
+public class HexTablebaseLibrary {
+
+	private static final Logger LOG = Logger.getLogger(HexTablebaseLibrary.class.getName());
+
+	private final HexTablebase[] bySize = new HexTablebase[HexTablebase.MAX_SIZE + 1];
+
+	/**
+	 * @param directory directorio de las tablas, o null/vacío para no usar tablas
+	 */
+	public HexTablebaseLibrary(String directory) {
+		if (directory == null || directory.isBlank())
+			return;
+		for (int size = HexTablebase.MIN_SIZE; size <= HexTablebase.MAX_SIZE; size++) {
+			Path file = fileFor(Path.of(directory), size);
+			if (!Files.isRegularFile(file))
+				continue;
+			try {
+				HexTablebase tablebase = HexTablebase.open(file);
+				if (tablebase.getSize() == size) {
+					bySize[size] = tablebase;
+					LOG.info("Tabla de finales cargada: " + file);
+				}
+			} catch (IOException | IllegalArgumentException e) {
+				LOG.log(Level.WARNING, "No se pudo cargar la tabla de finales " + file, e);
+			}
+		}
+	}
+
+	/**
+	 * Nombre del archivo de la tabla de un tamaño dentro del directorio.
+	 */
+	public static Path fileFor(Path directory, int size) {
+		return directory.resolve("tablebase-" + size + ".bin");
+	}
+
+	/**
+	 * Tabla que resuelve el tablero, si hay una cargada para su tamaño.
+	 */
+	public Optional<HexTablebase> forBoard(HexGameBoard board) {
+		int size = board.getSize();
+		if (size < 0 || size >= bySize.length)
+			return Optional.empty();
+		return Optional.ofNullable(bySize[size]);
+	}
+}
@@ -0,0 +1,110 @@
+package com.atraparalagato.impl.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.atraparalagato.base.model.GameBoard;
+import com.atraparalagato.base.strategy.CatMovementStrategy;
+import com.atraparalagato.impl.model.HexClusterGraph;
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+/**
+ * Estrategia del gato para tableros muy grandes: planifica el camino hacia el
+ * objetivo sobre el {@link HexClusterGraph} del tablero en lugar de recorrer
+ * todas las celdas.
+ *
+ * Sin objetivo, o si el objetivo está bloqueado, busca la salida más cercana.
+ * Si el grafo no encuentra camino, o el tablero no es un HexGameBoard, decide
+ * A* sobre todas las celdas.
+ */
+public class HierarchicalCatMovement extends CatMovementStrategy<HexPosition> {
+
+	private final AStarCatMovement flat;
+
+	private final List<HexPosition> possibleMoves = new ArrayList<>(6);
+	private final Consumer<HexPosition> addPossibleMove = possibleMoves::add;
+
+	public HierarchicalCatMovement(GameBoard<HexPosition> board) {
+		super(board);
+		this.flat = new AStarCatMovement(board);
+	}
+
+	@Override
+	protected List<HexPosition> getPossibleMoves(HexPosition currentPosition) {
+		possibleMoves.clear();
+		board.forEachAdjacentPosition(currentPosition, addPossibleMove);
+		return possibleMoves;
+	}
+
+	@Override
+	protected Optional<HexPosition> selectBestMove(List<HexPosition> possibleMoves, HexPosition currentPosition,
+			HexPosition targetPosition) {
+		if (board instanceof HexGameBoard hexBoard) {
+			int step = hexBoard.getClusterGraph().nextStep(hexBoard.indexOf(currentPosition),
+					goalOf(hexBoard, targetPosition));
+			if (step >= 0)
+				return Optional.of(hexBoard.positionAt(step));
+		}
+		return flat.findBestMove(currentPosition, targetPosition);
+	}
+
+	private static int goalOf(HexGameBoard board, HexPosition targetPosition) {
+		if (targetPosition == null)
+			return -1;
+		int goal = board.indexOf(targetPosition);
+		return goal >= 0 && !board.isBlocked(goal) ? goal : -1;
+	}
+
+	@Override
+	protected Function<HexPosition, Double> getHeuristicFunction(HexPosition targetPosition) {
+		return position -> position.distanceTo(targetPosition);
+	}
+
+	@Override
+	protected Predicate<HexPosition> getGoalPredicate() {
+		return HexBoardLayout.of(board.getSize())::isEscape;
+	}
+
+	@Override
+	protected double getMoveCost(HexPosition from, HexPosition to) {
+		return 1.0;
+	}
+
+	@Override
+	public boolean hasPathToGoal(HexPosition currentPosition) {
+		if (board instanceof HexGameBoard hexBoard)
+			return hexBoard.canReachBorder(currentPosition);
+		return flat.hasPathToGoal(currentPosition);
+	}
+
+	/**
+	 * Camino que sigue el gato paso a paso sobre el grafo abstracto.
+	 */
+	@Override
+	public List<HexPosition> getFullPath(HexPosition currentPosition, HexPosition targetPosition) {
+		if (!(board instanceof HexGameBoard hexBoard))
+			return flat.getFullPath(currentPosition, targetPosition);
+		HexClusterGraph graph = hexBoard.getClusterGraph();
+		int goal = goalOf(hexBoard, targetPosition);
+		int current = hexBoard.indexOf(currentPosition);
+		List<HexPosition> path = new ArrayList<>();
+		if (current < 0)
+			return path;
+		path.add(currentPosition);
+		for (int steps = 0; steps < hexBoard.getCellCount(); steps++) {
+			int next = graph.nextStep(current, goal);
+			if (next < 0)
+				break;
+			path.add(hexBoard.positionAt(next));
+			current = next;
+		}
+		boolean arrived = goal >= 0 ? current == goal : hexBoard.getLayout().isEscape(current);
+		return arrived ? path : new ArrayList<>();
+	}
+}
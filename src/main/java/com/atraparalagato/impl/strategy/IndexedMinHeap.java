@@ -0,0 +1,130 @@
+package com.atraparalagato.impl.strategy;
+
+import java.util.Arrays;
+
+/**
+ * Cola de prioridad mínima sobre índices de celda [0, capacity).
+ *
+ * Es un heap binario que además guarda la posición de cada índice dentro del
+ * heap, por lo que puede disminuir la prioridad de un elemento ya encolado
+ * (decrease-key) en O(log n) en lugar de quitarlo y volver a agregarlo, como
+ * obliga PriorityQueue.remove(Object), que es O(n).
+ *
+ * Las prioridades son enteros largos, para que quien encola pueda combinar
+ * varios criterios en una sola clave, y la estructura se reutiliza entre búsquedas con
+ * {@link #clear()}, que solo limpia las celdas que quedaron encoladas.
+ */
+public final class IndexedMinHeap {
+
+	private final int[] heap;
+	private final long[] keys;
+	/**
+	 * Posición de cada índice dentro de heap, o -1 si no está encolado.
+	 */
+	private final int[] positions;
+	private int size;
+
+	public IndexedMinHeap(int capacity) {
+		this.heap = new int[capacity];
+		this.keys = new long[capacity];
+		this.positions = new int[capacity];
+		Arrays.fill(positions, -1);
+	}
+
+	public int capacity() {
+		return heap.length;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean contains(int index) {
+		return positions[index] >= 0;
+	}
+
+	public long keyOf(int index) {
+		return keys[index];
+	}
+
+	/**
+	 * Encola el índice con la prioridad dada o, si ya estaba, la reduce cuando la
+	 * nueva es menor.
+	 *
+	 * @return true si el índice se agregó o su prioridad cambió.
+	 */
+	public boolean offerOrDecrease(int index, long key) {
+		int pos = positions[index];
+		if (pos < 0) {
+			pos = size++;
+			heap[pos] = index;
+			positions[index] = pos;
+		} else if (key >= keys[index]) {
+			return false;
+		}
+		keys[index] = key;
+		siftUp(pos);
+		return true;
+	}
+
+	/**
+	 * Quita y retorna el índice de menor prioridad.
+	 */
+	public int poll() {
+		if (size == 0)
+			throw new IllegalStateException("La cola está vacía");
+		int top = heap[0];
+		positions[top] = -1;
+		if (--size > 0) {
+			heap[0] = heap[size];
+			positions[heap[0]] = 0;
+			siftDown(0);
+		}
+		return top;
+	}
+
+	public void clear() {
+		for (int i = 0; i < size; i++)
+			positions[heap[i]] = -1;
+		size = 0;
+	}
+
+	private void siftUp(int pos) {
+		int index = heap[pos];
+		long key = keys[index];
+		while (pos > 0) {
+			int parentPos = (pos - 1) >>> 1;
+			int parent = heap[parentPos];
+			if (keys[parent] <= key)
+				break;
+			heap[pos] = parent;
+			positions[parent] = pos;
+			pos = parentPos;
+		}
+		heap[pos] = index;
+		positions[index] = pos;
+	}
+
+	private void siftDown(int pos) {
+		int index = heap[pos];
+		long key = keys[index];
+		int half = size >>> 1;
+		while (pos < half) {
+			int child = 2 * pos + 1;
+			int right = child + 1;
+			if (right < size && keys[heap[right]] < keys[heap[child]])
+				child = right;
+			if (keys[heap[child]] >= key)
+				break;
+			heap[pos] = heap[child];
+			positions[heap[pos]] = pos;
+			pos = child;
+		}
+		heap[pos] = index;
+		positions[index] = pos;
+	}
+}
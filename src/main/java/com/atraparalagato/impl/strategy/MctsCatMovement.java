@@ -0,0 +1,478 @@
+package com.atraparalagato.impl.strategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.atraparalagato.base.model.GameBoard;
+import com.atraparalagato.base.strategy.CatMovementStrategy;
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+/**
+ * Estrategia del gato basada en Monte Carlo Tree Search (UCT).
+ *
+ * Paraleliza en la raíz: cada hilo del {@link MctsSearchPool} construye su
+ * propio árbol con una parte del presupuesto de playouts y al final se suman
+ * las visitas de los movimientos de la raíz. Los árboles no se comparten, así
+ * que no hay sincronización durante la búsqueda.
+ *
+ * Cada hilo trabaja sobre una copia primitiva del tablero (bitset de celdas
+ * bloqueadas e índice del gato) y guarda el árbol en arreglos paralelos, que se
+ * reutilizan entre búsquedas.
+ *
+ * Los playouts siguen una política liviana: el gato avanza casi siempre por el
+ * camino más corto a la salida y el jugador casi siempre bloquea el siguiente
+ * paso de ese camino, aunque sea una celda de escape. El gato gana al llegar a
+ * una celda de escape y pierde cuando ya no puede alcanzarla.
+ */
+public class MctsCatMovement extends CatMovementStrategy<HexPosition> {
+
+	private static final ThreadLocal<Worker> WORKERS = ThreadLocal.withInitial(Worker::new);
+
+	private final MctsSearchPool searchPool;
+
+	private final List<HexPosition> possibleMoves = new ArrayList<>(6);
+	private final Consumer<HexPosition> addPossibleMove = possibleMoves::add;
+
+	private long lastPlayouts;
+
+	public MctsCatMovement(GameBoard<HexPosition> board, MctsSearchPool searchPool) {
+		super(board);
+		this.searchPool = searchPool;
+	}
+
+	/**
+	 * Playouts hechos en la última búsqueda, entre todos los hilos.
+	 */
+	public long getLastPlayouts() {
+		return lastPlayouts;
+	}
+
+	@Override
+	protected List<HexPosition> getPossibleMoves(HexPosition currentPosition) {
+		possibleMoves.clear();
+		board.forEachAdjacentPosition(currentPosition, addPossibleMove);
+		return possibleMoves;
+	}
+
+	@Override
+	protected Optional<HexPosition> selectBestMove(List<HexPosition> possibleMoves, HexPosition currentPosition,
+			HexPosition targetPosition) {
+		if (!(board instanceof HexGameBoard hexBoard) || hexBoard.indexOf(currentPosition) < 0) {
+			Function<HexPosition, Double> heuristic = getHeuristicFunction(targetPosition);
+			return possibleMoves.stream().min((a, b) -> Double.compare(heuristic.apply(a), heuristic.apply(b)));
+		}
+		HexBoardLayout layout = hexBoard.getLayout();
+		int move = search(hexBoard, layout, hexBoard.indexOf(currentPosition));
+		return move < 0 ? Optional.empty() : Optional.of(layout.positionAt(move));
+	}
+
+	/**
+	 * Reparte los playouts entre los hilos y elige el movimiento de la raíz más
+	 * visitado. Retorna -1 si el gato no tiene movimientos.
+	 */
+	private int search(HexGameBoard hexBoard, HexBoardLayout layout, int start) {
+		long[] blocked = new long[(layout.getCellCount() + 63) >>> 6];
+		hexBoard.copyBlockedBits(blocked);
+
+		int[] rootMoves = new int[6];
+		int rootCount = 0;
+		int end = layout.neighborEnd(start);
+		for (int k = layout.neighborStart(start); k < end; k++) {
+			int neighbor = layout.neighborAt(k);
+			if ((blocked[neighbor >>> 6] & (1L << neighbor)) == 0) {
+				// Una salida inmediata no necesita búsqueda
+				if (layout.isEscape(neighbor))
+					return neighbor;
+				rootMoves[rootCount++] = neighbor;
+			}
+		}
+		lastPlayouts = 0;
+		if (rootCount <= 1)
+			return rootCount == 0 ? -1 : rootMoves[0];
+
+		int threads = searchPool.getThreads();
+		int perThread = (searchPool.getPlayoutsPerMove() + threads - 1) / threads;
+		// Los hilos del pool no ven el plazo de este hilo: se les pasa explícito
+		long deadline = SearchDeadline.deadline();
+		List<Callable<int[]>> tasks = new ArrayList<>(threads);
+		for (int t = 0; t < threads; t++) {
+			tasks.add(() -> WORKERS.get().search(layout, blocked, start, perThread, deadline));
+		}
+
+		long begin = System.nanoTime();
+		long[] visits = new long[rootCount];
+		long playouts = 0;
+		for (Future<int[]> future : searchPool.getPool().invokeAll(tasks)) {
+			int[] workerVisits = join(future);
+			for (int i = 0; i < rootCount; i++) {
+				visits[i] += workerVisits[i];
+			}
+			playouts += workerVisits[workerVisits.length - 1];
+		}
+		lastPlayouts = playouts;
+		searchPool.record(lastPlayouts, System.nanoTime() - begin);
+
+		int best = 0;
+		for (int i = 1; i < rootCount; i++) {
+			if (visits[i] > visits[best])
+				best = i;
+		}
+		return rootMoves[best];
+	}
+
+	private static int[] join(Future<int[]> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Búsqueda MCTS interrumpida", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Error en la búsqueda MCTS", e.getCause());
+		}
+	}
+
+	@Override
+	protected Function<HexPosition, Double> getHeuristicFunction(HexPosition targetPosition) {
+		return position -> position.distanceTo(targetPosition);
+	}
+
+	@Override
+	protected Predicate<HexPosition> getGoalPredicate() {
+		return HexBoardLayout.of(board.getSize())::isEscape;
+	}
+
+	@Override
+	protected double getMoveCost(HexPosition from, HexPosition to) {
+		return 1.0;
+	}
+
+	@Override
+	public boolean hasPathToGoal(HexPosition currentPosition) {
+		if (board instanceof HexGameBoard hexBoard)
+			return hexBoard.canReachBorder(currentPosition);
+		return !getFullPath(currentPosition, null).isEmpty();
+	}
+
+	@Override
+	public List<HexPosition> getFullPath(HexPosition currentPosition, HexPosition targetPosition) {
+		/*
+		 * El camino que el gato intentará seguir es el más corto hacia la salida; la
+		 * búsqueda solo decide el primer paso.
+		 */
+		return new BFSCatMovement(board).getFullPath(currentPosition, targetPosition);
+	}
+
+	/**
+	 * Árbol y tablero de trabajo de un hilo. Los nodos se guardan en arreglos
+	 * paralelos; los hijos de un nodo ocupan posiciones contiguas.
+	 */
+	private static final class Worker {
+
+		private static final double EXPLORATION = 0.7;
+		private static final int INF = Integer.MAX_VALUE;
+		private static final int CAT_NOISE_PERCENT = 10;
+		private static final int PLAYER_FOCUS_PERCENT = 80;
+
+		private final SplittableRandom random = new SplittableRandom();
+
+		private HexBoardLayout layout;
+		private boolean[] escape = new boolean[0];
+		private long[] blocked = new long[0];
+		private int[] distEscape = new int[0];
+		private int[] queue = new int[0];
+		private int[] nearMark = new int[0];
+		private int nearStamp;
+		private int cat;
+
+		private int[] move = new int[1024];
+		private int[] parent = new int[1024];
+		private int[] firstChild = new int[1024];
+		private int[] childCount = new int[1024];
+		private int[] visits = new int[1024];
+		private double[] wins = new double[1024];
+		private boolean[] catMoved = new boolean[1024];
+		private int nodeCount;
+
+		private void prepare(HexBoardLayout target) {
+			if (layout == target)
+				return;
+			layout = target;
+			int cells = target.getCellCount();
+			escape = new boolean[cells];
+			for (int i = 0; i < cells; i++) {
+				escape[i] = target.isEscape(i);
+			}
+			blocked = new long[(cells + 63) >>> 6];
+			distEscape = new int[cells];
+			queue = new int[cells];
+			nearMark = new int[cells];
+			nearStamp = 0;
+		}
+
+		/**
+		 * Corre los playouts sobre un árbol nuevo, hasta completarlos o hasta el
+		 * plazo, y retorna las visitas de cada hijo de la raíz, en el orden de los
+		 * vecinos del gato, seguidas de la cantidad de playouts hechos.
+		 */
+		int[] search(HexBoardLayout target, long[] source, int start, int playouts, long deadline) {
+			prepare(target);
+			nodeCount = 0;
+			int root = newNode(-1, -1, false);
+			int done = 0;
+			while (done < playouts) {
+				if ((done & 15) == 15 && deadline != SearchDeadline.NONE && System.nanoTime() > deadline)
+					break;
+				System.arraycopy(source, 0, blocked, 0, blocked.length);
+				cat = start;
+				playout(root);
+				done++;
+			}
+			int children = childCount[root];
+			int[] result = new int[children + 1];
+			for (int i = 0; i < children; i++) {
+				result[i] = visits[firstChild[root] + i];
+			}
+			result[children] = done;
+			return result;
+		}
+
+		/**
+		 * Selección, expansión, simulación y propagación de un playout.
+		 */
+		private void playout(int root) {
+			int node = root;
+			boolean catToMove = true;
+			double result;
+			while (true) {
+				if (escape[cat]) {
+					result = 1.0;
+					break;
+				}
+				if (childCount[node] == 0) {
+					if (node != root && visits[node] == 0) {
+						result = simulate(catToMove);
+						break;
+					}
+					expand(node, catToMove);
+					if (childCount[node] == 0) {
+						// El gato sin vecinos libres pierde; el jugador siempre puede mover
+						result = catToMove ? 0.0 : simulate(catToMove);
+						break;
+					}
+				}
+				node = selectChild(node);
+				if (catMoved[node])
+					cat = move[node];
+				else
+					blocked[move[node] >>> 6] |= 1L << move[node];
+				catToMove = !catToMove;
+			}
+			for (int n = node; n >= 0; n = parent[n]) {
+				visits[n]++;
+				wins[n] += catMoved[n] ? result : 1.0 - result;
+			}
+		}
+
+		private void expand(int node, boolean catToMove) {
+			int first = nodeCount;
+			if (catToMove) {
+				int end = layout.neighborEnd(cat);
+				for (int k = layout.neighborStart(cat); k < end; k++) {
+					int neighbor = layout.neighborAt(k);
+					if (!isBlocked(neighbor))
+						newNode(neighbor, node, true);
+				}
+			} else {
+				// El jugador considera las celdas libres a distancia 1 o 2 del gato
+				nearStamp++;
+				nearMark[cat] = nearStamp;
+				int end = layout.neighborEnd(cat);
+				for (int k = layout.neighborStart(cat); k < end; k++) {
+					int neighbor = layout.neighborAt(k);
+					addPlayerChild(neighbor, node);
+					int end2 = layout.neighborEnd(neighbor);
+					for (int k2 = layout.neighborStart(neighbor); k2 < end2; k2++) {
+						addPlayerChild(layout.neighborAt(k2), node);
+					}
+				}
+			}
+			firstChild[node] = first;
+			childCount[node] = nodeCount - first;
+		}
+
+		private void addPlayerChild(int cell, int node) {
+			if (nearMark[cell] == nearStamp)
+				return;
+			nearMark[cell] = nearStamp;
+			if (!isBlocked(cell))
+				newNode(cell, node, false);
+		}
+
+		/**
+		 * UCT: primero los hijos sin visitar, luego el que maximiza la tasa de
+		 * victorias más el término de exploración.
+		 */
+		private int selectChild(int node) {
+			int first = firstChild[node];
+			int end = first + childCount[node];
+			double logVisits = Math.log(Math.max(1, visits[node]));
+			int best = first;
+			double bestScore = Double.NEGATIVE_INFINITY;
+			for (int c = first; c < end; c++) {
+				if (visits[c] == 0)
+					return c;
+				double score = wins[c] / visits[c] + EXPLORATION * Math.sqrt(logVisits / visits[c]);
+				if (score > bestScore) {
+					bestScore = score;
+					best = c;
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * Juega hasta el final con la política liviana. Retorna 1 si escapa el gato
+		 * y 0 si queda encerrado.
+		 */
+		private double simulate(boolean catToMove) {
+			int maxSteps = 4 * layout.getCellCount();
+			for (int step = 0; step < maxSteps; step++) {
+				computeEscapeDistance();
+				int distance = distEscape[cat];
+				if (distance == INF)
+					return 0.0;
+				// A un paso de la salida el gato gana si le toca mover o si el jugador no
+				// puede bloquear todas sus salidas libres con un solo bloqueo
+				if (distance == 0 || (distance == 1 && (catToMove || freeExits() >= 2)))
+					return 1.0;
+				int next = bestStep();
+				if (catToMove) {
+					cat = random.nextInt(100) < CAT_NOISE_PERCENT ? randomFreeNeighbor(next) : next;
+				} else {
+					int cell = random.nextInt(100) < PLAYER_FOCUS_PERCENT ? next : randomFreeNeighbor(next);
+					blocked[cell >>> 6] |= 1L << cell;
+				}
+				catToMove = !catToMove;
+			}
+			return 0.0;
+		}
+
+		/**
+		 * Vecino libre del gato más cercano a la salida, con desempate aleatorio.
+		 */
+		private int bestStep() {
+			int best = -1;
+			int bestDistance = INF;
+			int ties = 0;
+			int end = layout.neighborEnd(cat);
+			for (int k = layout.neighborStart(cat); k < end; k++) {
+				int neighbor = layout.neighborAt(k);
+				int distance = distEscape[neighbor];
+				if (distance < bestDistance) {
+					bestDistance = distance;
+					best = neighbor;
+					ties = 1;
+				} else if (distance == bestDistance && distance != INF && random.nextInt(++ties) == 0) {
+					best = neighbor;
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * Cantidad de celdas de escape libres vecinas al gato.
+		 */
+		private int freeExits() {
+			int count = 0;
+			int end = layout.neighborEnd(cat);
+			for (int k = layout.neighborStart(cat); k < end; k++) {
+				int neighbor = layout.neighborAt(k);
+				if (escape[neighbor] && !isBlocked(neighbor))
+					count++;
+			}
+			return count;
+		}
+
+		/**
+		 * Vecino libre del gato elegido al azar.
+		 */
+		private int randomFreeNeighbor(int fallback) {
+			int end = layout.neighborEnd(cat);
+			int start = layout.neighborStart(cat);
+			int chosen = fallback;
+			int seen = 0;
+			for (int k = start; k < end; k++) {
+				int neighbor = layout.neighborAt(k);
+				if (!isBlocked(neighbor) && random.nextInt(++seen) == 0)
+					chosen = neighbor;
+			}
+			return chosen;
+		}
+
+		/**
+		 * BFS multi-origen desde las celdas de escape libres.
+		 */
+		private void computeEscapeDistance() {
+			int cells = layout.getCellCount();
+			Arrays.fill(distEscape, 0, cells, INF);
+			int tail = 0;
+			for (int i = 0; i < cells; i++) {
+				if (escape[i] && !isBlocked(i)) {
+					distEscape[i] = 0;
+					queue[tail++] = i;
+				}
+			}
+			for (int head = 0; head < tail; head++) {
+				int current = queue[head];
+				int end = layout.neighborEnd(current);
+				for (int k = layout.neighborStart(current); k < end; k++) {
+					int neighbor = layout.neighborAt(k);
+					if (distEscape[neighbor] == INF && !isBlocked(neighbor)) {
+						distEscape[neighbor] = distEscape[current] + 1;
+						queue[tail++] = neighbor;
+					}
+				}
+			}
+		}
+
+		private boolean isBlocked(int index) {
+			return (blocked[index >>> 6] & (1L << index)) != 0;
+		}
+
+		private int newNode(int cell, int parentNode, boolean byCat) {
+			if (nodeCount == move.length)
+				grow();
+			int node = nodeCount++;
+			move[node] = cell;
+			parent[node] = parentNode;
+			firstChild[node] = 0;
+			childCount[node] = 0;
+			visits[node] = 0;
+			wins[node] = 0.0;
+			catMoved[node] = byCat;
+			return node;
+		}
+
+		private void grow() {
+			int capacity = move.length * 2;
+			move = Arrays.copyOf(move, capacity);
+			parent = Arrays.copyOf(parent, capacity);
+			firstChild = Arrays.copyOf(firstChild, capacity);
+			childCount = Arrays.copyOf(childCount, capacity);
+			visits = Arrays.copyOf(visits, capacity);
+			wins = Arrays.copyOf(wins, capacity);
+			catMoved = Arrays.copyOf(catMoved, capacity);
+		}
+	}
+}
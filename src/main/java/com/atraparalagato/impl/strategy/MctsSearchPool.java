@@ -0,0 +1,73 @@
+package com.atraparalagato.impl.strategy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hilos y configuración compartidos por las búsquedas MCTS.
+ *
+ * Cada movimiento del gato reparte su presupuesto de playouts entre los hilos
+ * del pool. También acumula cuántos playouts se hicieron y cuánto tiempo
+ * tomaron, para informar los playouts por segundo.
+ */
+public class MctsSearchPool {
+
+	private final ForkJoinPool pool;
+	private final int playoutsPerMove;
+	private final LongAdder playouts = new LongAdder();
+	private final LongAdder searchNanos = new LongAdder();
+	private final LongAdder searches = new LongAdder();
+
+	/**
+	 * @param threads         hilos de búsqueda; 0 o menos usa todos los núcleos
+	 * @param playoutsPerMove playouts por movimiento del gato, entre todos los
+	 *                        hilos
+	 */
+	public MctsSearchPool(int threads, int playoutsPerMove) {
+		int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		this.pool = new ForkJoinPool(parallelism);
+		this.playoutsPerMove = Math.max(1, playoutsPerMove);
+	}
+
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	public int getThreads() {
+		return pool.getParallelism();
+	}
+
+	public int getPlayoutsPerMove() {
+		return playoutsPerMove;
+	}
+
+	void record(long playoutCount, long nanos) {
+		playouts.add(playoutCount);
+		searchNanos.add(nanos);
+		searches.increment();
+	}
+
+	/**
+	 * Playouts por segundo de reloj, promediados sobre todas las búsquedas.
+	 */
+	public double getPlayoutsPerSecond() {
+		long nanos = searchNanos.sum();
+		return nanos == 0 ? 0.0 : playouts.sum() * 1_000_000_000.0 / nanos;
+	}
+
+	public Map<String, Object> getStatistics() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("threads", getThreads());
+		stats.put("playoutsPerMove", playoutsPerMove);
+		stats.put("searches", searches.sum());
+		stats.put("playouts", playouts.sum());
+		stats.put("playoutsPerSecond", getPlayoutsPerSecond());
+		return stats;
+	}
+
+	public void shutdown() {
+		pool.shutdown();
+	}
+}
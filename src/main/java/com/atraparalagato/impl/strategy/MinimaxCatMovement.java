@@ -0,0 +1,577 @@
+package com.atraparalagato.impl.strategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.atraparalagato.base.model.GameBoard;
+import com.atraparalagato.base.strategy.CatMovementStrategy;
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+/**
+ * Estrategia del gato que busca en el árbol del juego con minimax.
+ *
+ * A diferencia de BFS y A*, que solo miran el tablero actual, considera que el
+ * jugador responde a cada movimiento del gato bloqueando una celda. Usa:
+ * - Poda alfa-beta en formato negamax.
+ * - Profundización iterativa: busca a profundidad 1, 2, ... hasta agotar el
+ * presupuesto de tiempo por movimiento, y responde con el mejor movimiento de
+ * la última iteración completa.
+ * - Tabla de transposición indexada por el hash Zobrist de la posición.
+ * - Ordenamiento de movimientos: primero el de la tabla de transposición;
+ * luego, para el gato, las celdas más cercanas a la salida y, para el jugador,
+ * las celdas que están en los caminos más cortos del gato.
+ *
+ * La búsqueda trabaja sobre una copia primitiva del tablero (bitset de celdas
+ * bloqueadas e índice del gato) y hace y deshace los movimientos sobre ella,
+ * sin crear objetos por nodo. Las tablas se reutilizan por hilo.
+ *
+ * El gato escapa al llegar a una celda donde el jugador pierde, las de
+ * {@link HexGameBoard#isAtBorder(HexPosition)}. El jugador puede bloquear
+ * cualquier celda libre, también las de escape, y la búsqueda solo considera
+ * las cercanas a los caminos más cortos del gato: un gato junto a una única
+ * salida libre todavía puede ser detenido.
+ */
+public class MinimaxCatMovement extends CatMovementStrategy<HexPosition> {
+
+	public static final long DEFAULT_BUDGET_MILLIS = 3;
+
+	static final int WIN = 1_000_000;
+	private static final int MATE_BOUND = WIN - 1_000;
+	private static final int MAX_DEPTH = 48;
+	private static final int MAX_PLAYER_MOVES = 10;
+	private static final int INF = Integer.MAX_VALUE;
+	private static final long PLAYER_TO_MOVE = 0x2545F4914F6CDD1DL;
+
+	private static final byte EXACT = 0;
+	private static final byte LOWER = 1;
+	private static final byte UPPER = 2;
+
+	private static final ThreadLocal<SearchTables> TABLES = ThreadLocal.withInitial(SearchTables::new);
+
+	private final long budgetNanos;
+
+	private final List<HexPosition> possibleMoves = new ArrayList<>(6);
+	private final Consumer<HexPosition> addPossibleMove = possibleMoves::add;
+
+	/*
+	 * Estado de la búsqueda en curso.
+	 */
+	private HexBoardLayout layout;
+	private SearchTables tables;
+	private long[] blocked;
+	private int cat;
+	private long key;
+	private long deadline;
+	private boolean aborted;
+	private long nodes;
+	private int completedDepth;
+
+	public MinimaxCatMovement(GameBoard<HexPosition> board) {
+		this(board, DEFAULT_BUDGET_MILLIS);
+	}
+
+	/**
+	 * @param budgetMillis tiempo máximo de búsqueda por movimiento
+	 */
+	public MinimaxCatMovement(GameBoard<HexPosition> board, long budgetMillis) {
+		super(board);
+		this.budgetNanos = Math.max(1, budgetMillis) * 1_000_000L;
+	}
+
+	/**
+	 * Profundidad, en jugadas, de la última iteración completa de la última
+	 * búsqueda.
+	 */
+	public int getCompletedDepth() {
+		return completedDepth;
+	}
+
+	/**
+	 * Nodos visitados en la última búsqueda.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	@Override
+	protected List<HexPosition> getPossibleMoves(HexPosition currentPosition) {
+		possibleMoves.clear();
+		board.forEachAdjacentPosition(currentPosition, addPossibleMove);
+		return possibleMoves;
+	}
+
+	@Override
+	protected Optional<HexPosition> selectBestMove(List<HexPosition> possibleMoves, HexPosition currentPosition,
+			HexPosition targetPosition) {
+		if (!(board instanceof HexGameBoard hexBoard) || hexBoard.indexOf(currentPosition) < 0) {
+			Function<HexPosition, Double> heuristic = getHeuristicFunction(targetPosition);
+			return possibleMoves.stream().min((a, b) -> Double.compare(heuristic.apply(a), heuristic.apply(b)));
+		}
+		int move = search(hexBoard, hexBoard.indexOf(currentPosition));
+		return move < 0 ? Optional.empty() : Optional.of(layout.positionAt(move));
+	}
+
+	/**
+	 * Profundización iterativa desde la posición del gato. Retorna la celda
+	 * elegida o -1 si el gato no tiene movimientos.
+	 */
+	private int search(HexGameBoard hexBoard, int start) {
+		layout = hexBoard.getLayout();
+		tables = TABLES.get();
+		tables.prepare(layout);
+		blocked = tables.blocked;
+		hexBoard.copyBlockedBits(blocked);
+		cat = start;
+		key = hexBoard.getZobristKey() ^ layout.catKey(start);
+		nodes = 0;
+		aborted = false;
+		completedDepth = 0;
+		// El plazo propio no pasa del plazo de la búsqueda, si hay uno fijado
+		deadline = Math.min(System.nanoTime() + budgetNanos, SearchDeadline.deadline());
+
+		int[] rootMoves = tables.moves[0];
+		int rootCount = 0;
+		computeEscapeDistance();
+		int end = layout.neighborEnd(start);
+		for (int k = layout.neighborStart(start); k < end; k++) {
+			int neighbor = layout.neighborAt(k);
+			if (isBlocked(neighbor))
+				continue;
+			if (tables.escape[neighbor])
+				return neighbor;
+			rootMoves[rootCount] = neighbor;
+			tables.scores[0][rootCount] = tables.distEscape[neighbor];
+			rootCount++;
+		}
+		if (rootCount == 0)
+			return -1;
+		sortMoves(rootMoves, tables.scores[0], rootCount);
+
+		int best = rootMoves[0];
+		for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+			int alpha = -INF;
+			int iterationBest = -1;
+			for (int i = 0; i < rootCount; i++) {
+				int move = rootMoves[i];
+				int previous = cat;
+				moveCat(move);
+				int score = -negamax(depth - 1, 1, -INF, alpha == -INF ? INF : -alpha, false);
+				moveCat(previous);
+				if (aborted)
+					break;
+				if (score > alpha) {
+					alpha = score;
+					iterationBest = i;
+				}
+			}
+			if (aborted)
+				break;
+
+			completedDepth = depth;
+			best = rootMoves[iterationBest];
+			// El mejor movimiento se prueba primero en la siguiente iteración
+			System.arraycopy(rootMoves, 0, rootMoves, 1, iterationBest);
+			rootMoves[0] = best;
+			if (Math.abs(alpha) >= MATE_BOUND)
+				break;
+		}
+		return best;
+	}
+
+	/**
+	 * Negamax con poda alfa-beta. El puntaje es desde el punto de vista de quien
+	 * mueve: el gato si catToMove, el jugador si no.
+	 */
+	private int negamax(int depth, int ply, int alpha, int beta, boolean catToMove) {
+		if ((++nodes & 31) == 0 && System.nanoTime() > deadline) {
+			aborted = true;
+			return 0;
+		}
+
+		if (tables.escape[cat])
+			return catToMove ? WIN - ply : -(WIN - ply);
+		int distance = computeCatDistance();
+		if (distance == INF)
+			return catToMove ? -(WIN - ply) : WIN - ply;
+		if (depth == 0 || ply >= MAX_DEPTH) {
+			int eval = evaluate(distance);
+			return catToMove ? eval : -eval;
+		}
+
+		// Tabla de transposición
+		long nodeKey = catToMove ? key : key ^ PLAYER_TO_MOVE;
+		int slot = (int) (nodeKey ^ (nodeKey >>> 32)) & (SearchTables.TT_SIZE - 1);
+		int ttMove = -1;
+		if (tables.ttKeys[slot] == nodeKey) {
+			ttMove = tables.ttMoves[slot];
+			if (tables.ttDepths[slot] >= depth) {
+				int score = fromTable(tables.ttScores[slot], ply);
+				byte flag = tables.ttFlags[slot];
+				if (flag == EXACT || (flag == LOWER && score >= beta) || (flag == UPPER && score <= alpha))
+					return score;
+			}
+		}
+
+		int[] moves = tables.moves[ply];
+		int count = catToMove ? generateCatMoves(moves, tables.scores[ply], ttMove)
+				: generatePlayerMoves(moves, tables.scores[ply], distance, ttMove);
+		if (count == 0) {
+			int eval = evaluate(distance);
+			return catToMove ? eval : -eval;
+		}
+
+		int alphaOrig = alpha;
+		int bestScore = -INF;
+		int bestMove = moves[0];
+		for (int i = 0; i < count; i++) {
+			int move = moves[i];
+			int score;
+			if (catToMove) {
+				int previous = cat;
+				moveCat(move);
+				score = -negamax(depth - 1, ply + 1, -beta, -alpha, false);
+				moveCat(previous);
+			} else {
+				block(move);
+				score = -negamax(depth - 1, ply + 1, -beta, -alpha, true);
+				unblock(move);
+			}
+			if (aborted)
+				return 0;
+			if (score > bestScore) {
+				bestScore = score;
+				bestMove = move;
+			}
+			if (score > alpha)
+				alpha = score;
+			if (alpha >= beta)
+				break;
+		}
+
+		byte flag = bestScore <= alphaOrig ? UPPER : bestScore >= beta ? LOWER : EXACT;
+		tables.ttKeys[slot] = nodeKey;
+		tables.ttScores[slot] = toTable(bestScore, ply);
+		tables.ttMoves[slot] = bestMove;
+		tables.ttDepths[slot] = (byte) depth;
+		tables.ttFlags[slot] = flag;
+		return bestScore;
+	}
+
+	/**
+	 * Evaluación desde el punto de vista del gato: le conviene estar cerca de la
+	 * salida y tener muchos caminos más cortos distintos, que son más difíciles de
+	 * cortar con un solo bloqueo.
+	 */
+	private int evaluate(int distance) {
+		return -distance * 1024 + Math.min(tables.escapeWays, 1023);
+	}
+
+	/**
+	 * Movimientos del gato: celdas libres vecinas, primero la de la tabla de
+	 * transposición y luego las más cercanas al anillo de escape.
+	 */
+	private int generateCatMoves(int[] moves, int[] scores, int ttMove) {
+		int size = layout.getSize();
+		int count = 0;
+		int end = layout.neighborEnd(cat);
+		for (int k = layout.neighborStart(cat); k < end; k++) {
+			int neighbor = layout.neighborAt(k);
+			if (isBlocked(neighbor))
+				continue;
+			moves[count] = neighbor;
+			scores[count] = neighbor == ttMove ? -1 : size - tables.ring[neighbor];
+			count++;
+		}
+		sortMoves(moves, scores, count);
+		return count;
+	}
+
+	/**
+	 * Bloqueos candidatos del jugador: celdas libres distintas de la del gato,
+	 * incluidas las de escape, por las que pasa un camino del gato a la salida de
+	 * largo a lo sumo distance + 1. Se ordenan por el largo de ese camino y por
+	 * cercanía al gato, y se conservan las mejores.
+	 */
+	private int generatePlayerMoves(int[] moves, int[] scores, int distance, int ttMove) {
+		int[] distCat = tables.distCat;
+		int[] catMark = tables.catMark;
+		int mark = tables.mark;
+		computeEscapeDistance();
+		int[] distEscape = tables.distEscape;
+
+		int count = 0;
+		int cells = layout.getCellCount();
+		for (int x = 0; x < cells; x++) {
+			if (catMark[x] != mark || x == cat || isBlocked(x) || distEscape[x] == INF)
+				continue;
+			int through = distCat[x] + distEscape[x];
+			if (through > distance + 1)
+				continue;
+			int score = x == ttMove ? -1 : (through - distance) * 64 + distCat[x];
+			if (count < MAX_PLAYER_MOVES) {
+				moves[count] = x;
+				scores[count] = score;
+				count++;
+			} else {
+				int worst = 0;
+				for (int i = 1; i < count; i++)
+					if (scores[i] > scores[worst])
+						worst = i;
+				if (score < scores[worst]) {
+					moves[worst] = x;
+					scores[worst] = score;
+				}
+			}
+		}
+		sortMoves(moves, scores, count);
+		return count;
+	}
+
+	/**
+	 * BFS desde el gato hasta la primera capa que contiene celdas de escape. Deja
+	 * en distCat las distancias (válidas donde catMark coincide con mark) y en
+	 * escapeWays la cantidad de caminos más cortos, acotada. Retorna la distancia
+	 * a la salida, o INF si el gato está encerrado.
+	 */
+	private int computeCatDistance() {
+		int[] queue = tables.queue;
+		int[] distCat = tables.distCat;
+		int[] ways = tables.ways;
+		int[] catMark = tables.catMark;
+		int mark = tables.nextMark();
+
+		catMark[cat] = mark;
+		distCat[cat] = 0;
+		ways[cat] = 1;
+		queue[0] = cat;
+		int tail = 1;
+		int found = INF;
+		for (int head = 0; head < tail; head++) {
+			int current = queue[head];
+			int d = distCat[current];
+			if (d >= found)
+				break;
+			if (tables.escape[current]) {
+				// El gato no sigue más allá de una celda de escape
+				found = d;
+				continue;
+			}
+			int end = layout.neighborEnd(current);
+			for (int k = layout.neighborStart(current); k < end; k++) {
+				int neighbor = layout.neighborAt(k);
+				if (isBlocked(neighbor))
+					continue;
+				if (catMark[neighbor] != mark) {
+					catMark[neighbor] = mark;
+					distCat[neighbor] = d + 1;
+					ways[neighbor] = ways[current];
+					queue[tail++] = neighbor;
+				} else if (distCat[neighbor] == d + 1) {
+					ways[neighbor] = Math.min(ways[neighbor] + ways[current], 1 << 20);
+				}
+			}
+		}
+		tables.escapeWays = found == INF ? 0 : countEscapeWays(found, tail);
+		return found;
+	}
+
+	/**
+	 * Suma los caminos más cortos que llegan a las celdas de escape de la capa
+	 * found, entre las tail celdas que alcanzó el BFS.
+	 */
+	private int countEscapeWays(int found, int tail) {
+		int total = 0;
+		for (int i = 0; i < tail; i++) {
+			int cell = tables.queue[i];
+			if (tables.distCat[cell] == found && tables.escape[cell])
+				total = Math.min(total + tables.ways[cell], 1 << 20);
+		}
+		return total;
+	}
+
+	/**
+	 * BFS multi-origen desde las celdas de escape libres. Deja en distEscape la
+	 * distancia de cada celda a la salida, o INF.
+	 */
+	private void computeEscapeDistance() {
+		int[] queue = tables.escapeQueue;
+		int[] distEscape = tables.distEscape;
+		Arrays.fill(distEscape, 0, layout.getCellCount(), INF);
+		int tail = 0;
+		for (int i = 0; i < layout.getCellCount(); i++) {
+			if (tables.escape[i] && !isBlocked(i)) {
+				distEscape[i] = 0;
+				queue[tail++] = i;
+			}
+		}
+		for (int head = 0; head < tail; head++) {
+			int current = queue[head];
+			int end = layout.neighborEnd(current);
+			for (int k = layout.neighborStart(current); k < end; k++) {
+				int neighbor = layout.neighborAt(k);
+				if (distEscape[neighbor] == INF && !isBlocked(neighbor)) {
+					distEscape[neighbor] = distEscape[current] + 1;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+	}
+
+	private boolean isBlocked(int index) {
+		return (blocked[index >>> 6] & (1L << index)) != 0;
+	}
+
+	private void block(int index) {
+		blocked[index >>> 6] |= 1L << index;
+		key ^= layout.blockedKey(index);
+	}
+
+	private void unblock(int index) {
+		blocked[index >>> 6] &= ~(1L << index);
+		key ^= layout.blockedKey(index);
+	}
+
+	private void moveCat(int index) {
+		key ^= layout.catKey(cat) ^ layout.catKey(index);
+		cat = index;
+	}
+
+	/**
+	 * Ordena los movimientos por puntaje ascendente (inserción, son pocos).
+	 */
+	private static void sortMoves(int[] moves, int[] scores, int count) {
+		for (int i = 1; i < count; i++) {
+			int move = moves[i];
+			int score = scores[i];
+			int j = i - 1;
+			while (j >= 0 && scores[j] > score) {
+				moves[j + 1] = moves[j];
+				scores[j + 1] = scores[j];
+				j--;
+			}
+			moves[j + 1] = move;
+			scores[j + 1] = score;
+		}
+	}
+
+	/*
+	 * Los puntajes de victoria dependen de la jugada en que se alcanzan; en la
+	 * tabla se guardan relativos al nodo para poder reutilizarlos en otra jugada.
+	 */
+	private static int toTable(int score, int ply) {
+		if (score >= MATE_BOUND)
+			return score + ply;
+		if (score <= -MATE_BOUND)
+			return score - ply;
+		return score;
+	}
+
+	private static int fromTable(int score, int ply) {
+		if (score >= MATE_BOUND)
+			return score - ply;
+		if (score <= -MATE_BOUND)
+			return score + ply;
+		return score;
+	}
+
+	@Override
+	protected Function<HexPosition, Double> getHeuristicFunction(HexPosition targetPosition) {
+		return position -> position.distanceTo(targetPosition);
+	}
+
+	@Override
+	protected Predicate<HexPosition> getGoalPredicate() {
+		return HexBoardLayout.of(board.getSize())::isEscape;
+	}
+
+	@Override
+	protected double getMoveCost(HexPosition from, HexPosition to) {
+		return 1.0;
+	}
+
+	@Override
+	public boolean hasPathToGoal(HexPosition currentPosition) {
+		if (board instanceof HexGameBoard hexBoard)
+			return hexBoard.canReachBorder(currentPosition);
+		return !getFullPath(currentPosition, null).isEmpty();
+	}
+
+	@Override
+	public List<HexPosition> getFullPath(HexPosition currentPosition, HexPosition targetPosition) {
+		/*
+		 * El camino que el gato intentará seguir es el más corto hacia la salida; la
+		 * búsqueda adversaria solo decide el primer paso.
+		 */
+		return new BFSCatMovement(board).getFullPath(currentPosition, targetPosition);
+	}
+
+	/**
+	 * Tablas de búsqueda reutilizadas por hilo. La tabla de transposición tiene
+	 * tamaño fijo y se conserva entre búsquedas: sus claves incluyen el tamaño del
+	 * tablero, así que no se mezclan posiciones de tableros distintos.
+	 */
+	private static final class SearchTables {
+
+		static final int TT_SIZE = 1 << 16;
+
+		final long[] ttKeys = new long[TT_SIZE];
+		final int[] ttScores = new int[TT_SIZE];
+		final int[] ttMoves = new int[TT_SIZE];
+		final byte[] ttDepths = new byte[TT_SIZE];
+		final byte[] ttFlags = new byte[TT_SIZE];
+
+		final int[][] moves = new int[MAX_DEPTH + 1][Math.max(6, MAX_PLAYER_MOVES)];
+		final int[][] scores = new int[MAX_DEPTH + 1][Math.max(6, MAX_PLAYER_MOVES)];
+
+		HexBoardLayout layout;
+		long[] blocked;
+		boolean[] escape;
+		int[] ring;
+		int[] queue;
+		int[] escapeQueue;
+		int[] distCat;
+		int[] distEscape;
+		int[] ways;
+		int[] catMark;
+		int mark;
+		int escapeWays;
+
+		void prepare(HexBoardLayout layout) {
+			if (this.layout == layout)
+				return;
+			this.layout = layout;
+			int cells = layout.getCellCount();
+			blocked = new long[(cells + 63) >>> 6];
+			escape = new boolean[cells];
+			ring = new int[cells];
+			for (int i = 0; i < cells; i++) {
+				int q = layout.getQ(i);
+				int r = layout.getR(i);
+				ring[i] = Math.max(Math.abs(q), Math.max(Math.abs(r), Math.abs(q + r)));
+				escape[i] = layout.isEscape(i);
+			}
+			queue = new int[cells];
+			escapeQueue = new int[cells];
+			distCat = new int[cells];
+			distEscape = new int[cells];
+			ways = new int[cells];
+			catMark = new int[cells];
+			mark = 0;
+		}
+
+		int nextMark() {
+			if (++mark == 0) {
+				Arrays.fill(catMark, 0);
+				mark = 1;
+			}
+			return mark;
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package com.atraparalagato.impl.strategy;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.model.HexGameBoard;
+
+/**
+ * Libro de aperturas: respuestas del gato precalculadas para las primeras
+ * jugadas de cada partida.
+ *
+ * Todas las partidas empiezan con el tablero vacío y el gato en el centro, así
+ * que las primeras posiciones se repiten entre partidas. El libro las guarda
+ * ordenadas por clave (hash Zobrist del tablero y del gato, combinado con la
+ * dificultad) y las busca con búsqueda binaria.
+ *
+ * Formato del archivo: firma, versión y cantidad de entradas, seguidos de las
+ * claves (long, ordenadas) y de las respuestas (short, índice de la celda
+ * elegida) en el mismo orden. Lo genera {@link OpeningBookBuilder}.
+ */
+public final class OpeningBook {
+
+	private static final Logger LOG = Logger.getLogger(OpeningBook.class.getName());
+
+	static final int MAGIC = 0x48584F42;
+	static final int VERSION = 1;
+
+	private static final OpeningBook EMPTY = new OpeningBook(new long[0], new short[0]);
+
+	private final long[] keys;
+	private final short[] replies;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	private OpeningBook(long[] keys, short[] replies) {
+		this.keys = keys;
+		this.replies = replies;
+	}
+
+	/**
+	 * Libro sin entradas: todas las consultas fallan.
+	 */
+	public static OpeningBook empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * Lee el libro completo a memoria.
+	 */
+	public static OpeningBook load(Path file) throws IOException {
+		try (InputStream input = Files.newInputStream(file)) {
+			return read(input);
+		}
+	}
+
+	/**
+	 * Libro del archivo configurado; sin archivo, o si no se puede leer, un libro
+	 * vacío.
+	 */
+	public static OpeningBook loadOrEmpty(String file) {
+		if (file == null || file.isBlank())
+			return EMPTY;
+		try {
+			OpeningBook book = load(Path.of(file));
+			LOG.info("Libro de aperturas cargado: " + file + " (" + book.size() + " posiciones)");
+			return book;
+		} catch (IOException e) {
+			LOG.log(Level.WARNING, "No se pudo cargar el libro de aperturas " + file, e);
+			return EMPTY;
+		}
+	}
+
+	static OpeningBook read(InputStream input) throws IOException {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(input));
+		try {
+			if (data.readInt() != MAGIC || data.readInt() != VERSION)
+				throw new IOException("No es un libro de aperturas");
+			int count = data.readInt();
+			if (count < 0)
+				throw new IOException("Libro de aperturas inválido");
+			long[] keys = new long[count];
+			short[] replies = new short[count];
+			for (int i = 0; i < count; i++) {
+				keys[i] = data.readLong();
+				if (i > 0 && keys[i] <= keys[i - 1])
+					throw new IOException("Las claves del libro no están ordenadas");
+			}
+			for (int i = 0; i < count; i++) {
+				replies[i] = data.readShort();
+			}
+			return new OpeningBook(keys, replies);
+		} catch (EOFException e) {
+			throw new IOException("Libro de aperturas incompleto", e);
+		}
+	}
+
+	/**
+	 * Escribe las entradas, ya ordenadas por clave.
+	 */
+	static void write(OutputStream output, SortedMap<Long, Integer> entries) throws IOException {
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(output));
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(entries.size());
+		for (long key : entries.keySet()) {
+			data.writeLong(key);
+		}
+		for (int reply : entries.values()) {
+			data.writeShort(reply);
+		}
+		data.flush();
+	}
+
+	/**
+	 * Clave de la posición para la dificultad indicada.
+	 */
+	public static long positionKey(HexGameBoard board, int catIndex, String difficulty) {
+		HexBoardLayout layout = board.getLayout();
+		return board.getZobristKey() ^ layout.catKey(catIndex)
+				^ (difficulty == null ? 0L : difficulty.hashCode()) * 0x9E3779B97F4A7C15L;
+	}
+
+	/**
+	 * Respuesta del libro para la posición: índice de la celda a la que va el
+	 * gato, o -1 si la posición no está en el libro.
+	 */
+	public int lookup(HexGameBoard board, int catIndex, String difficulty) {
+		if (keys.length == 0 || catIndex < 0)
+			return -1;
+		int found = Arrays.binarySearch(keys, positionKey(board, catIndex, difficulty));
+		if (found < 0) {
+			misses.increment();
+			return -1;
+		}
+		hits.increment();
+		return replies[found];
+	}
+
+	public int size() {
+		return keys.length;
+	}
+
+	public Map<String, Object> getStatistics() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("entries", keys.length);
+		stats.put("hits", hits.sum());
+		stats.put("misses", misses.sum());
+		return stats;
+	}
+}
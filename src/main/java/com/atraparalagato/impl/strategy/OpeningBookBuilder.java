@@ -0,0 +1,154 @@
+package com.atraparalagato.impl.strategy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import com.atraparalagato.base.strategy.CatMovementStrategy;
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+/**
+ * Genera el {@link OpeningBook} recorriendo las aperturas desde el tablero
+ * vacío con el gato en el centro.
+ *
+ * En cada posición prueba los bloqueos del jugador cercanos al gato (a lo sumo
+ * a la distancia indicada, que es donde se juegan las aperturas), calcula la
+ * respuesta del gato con la estrategia de cada dificultad y sigue desde la
+ * posición resultante hasta la cantidad de bloqueos pedida. Las posiciones a
+ * las que se llega por distintos órdenes de bloqueo se calculan una sola vez.
+ *
+ * Uso: {@code java ... OpeningBookBuilder <archivo> [tamaños] [bloqueos] [radio]
+ * [presupuesto-ms]}, por ejemplo {@code libro.bin 5,7,11 3 2 50}.
+ */
+public final class OpeningBookBuilder {
+
+	private final int plies;
+	private final int radius;
+	private final Map<String, Function<HexGameBoard, CatMovementStrategy<HexPosition>>> strategies;
+
+	/**
+	 * @param plies      cantidad de bloqueos del jugador a cubrir
+	 * @param radius     distancia máxima al gato de los bloqueos considerados
+	 * @param strategies estrategia del gato por dificultad
+	 */
+	public OpeningBookBuilder(int plies, int radius,
+			Map<String, Function<HexGameBoard, CatMovementStrategy<HexPosition>>> strategies) {
+		this.plies = plies;
+		this.radius = radius;
+		this.strategies = strategies;
+	}
+
+	/**
+	 * Estrategias de cada dificultad como las usa el servicio; EXPERT busca con
+	 * el presupuesto indicado, mayor que el de una partida en vivo.
+	 */
+	public static Map<String, Function<HexGameBoard, CatMovementStrategy<HexPosition>>> defaultStrategies(
+			long expertBudgetMillis) {
+		Map<String, Function<HexGameBoard, CatMovementStrategy<HexPosition>>> strategies = new LinkedHashMap<>();
+		strategies.put("EASY", BFSCatMovement::new);
+		strategies.put("HARD", AStarCatMovement::new);
+		strategies.put("EXPERT", board -> new MinimaxCatMovement(board, expertBudgetMillis));
+		return strategies;
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.err.println("Uso: OpeningBookBuilder <archivo> [tamaños] [bloqueos] [radio] [presupuesto-ms]");
+			System.exit(1);
+		}
+		Path file = Path.of(args[0]);
+		String sizes = args.length > 1 ? args[1] : "5";
+		int plies = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+		int radius = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+		long budget = args.length > 4 ? Long.parseLong(args[4]) : 50;
+
+		OpeningBookBuilder builder = new OpeningBookBuilder(plies, radius, defaultStrategies(budget));
+		SortedMap<Long, Integer> entries = new TreeMap<>();
+		for (String size : sizes.split(",")) {
+			long start = System.nanoTime();
+			int before = entries.size();
+			builder.build(Integer.parseInt(size.trim()), entries);
+			System.out.printf("size %s: %d posiciones en %d ms%n", size.trim(), entries.size() - before,
+					(System.nanoTime() - start) / 1_000_000);
+		}
+		write(file, entries);
+		System.out.printf("Libro escrito en %s: %d posiciones, %d bytes%n", file, entries.size(), Files.size(file));
+	}
+
+	/**
+	 * Agrega al mapa las respuestas de todas las dificultades para las aperturas
+	 * del tamaño indicado.
+	 */
+	public void build(int size, SortedMap<Long, Integer> entries) {
+		if (HexBoardLayout.of(size).getCellCount() > Short.MAX_VALUE)
+			throw new IllegalArgumentException("Tablero demasiado grande para el libro: " + size);
+		for (Map.Entry<String, Function<HexGameBoard, CatMovementStrategy<HexPosition>>> strategy : strategies
+				.entrySet()) {
+			HexGameBoard board = new HexGameBoard(size);
+			expand(board, board.indexOf(HexPosition.of(0, 0)), 0, strategy.getKey(), strategy.getValue(), entries);
+		}
+	}
+
+	private void expand(HexGameBoard board, int cat, int depth, String difficulty,
+			Function<HexGameBoard, CatMovementStrategy<HexPosition>> factory, SortedMap<Long, Integer> entries) {
+		if (depth == plies)
+			return;
+		HexBoardLayout layout = board.getLayout();
+		HexPosition catPosition = layout.positionAt(cat);
+		for (int cell = 0; cell < layout.getCellCount(); cell++) {
+			HexPosition block = layout.positionAt(cell);
+			if (cell == cat || board.isBlocked(cell) || layout.isEscape(cell)
+					|| block.distanceTo(catPosition) > radius)
+				continue;
+
+			HexGameBoard next = new HexGameBoard(board.getSize());
+			next.setBloquedPositions(board.getBlockedPositions());
+			next.makeMove(block);
+			if (!next.canReachBorder(catPosition))
+				continue;
+			long key = OpeningBook.positionKey(next, cat, difficulty);
+			if (entries.containsKey(key))
+				continue;
+
+			Optional<HexPosition> reply = factory.apply(next).findBestMove(catPosition, targetOf(next, cat));
+			if (reply.isEmpty())
+				continue;
+			int replyIndex = layout.indexOf(reply.get());
+			entries.put(key, replyIndex);
+			if (!layout.isEscape(replyIndex))
+				expand(next, replyIndex, depth + 1, difficulty, factory, entries);
+		}
+	}
+
+	/**
+	 * Celda objetivo del gato, como la calcula el servicio: la salida más cercana.
+	 */
+	private static HexPosition targetOf(HexGameBoard board, int cat) {
+		int border = board.getBorderDistance().nearestBorder(cat);
+		return border >= 0 ? board.positionAt(border) : board.positionAt(cat);
+	}
+
+	/**
+	 * Escribe el libro en un archivo temporal que luego reemplaza al destino.
+	 */
+	public static void write(Path file, SortedMap<Long, Integer> entries) throws IOException {
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null)
+			Files.createDirectories(parent);
+		Path temporary = Files.createTempFile(parent, "opening-book", ".tmp");
+		try (OutputStream output = Files.newOutputStream(temporary)) {
+			OpeningBook.write(output, entries);
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
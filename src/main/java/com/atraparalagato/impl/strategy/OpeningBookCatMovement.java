@@ -0,0 +1,91 @@
+package com.atraparalagato.impl.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.atraparalagato.base.model.GameBoard;
+import com.atraparalagato.base.strategy.CatMovementStrategy;
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+/**
+ * Decorador que juega las primeras respuestas del gato desde el
+ * {@link OpeningBook}.
+ *
+ * Si la posición está en el libro devuelve la respuesta guardada sin buscar; si
+ * no, o si el tablero no es un HexGameBoard, le pide el movimiento a la
+ * estrategia decorada.
+ */
+public class OpeningBookCatMovement extends CatMovementStrategy<HexPosition> {
+
+	private final OpeningBook book;
+	private final String difficulty;
+	private final CatMovementStrategy<HexPosition> delegate;
+
+	private final List<HexPosition> possibleMoves = new ArrayList<>(6);
+	private final Consumer<HexPosition> addPossibleMove = possibleMoves::add;
+
+	/**
+	 * @param board      tablero sobre el que trabaja la estrategia decorada
+	 * @param book       libro de aperturas
+	 * @param difficulty dificultad con la que se generaron las respuestas
+	 * @param delegate   estrategia para las posiciones fuera del libro
+	 */
+	public OpeningBookCatMovement(GameBoard<HexPosition> board, OpeningBook book, String difficulty,
+			CatMovementStrategy<HexPosition> delegate) {
+		super(board);
+		this.book = book;
+		this.difficulty = difficulty;
+		this.delegate = delegate;
+	}
+
+	@Override
+	protected List<HexPosition> getPossibleMoves(HexPosition currentPosition) {
+		possibleMoves.clear();
+		board.forEachAdjacentPosition(currentPosition, addPossibleMove);
+		return possibleMoves;
+	}
+
+	@Override
+	protected Optional<HexPosition> selectBestMove(List<HexPosition> possibleMoves, HexPosition currentPosition,
+			HexPosition targetPosition) {
+		if (board instanceof HexGameBoard hexBoard && hexBoard.indexOf(currentPosition) >= 0) {
+			// Una respuesta que no es un movimiento legal del gato (libro de otro
+			// tablero o colisión de claves) se descarta y decide la estrategia
+			int reply = book.lookup(hexBoard, hexBoard.indexOf(currentPosition), difficulty);
+			if (reply >= 0 && reply < hexBoard.getCellCount() && possibleMoves.contains(hexBoard.positionAt(reply)))
+				return Optional.of(hexBoard.positionAt(reply));
+		}
+		return delegate.findBestMove(currentPosition, targetPosition);
+	}
+
+	@Override
+	protected Function<HexPosition, Double> getHeuristicFunction(HexPosition targetPosition) {
+		return position -> position.distanceTo(targetPosition);
+	}
+
+	@Override
+	protected Predicate<HexPosition> getGoalPredicate() {
+		return HexBoardLayout.of(board.getSize())::isEscape;
+	}
+
+	@Override
+	protected double getMoveCost(HexPosition from, HexPosition to) {
+		return 1.0;
+	}
+
+	@Override
+	public boolean hasPathToGoal(HexPosition currentPosition) {
+		return delegate.hasPathToGoal(currentPosition);
+	}
+
+	@Override
+	public List<HexPosition> getFullPath(HexPosition currentPosition, HexPosition targetPosition) {
+		return delegate.getFullPath(currentPosition, targetPosition);
+	}
+}
@@ -0,0 +1,70 @@
+package com.atraparalagato.impl.strategy;
+
+/**
+ * Plazo de la búsqueda en curso en el hilo actual.
+ *
+ * Lo fija {@link DeadlineCatMovement} antes de pedir un movimiento y lo
+ * consultan las estrategias en sus ciclos de búsqueda: cuando vence, cortan y
+ * devuelven lo mejor que encontraron hasta ese momento. Sin plazo fijado las
+ * búsquedas no se cortan.
+ */
+public final class SearchDeadline {
+
+	/**
+	 * Valor de {@link #deadline()} cuando no hay plazo.
+	 */
+	public static final long NONE = Long.MAX_VALUE;
+
+	private static final ThreadLocal<SearchDeadline> CURRENT = ThreadLocal.withInitial(SearchDeadline::new);
+
+	private long deadline = NONE;
+	private boolean expired;
+
+	private SearchDeadline() {
+	}
+
+	/**
+	 * Fija el plazo del hilo a budgetNanos desde ahora, sin extender uno más
+	 * cercano ya fijado. Retorna el plazo anterior, para {@link #end(long)}.
+	 */
+	public static long begin(long budgetNanos) {
+		SearchDeadline current = CURRENT.get();
+		long previous = current.deadline;
+		current.deadline = Math.min(previous, System.nanoTime() + budgetNanos);
+		current.expired = false;
+		return previous;
+	}
+
+	/**
+	 * Restaura el plazo anterior y retorna si el plazo terminado venció.
+	 */
+	public static boolean end(long previous) {
+		SearchDeadline current = CURRENT.get();
+		boolean wasExpired = current.expired || current.deadline != NONE && System.nanoTime() > current.deadline;
+		current.deadline = previous;
+		current.expired = false;
+		return wasExpired;
+	}
+
+	/**
+	 * Plazo del hilo en nanosegundos de {@link System#nanoTime()}, o
+	 * {@link #NONE}.
+	 */
+	public static long deadline() {
+		return CURRENT.get().deadline;
+	}
+
+	/**
+	 * Si el plazo del hilo ya venció. Las búsquedas la llaman cada cierta
+	 * cantidad de nodos, no en cada uno.
+	 */
+	public static boolean expired() {
+		SearchDeadline current = CURRENT.get();
+		if (current.expired)
+			return true;
+		if (current.deadline == NONE || System.nanoTime() <= current.deadline)
+			return false;
+		current.expired = true;
+		return true;
+	}
+}
@@ -0,0 +1,83 @@
+package com.atraparalagato.impl.strategy;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Plazo por movimiento del gato y registro de cuántas búsquedas lo alcanzan.
+ *
+ * Los tiempos se acumulan en un histograma por potencias de dos de
+ * microsegundos, suficiente para informar una cota del percentil 99 sin
+ * guardar cada medición.
+ */
+public class SearchDeadlineMonitor {
+
+	private static final int BUCKETS = 40;
+
+	private final long deadlineNanos;
+	private final LongAdder searches = new LongAdder();
+	private final LongAdder expired = new LongAdder();
+	private final LongAdder fallbacks = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+	private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+	/**
+	 * @param deadlineMillis plazo por movimiento; 0 o menos no corta las búsquedas
+	 */
+	public SearchDeadlineMonitor(long deadlineMillis) {
+		this.deadlineNanos = deadlineMillis > 0 ? deadlineMillis * 1_000_000L : 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			histogram[i] = new LongAdder();
+		}
+	}
+
+	public boolean isEnabled() {
+		return deadlineNanos > 0;
+	}
+
+	public long getDeadlineNanos() {
+		return deadlineNanos;
+	}
+
+	void record(long nanos, boolean deadlineExpired, boolean fallback) {
+		searches.increment();
+		if (deadlineExpired)
+			expired.increment();
+		if (fallback)
+			fallbacks.increment();
+		maxNanos.accumulate(nanos);
+		long micros = Math.max(1, nanos / 1_000);
+		histogram[Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros))].increment();
+	}
+
+	/**
+	 * Cota superior, en milisegundos, del tiempo bajo el que quedó la fracción
+	 * indicada de las búsquedas.
+	 */
+	public double getPercentileMillis(double fraction) {
+		long total = searches.sum();
+		if (total == 0)
+			return 0.0;
+		long wanted = (long) Math.ceil(total * fraction);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += histogram[i].sum();
+			if (seen >= wanted)
+				return Math.min((2L << i) / 1_000.0, maxNanos.get() / 1_000_000.0);
+		}
+		return maxNanos.get() / 1_000_000.0;
+	}
+
+	public Map<String, Object> getStatistics() {
+		Map<String, Object> stats = new LinkedHashMap<>();
+		stats.put("deadlineMs", deadlineNanos / 1_000_000.0);
+		stats.put("searches", searches.sum());
+		stats.put("expired", expired.sum());
+		stats.put("fallbacks", fallbacks.sum());
+		stats.put("p99Ms", getPercentileMillis(0.99));
+		stats.put("maxMs", maxNanos.get() / 1_000_000.0);
+		return stats;
+	}
+}
@@ -0,0 +1,82 @@
+package com.atraparalagato.impl.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.atraparalagato.base.model.GameBoard;
+import com.atraparalagato.base.strategy.CatMovementStrategy;
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+/**
+ * Estrategia del gato con juego perfecto en tableros pequeños: consulta la
+ * {@link HexTablebase} en lugar de buscar.
+ *
+ * Si la tabla no cubre el tablero o la posición (el gato está fuera de las
+ * celdas interiores o el jugador bloqueó una salida), o el gato ya no puede
+ * ganar contra un jugador perfecto, decide la estrategia de respaldo, que
+ * intentará aprovechar los errores del jugador.
+ */
+public class TablebaseCatMovement extends CatMovementStrategy<HexPosition> {
+
+	private final HexTablebase tablebase;
+	private final CatMovementStrategy<HexPosition> fallback;
+
+	private final List<HexPosition> possibleMoves = new ArrayList<>(6);
+	private final Consumer<HexPosition> addPossibleMove = possibleMoves::add;
+
+	public TablebaseCatMovement(GameBoard<HexPosition> board, HexTablebase tablebase,
+			CatMovementStrategy<HexPosition> fallback) {
+		super(board);
+		this.tablebase = tablebase;
+		this.fallback = fallback;
+	}
+
+	@Override
+	protected List<HexPosition> getPossibleMoves(HexPosition currentPosition) {
+		possibleMoves.clear();
+		board.forEachAdjacentPosition(currentPosition, addPossibleMove);
+		return possibleMoves;
+	}
+
+	@Override
+	protected Optional<HexPosition> selectBestMove(List<HexPosition> possibleMoves, HexPosition currentPosition,
+			HexPosition targetPosition) {
+		if (board instanceof HexGameBoard hexBoard && tablebase.covers(hexBoard)) {
+			int move = tablebase.bestCatMove(hexBoard, hexBoard.indexOf(currentPosition));
+			if (move >= 0)
+				return Optional.of(hexBoard.positionAt(move));
+		}
+		return fallback.findBestMove(currentPosition, targetPosition);
+	}
+
+	@Override
+	protected Function<HexPosition, Double> getHeuristicFunction(HexPosition targetPosition) {
+		return position -> position.distanceTo(targetPosition);
+	}
+
+	@Override
+	protected Predicate<HexPosition> getGoalPredicate() {
+		return HexBoardLayout.of(board.getSize())::isEscape;
+	}
+
+	@Override
+	protected double getMoveCost(HexPosition from, HexPosition to) {
+		return 1.0;
+	}
+
+	@Override
+	public boolean hasPathToGoal(HexPosition currentPosition) {
+		return fallback.hasPathToGoal(currentPosition);
+	}
+
+	@Override
+	public List<HexPosition> getFullPath(HexPosition currentPosition, HexPosition targetPosition) {
+		return fallback.getFullPath(currentPosition, targetPosition);
+	}
+}
@@ -0,0 +1,150 @@
+package com.atraparalagato.controller;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Carga concurrente sobre /api/game/block, /api/game/block-async y
+ * /api/game/state/{gameId} para comparar el servidor con hilos de plataforma y
+ * con hilos virtuales, y el movimiento síncrono con el asíncrono.
+ *
+ * No es un test: necesita el servidor levantado y se ejecuta a mano con
+ * java -cp target/classes:target/test-classes com.atraparalagato.controller.GameApiBenchmark [url] [concurrencia] [pedidos] [juegos]
+ *
+ * Para comparar, se corre una vez con el servidor iniciado con
+ * spring.threads.virtual.enabled=false y otra con true (JDK 21 o superior),
+ * con los mismos argumentos. Se crean los juegos y luego se lanzan los pedidos
+ * de cada endpoint manteniendo "concurrencia" pedidos en vuelo; se informa el
+ * throughput, los percentiles 50 y 99 de latencia y los errores. Del lado del
+ * cliente se usan hilos virtuales si la JVM los tiene, para que el cliente no
+ * sea el cuello de botella.
+ */
+public class GameApiBenchmark {
+
+    private static final Pattern GAME_ID = Pattern.compile("\"gameId\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        String url = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 20000;
+        int games = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        List<String> gameIds = new ArrayList<>(games);
+        for (int g = 0; g < games; g++) {
+            String body = send(client, HttpRequest.newBuilder(URI.create(url + "/api/game/start?boardSize=25")).GET()
+                    .build()).body();
+            Matcher matcher = GAME_ID.matcher(body);
+            if (!matcher.find())
+                throw new IllegalStateException("Respuesta sin gameId: " + body);
+            gameIds.add(matcher.group(1));
+        }
+
+        ExecutorService probe = virtualExecutor();
+        if (probe != null)
+            probe.shutdown();
+        System.out.printf("%s, %d pedidos en vuelo, %d pedidos, %d juegos, cliente con %s%n", url, concurrency,
+                requests, games, probe != null ? "hilos virtuales" : "hilos de plataforma");
+        // Calentamiento
+        run(client, url, gameIds, Math.min(concurrency, 50), Math.min(requests, 2000), null);
+        run(client, url, gameIds, Math.min(concurrency, 50), Math.min(requests, 2000), "/api/game/block");
+
+        report("POST /api/game/block      ", run(client, url, gameIds, concurrency, requests, "/api/game/block"));
+        report("POST /api/game/block-async", run(client, url, gameIds, concurrency, requests, "/api/game/block-async"));
+        report("GET  /api/game/state/{id} ", run(client, url, gameIds, concurrency, requests, null));
+        System.out.println("Métricas del servidor: "
+                + send(client, HttpRequest.newBuilder(URI.create(url + "/api/game/metrics")).GET().build()).body());
+    }
+
+    /**
+     * Lanza los pedidos manteniendo a lo sumo concurrency en vuelo. Retorna las
+     * latencias en nanosegundos, seguidas del tiempo total y los errores. Sin
+     * blockPath se consulta el estado.
+     */
+    private static long[] run(HttpClient client, String url, List<String> gameIds, int concurrency, int requests,
+            String blockPath) throws InterruptedException {
+        ExecutorService executor = virtualExecutor();
+        if (executor == null)
+            executor = Executors.newFixedThreadPool(concurrency);
+        Semaphore inFlight = new Semaphore(concurrency);
+        long[] latencies = new long[requests + 2];
+        AtomicInteger errors = new AtomicInteger();
+        Random random = new Random(42);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            String gameId = gameIds.get(random.nextInt(gameIds.size()));
+            HttpRequest request = blockPath != null
+                    ? HttpRequest.newBuilder(URI.create(url + blockPath + "?gameId=" + gameId + "&q="
+                            + (random.nextInt(9) - 4) + "&r=" + (random.nextInt(9) - 4)))
+                            .POST(HttpRequest.BodyPublishers.noBody()).build()
+                    : HttpRequest.newBuilder(URI.create(url + "/api/game/state/" + gameId)).GET().build();
+            int slot = i;
+            inFlight.acquire();
+            executor.execute(() -> {
+                long begin = System.nanoTime();
+                try {
+                    if (send(client, request).statusCode() >= 500)
+                        errors.incrementAndGet();
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                } finally {
+                    latencies[slot] = System.nanoTime() - begin;
+                    inFlight.release();
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.MINUTES);
+        latencies[requests] = System.nanoTime() - start;
+        latencies[requests + 1] = errors.get();
+        return latencies;
+    }
+
+    private static void report(String label, long[] result) {
+        int requests = result.length - 2;
+        long elapsed = result[requests];
+        long[] latencies = Arrays.copyOf(result, requests);
+        Arrays.sort(latencies);
+        System.out.printf("  %s: %8.0f pedidos/s, p50 %7.2f ms, p99 %8.2f ms, %d errores%n", label,
+                requests * 1e9 / elapsed, latencies[requests / 2] / 1e6,
+                latencies[Math.min(requests - 1, (int) (requests * 0.99))] / 1e6, result[requests + 1]);
+    }
+
+    private static HttpResponse<String> send(HttpClient client, HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Executor con un hilo virtual por tarea si la JVM los tiene (JDK 21 o
+     * superior); el proyecto compila con JDK 17, por eso se busca por reflexión.
+     */
+    private static ExecutorService virtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.atraparalagato.impl.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+/**
+ * Tests del grafo abstracto por grupos de celdas.
+ *
+ * Conceptos de testing:
+ * - Pasos válidos y llegada a la salida siguiendo el grafo
+ * - Actualización incremental equivalente a reconstruir
+ * - Comparación con el camino mínimo
+ */
+class HexClusterGraphTest {
+
+    @Test
+    void testFollowingStepsReachesEscape() {
+        // Test: Desde cualquier celda que puede escapar, seguir los pasos lleva a una salida
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            HexGameBoard board = randomBoard(20, 0.25, random);
+            HexBoardLayout layout = board.getLayout();
+            HexClusterGraph graph = new HexClusterGraph(layout, cells(board), 4);
+            int start = randomFreeCell(board, random);
+
+            int current = start;
+            int steps = 0;
+            while (!layout.isEscape(current) && steps <= layout.getCellCount()) {
+                int next = graph.nextStep(current, -1);
+                if (next < 0)
+                    break;
+                assertTrue(layout.positionAt(current).isAdjacentTo(layout.positionAt(next)));
+                assertFalse(board.isBlocked(next));
+                current = next;
+                steps++;
+            }
+            assertEquals(board.canReachBorder(layout.positionAt(start)), layout.isEscape(current));
+        }
+    }
+
+    @Test
+    void testReachesTarget() {
+        // Test: Con objetivo, los pasos llegan a él en no mucho más que la distancia mínima
+        HexGameBoard board = new HexGameBoard(30);
+        HexBoardLayout layout = board.getLayout();
+        for (int r = -20; r <= 20; r++) {
+            board.makeMove(new HexPosition(5, r));
+        }
+        HexClusterGraph graph = board.getClusterGraph();
+        int start = layout.indexOf(0, 0);
+        int goal = layout.indexOf(12, 0);
+
+        int current = start;
+        int steps = 0;
+        while (current != goal && steps <= layout.getCellCount()) {
+            current = graph.nextStep(current, goal);
+            assertTrue(current >= 0);
+            steps++;
+        }
+        int optimal = new com.atraparalagato.impl.strategy.AStarCatMovement(board)
+                .getFullPath(layout.positionAt(start), layout.positionAt(goal)).size() - 1;
+        assertTrue(steps >= optimal);
+        assertTrue(steps <= optimal + 2 * HexClusterGraph.DEFAULT_CLUSTER_SIZE,
+                "Pasos " + steps + ", óptimo " + optimal);
+    }
+
+    @Test
+    void testIncrementalMatchesRebuild() {
+        // Test: Bloquear celdas una a una deja el mismo grafo que construirlo de cero
+        Random random = new Random(11);
+        HexGameBoard board = new HexGameBoard(24);
+        HexClusterGraph graph = board.getClusterGraph();
+        for (int move = 0; move < 300; move++) {
+            board.makeMove(board.positionAt(random.nextInt(board.getCellCount())));
+            if (move % 30 != 29)
+                continue;
+            HexClusterGraph fresh = new HexClusterGraph(board.getLayout(), cells(board));
+            assertEquals(fresh.getNodeCount(), graph.getNodeCount());
+            for (int probe = 0; probe < 20; probe++) {
+                int start = randomFreeCell(board, random);
+                assertEquals(fresh.nextStep(start, -1), graph.nextStep(start, -1));
+            }
+        }
+    }
+
+    private static HexGameBoard randomBoard(int size, double density, Random random) {
+        HexGameBoard board = new HexGameBoard(size);
+        for (int i = 0; i < board.getCellCount(); i++) {
+            HexPosition position = board.positionAt(i);
+            if (!position.equals(new HexPosition(0, 0)) && random.nextDouble() < density)
+                board.makeMove(position);
+        }
+        return board;
+    }
+
+    private static int randomFreeCell(HexGameBoard board, Random random) {
+        int cell;
+        do {
+            cell = random.nextInt(board.getCellCount());
+        } while (board.isBlocked(cell));
+        return cell;
+    }
+
+    private static HexCellSet cells(HexGameBoard board) {
+        HexCellSet copy = new HexCellSet(board.getLayout());
+        copy.addAll(board.getBlockedPositions());
+        return copy;
+    }
+}
@@ -0,0 +1,87 @@
+package com.atraparalagato.impl.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+/**
+ * Tests de las regiones de celdas libres.
+ *
+ * Conceptos de testing:
+ * - División de una región al cerrar un anillo
+ * - Arcos separados que siguen conectados alrededor del bloqueo
+ * - Actualización incremental igual a la reconstrucción completa
+ */
+class HexConnectivityIndexTest {
+
+    @Test
+    void testClosingRingSplitsRegion() {
+        // Test: Al cerrar el anillo alrededor del centro, el centro queda como región propia sin salidas
+        HexBoardLayout layout = HexBoardLayout.of(5);
+        HexCellSet blocked = new HexCellSet(layout);
+        HexConnectivityIndex index = new HexConnectivityIndex(layout, blocked);
+        int[][] ring = { { 1, 0 }, { 1, -1 }, { 0, -1 }, { -1, 0 }, { -1, 1 }, { 0, 1 } };
+        for (int[] cell : ring) {
+            int i = layout.indexOf(cell[0], cell[1]);
+            blocked.addIndex(i);
+            index.onBlocked(i);
+        }
+
+        int center = layout.indexOf(0, 0);
+        int outside = layout.indexOf(3, 0);
+        assertEquals(1, index.regionSize(center));
+        assertFalse(index.canReachBorder(center));
+        assertFalse(index.connected(center, outside));
+        assertEquals(layout.getCellCount() - 7, index.regionSize(outside));
+        assertTrue(index.canReachBorder(outside));
+    }
+
+    @Test
+    void testArcsConnectedAroundBlockKeepRegion() {
+        // Test: Un bloqueo con vecinas libres en dos arcos no divide la región si los arcos se unen por afuera
+        HexBoardLayout layout = HexBoardLayout.of(5);
+        HexCellSet blocked = new HexCellSet(layout);
+        HexConnectivityIndex index = new HexConnectivityIndex(layout, blocked);
+        int first = layout.indexOf(1, 0);
+        int second = layout.indexOf(-1, 0);
+        blocked.addIndex(first);
+        index.onBlocked(first);
+        blocked.addIndex(second);
+        index.onBlocked(second);
+
+        // Las vecinas libres de (0, 0) forman dos arcos, arriba y abajo
+        int center = layout.indexOf(0, 0);
+        blocked.addIndex(center);
+        index.onBlocked(center);
+
+        assertTrue(index.connected(layout.indexOf(0, -1), layout.indexOf(0, 1)));
+        assertEquals(layout.getCellCount() - 3, index.regionSize(layout.indexOf(0, 1)));
+    }
+
+    @Test
+    void testIncrementalMatchesRebuild() {
+        // Test: Después de cada bloqueo al azar las regiones coinciden con un índice construido de cero
+        Random random = new Random(3);
+        for (int trial = 0; trial < 200; trial++) {
+            HexBoardLayout layout = HexBoardLayout.of(2 + random.nextInt(5));
+            HexCellSet blocked = new HexCellSet(layout);
+            HexConnectivityIndex index = new HexConnectivityIndex(layout, blocked);
+            int cells = layout.getCellCount();
+            for (int step = 0; step < cells / 2; step++) {
+                int cell = random.nextInt(cells);
+                if (!blocked.addIndex(cell))
+                    continue;
+                index.onBlocked(cell);
+
+                HexConnectivityIndex fresh = new HexConnectivityIndex(layout, blocked);
+                for (int i = 0; i < cells; i++) {
+                    assertEquals(fresh.regionSize(i), index.regionSize(i));
+                    assertEquals(fresh.canReachBorder(i), index.canReachBorder(i));
+                    int other = random.nextInt(cells);
+                    assertEquals(fresh.connected(i, other), index.connected(i, other));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.atraparalagato.impl.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del corte mínimo de vértices entre el gato y la salida.
+ *
+ * Conceptos de testing:
+ * - Tamaño del corte en posiciones conocidas
+ * - El corte encontrado separa al gato de la salida
+ * - Actualización incremental al bloquear celdas y mover al gato
+ * - Celdas de escape dentro del corte
+ */
+class HexEscapeCutTest {
+
+    private HexGameBoard board;
+    private HexBoardLayout layout;
+
+    @BeforeEach
+    void setUp() {
+        board = new HexGameBoard(5);
+        layout = board.getLayout();
+    }
+
+    @Test
+    void testOpenBoardCutIsCatDegree() {
+        // Test: En un tablero vacío hay que bloquear las seis vecinas del gato
+        HexEscapeCut cut = board.getEscapeCut();
+        cut.setCat(layout.indexOf(0, 0));
+
+        assertEquals(6, cut.cutSize());
+        int[] cells = new int[6];
+        assertEquals(6, cut.minCut(cells));
+        for (int cell : cells) {
+            assertEquals(1, layout.positionAt(cell).distanceTo(new HexPosition(0, 0)));
+        }
+    }
+
+    @Test
+    void testUnboundedOnlyOnEscape() {
+        // Test: Solo un gato que ya está en una celda de escape no se puede encerrar
+        HexEscapeCut cut = board.getEscapeCut();
+        cut.setCat(layout.indexOf(4, 0));
+
+        assertEquals(HexEscapeCut.UNBOUNDED, cut.cutSize());
+        assertEquals(0, cut.rankBlocks(3, new int[3], new int[3]));
+    }
+
+    @Test
+    void testEscapeCellsCanBeCut() {
+        // Test: Junto a la salida el corte incluye celdas de escape, que el jugador puede bloquear
+        HexEscapeCut cut = board.getEscapeCut();
+        cut.setCat(layout.indexOf(3, 0));
+        assertEquals(6, cut.cutSize());
+
+        // Bolsillo con una sola salida libre: el corte es esa celda de escape
+        for (HexPosition pos : new HexPosition[] { new HexPosition(4, 0), new HexPosition(3, 1),
+                new HexPosition(3, -1), new HexPosition(2, 0), new HexPosition(2, 1) }) {
+            board.makeMove(pos);
+        }
+        assertEquals(1, cut.cutSize());
+        int[] cells = new int[1];
+        int[] cuts = new int[1];
+        assertEquals(1, cut.rankBlocks(1, cells, cuts));
+        assertEquals(new HexPosition(4, -1), layout.positionAt(cells[0]));
+        assertEquals(0, cuts[0]);
+
+        board.makeMove(new HexPosition(4, -1));
+        assertEquals(0, cut.cutSize());
+    }
+
+    @Test
+    void testBlockingUpdatesCut() {
+        // Test: Cada bloqueo de una vecina reduce el corte en uno hasta encerrar al gato
+        HexPosition cat = new HexPosition(0, 0);
+        HexEscapeCut cut = board.getEscapeCut();
+        cut.setCat(layout.indexOf(cat));
+
+        int expected = 6;
+        for (HexPosition neighbor : board.getAdjacentPositions(cat)) {
+            assertEquals(expected, cut.cutSize());
+            board.makeMove(neighbor);
+            expected--;
+        }
+        assertEquals(0, cut.cutSize());
+    }
+
+    @Test
+    void testRankedBlockShrinksCut() {
+        // Test: Un muro con un hueco deja un corte de uno, y la sugerencia es el hueco
+        HexPosition cat = new HexPosition(0, 0);
+        for (HexPosition pos : board.getPositionsWhere(p -> p.distanceTo(cat) == 2)) {
+            if (!pos.equals(new HexPosition(2, 0)))
+                board.makeMove(pos);
+        }
+        HexEscapeCut cut = board.getEscapeCut();
+        cut.setCat(layout.indexOf(cat));
+        assertEquals(1, cut.cutSize());
+
+        int[] cells = new int[2];
+        int[] cuts = new int[2];
+        assertTrue(cut.rankBlocks(2, cells, cuts) >= 1);
+        assertEquals(0, cuts[0]);
+        board.makeMove(layout.positionAt(cells[0]));
+        assertEquals(0, cut.cutSize());
+        assertFalse(board.canReachBorder(cat));
+    }
+
+    @Test
+    void testFlowIsReusedWhenCatMoves() {
+        // Test: Tras mover al gato el corte coincide con uno calculado desde cero
+        HexEscapeCut cut = board.getEscapeCut();
+        cut.setCat(layout.indexOf(0, 0));
+        board.makeMove(new HexPosition(1, 0));
+        board.makeMove(new HexPosition(-1, 2));
+        assertEquals(cut.cutSize(), cut.cutSize());
+
+        int[] path = { layout.indexOf(0, 1), layout.indexOf(-1, 1), layout.indexOf(-1, 0) };
+        for (int cat : path) {
+            cut.setCat(cat);
+            HexEscapeCut fresh = new HexEscapeCut(layout, blockedCopy());
+            fresh.setCat(cat);
+            assertEquals(fresh.cutSize(), cut.cutSize());
+        }
+    }
+
+    private HexCellSet blockedCopy() {
+        HexCellSet blocked = new HexCellSet(layout);
+        blocked.addAll(board.getBlockedPositions());
+        return blocked;
+    }
+}
@@ -0,0 +1,253 @@
+package com.atraparalagato.impl.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+
+/**
+ * Tests del tablero hexagonal respaldado por bitset.
+ *
+ * Conceptos de testing:
+ * - Correspondencia entre coordenadas axiales e índices densos
+ * - Consistencia entre las consultas por posición y por índice
+ * - Restauración del conjunto de celdas bloqueadas
+ */
+class HexGameBoardTest {
+
+    private HexGameBoard board;
+
+    @BeforeEach
+    void setUp() {
+        board = new HexGameBoard(5);
+    }
+
+    @Test
+    void testLayoutIndexesEveryCellOnce() {
+        // Test: Cada celda del tablero tiene un índice único y reversible
+        HexBoardLayout layout = board.getLayout();
+
+        assertEquals(3 * 5 * 6 + 1, layout.getCellCount());
+        for (int i = 0; i < layout.getCellCount(); i++) {
+            HexPosition pos = layout.positionAt(i);
+            assertTrue(pos.isWithinBounds(5));
+            assertEquals(i, layout.indexOf(pos));
+        }
+    }
+
+    @Test
+    void testOutOfBoundsHasNoIndex() {
+        // Test: Las posiciones fuera del tablero no tienen índice
+        assertEquals(-1, board.indexOf(new HexPosition(6, 0)));
+        assertEquals(-1, board.indexOf(new HexPosition(3, 3)));
+        assertFalse(board.isBlocked(new HexPosition(6, 0)));
+    }
+
+    @Test
+    void testLayoutIsSharedBySize() {
+        // Test: Los tableros del mismo tamaño comparten la geometría
+        assertSame(board.getLayout(), new HexGameBoard(5).getLayout());
+        assertNotSame(board.getLayout(), new HexGameBoard(6).getLayout());
+    }
+
+    @Test
+    void testNeighborTable() {
+        // Test: La tabla de vecinos solo contiene celdas adyacentes y respeta el borde
+        HexBoardLayout layout = board.getLayout();
+        int center = layout.indexOf(0, 0);
+        int corner = layout.indexOf(5, 0);
+
+        assertEquals(6, layout.neighborEnd(center) - layout.neighborStart(center));
+        assertEquals(3, layout.neighborEnd(corner) - layout.neighborStart(corner));
+        for (int i = 0; i < layout.getCellCount(); i++) {
+            for (int k = layout.neighborStart(i); k < layout.neighborEnd(i); k++) {
+                int neighbor = layout.neighborAt(k);
+                assertTrue(layout.positionAt(i).isAdjacentTo(layout.positionAt(neighbor)));
+            }
+        }
+    }
+
+    @Test
+    void testMakeMoveBlocksCell() {
+        // Test: Un movimiento bloquea la celda y no puede repetirse
+        HexPosition pos = new HexPosition(2, -1);
+
+        assertTrue(board.makeMove(pos));
+        assertTrue(board.isBlocked(pos));
+        assertTrue(board.isBlocked(board.indexOf(pos)));
+        assertFalse(board.makeMove(pos));
+        assertEquals(1, board.getBlockedCount());
+        assertEquals(Set.of(pos), board.getBlockedPositions());
+    }
+
+    @Test
+    void testAdjacentPositionsSkipBlocked() {
+        // Test: Las posiciones adyacentes excluyen las bloqueadas
+        HexPosition origin = new HexPosition(0, 0);
+        assertEquals(6, board.getAdjacentPositions(origin).size());
+
+        board.makeMove(new HexPosition(1, 0));
+
+        assertEquals(5, board.getAdjacentPositions(origin).size());
+        assertFalse(board.getAdjacentPositions(origin).contains(new HexPosition(1, 0)));
+    }
+
+    @Test
+    void testBorderDistanceFollowsMoves() {
+        // Test: El campo de distancias incremental coincide con recalcularlo desde cero
+        HexBoardLayout layout = board.getLayout();
+        HexDistanceField field = board.getBorderDistance();
+        int center = layout.indexOf(0, 0);
+        // Todo el anillo 4 es salida
+        assertEquals(4, field.distanceAt(center));
+
+        board.makeMove(new HexPosition(1, 0));
+        board.makeMove(new HexPosition(2, -1));
+        board.makeMove(new HexPosition(0, 3));
+
+        HexCellSet blocked = new HexCellSet(layout);
+        blocked.addAll(board.getBlockedPositions());
+        HexDistanceField expected = new HexDistanceField(layout, blocked);
+        for (int i = 0; i < layout.getCellCount(); i++) {
+            assertEquals(expected.distanceAt(i), field.distanceAt(i));
+        }
+        assertEquals(HexDistanceField.UNREACHABLE, field.distanceAt(layout.indexOf(1, 0)));
+    }
+
+    @Test
+    void testCanReachBorderUntilEnclosed() {
+        // Test: El gato deja de poder escapar cuando un anillo completo lo encierra
+        HexPosition cat = new HexPosition(0, 0);
+        assertTrue(board.canReachBorder(cat));
+
+        for (HexPosition pos : board.getPositionsWhere(p -> p.distanceTo(cat) == 2)) {
+            board.makeMove(pos);
+        }
+
+        assertFalse(board.canReachBorder(cat));
+        assertFalse(board.canReachBorder(new HexPosition(1, 0)));
+        assertTrue(board.canReachBorder(new HexPosition(4, 0)));
+        assertFalse(board.canReachBorder(new HexPosition(9, 0)));
+        assertEquals(7, board.getRegionSize(cat));
+        assertEquals(0, board.getRegionSize(new HexPosition(2, 0)));
+        // Al restaurar las posiciones bloqueadas las regiones se recalculan
+        board.setBloquedPositions(Set.of(new HexPosition(2, 0)));
+        assertTrue(board.canReachBorder(cat));
+        assertEquals(board.getLayout().getCellCount() - 1, board.getRegionSize(cat));
+    }
+
+    @Test
+    void testPocketWithEscapeCellIsNotTrapped() {
+        // Test: Un bolsillo que contiene una salida no encierra al gato aunque el anillo exterior esté bloqueado
+        HexBoardLayout layout = board.getLayout();
+        HexPosition cat = new HexPosition(3, 0);
+        HexPosition exit = new HexPosition(4, 0);
+        for (HexPosition pos : Set.of(new HexPosition(4, -1), new HexPosition(3, -1), new HexPosition(2, 0),
+                new HexPosition(2, 1), new HexPosition(3, 1), new HexPosition(5, 0), new HexPosition(5, -1),
+                new HexPosition(4, 1))) {
+            board.makeMove(pos);
+        }
+
+        assertTrue(board.isAtBorder(exit));
+        assertTrue(board.canReachBorder(cat));
+        assertEquals(2, board.getRegionSize(cat));
+        assertEquals(1, board.getBorderDistance().distanceAt(layout.indexOf(cat)));
+        assertEquals(layout.indexOf(exit), board.getBorderDistance().nearestBorder(layout.indexOf(cat)));
+
+        board.makeMove(exit);
+        assertFalse(board.canReachBorder(cat));
+    }
+
+    @Test
+    void testZobristKeyIdentifiesPosition() {
+        // Test: El hash depende de las celdas bloqueadas, no del orden de los movimientos
+        HexGameBoard other = new HexGameBoard(5);
+        long empty = board.getZobristKey();
+        assertNotEquals(empty, new HexGameBoard(6).getZobristKey());
+
+        board.makeMove(new HexPosition(1, 0));
+        board.makeMove(new HexPosition(0, 2));
+        other.makeMove(new HexPosition(0, 2));
+        other.makeMove(new HexPosition(1, 0));
+        assertEquals(board.getZobristKey(), other.getZobristKey());
+        assertNotEquals(empty, board.getZobristKey());
+
+        HexGameBoard restored = new HexGameBoard(5);
+        restored.setBloquedPositions(board.getBlockedPositions());
+        assertEquals(board.getZobristKey(), restored.getZobristKey());
+
+        // El hash del juego incluye la posición del gato
+        HexGameState state = new HexGameState("zobrist", 5);
+        state.setCatPosition(new HexPosition(0, 0));
+        long atCenter = state.getZobristKey();
+        state.setCatPosition(new HexPosition(0, 1));
+        assertNotEquals(atCenter, state.getZobristKey());
+        state.setCatPosition(new HexPosition(0, 0));
+        assertEquals(atCenter, state.getZobristKey());
+    }
+
+    @Test
+    void testSetBloquedPositionsReplacesContent() {
+        // Test: Restaurar las posiciones bloqueadas reemplaza las anteriores
+        board.makeMove(new HexPosition(0, 1));
+
+        board.setBloquedPositions(Set.of(new HexPosition(1, 1), new HexPosition(-2, 0)));
+
+        assertFalse(board.isBlocked(new HexPosition(0, 1)));
+        assertTrue(board.isBlocked(new HexPosition(1, 1)));
+        assertTrue(board.isBlocked(new HexPosition(-2, 0)));
+        assertEquals(2, board.getBlockedPositions().size());
+    }
+
+    @Test
+    void testRingIndex() {
+        // Test: Cada anillo tiene 6 * k celdas y la distancia al borde es size menos el anillo
+        HexBoardLayout layout = board.getLayout();
+
+        assertEquals(1, layout.ringEnd(0) - layout.ringStart(0));
+        for (int ring = 1; ring <= 5; ring++) {
+            assertEquals(6 * ring, layout.ringEnd(ring) - layout.ringStart(ring));
+            for (int k = layout.ringStart(ring); k < layout.ringEnd(ring); k++) {
+                int cell = layout.ringCellAt(k);
+                assertEquals(ring, layout.getRing(cell));
+                assertEquals(5 - ring, layout.distanceToBorder(cell));
+                assertEquals(ring == 5, layout.isBorder(cell));
+            }
+        }
+        assertEquals(layout.getCellCount(), layout.ringEnd(5));
+    }
+
+    @Test
+    void testEscapeDistanceMatchesEmptyBoard() {
+        // Test: La distancia a la salida es 0 en las salidas y 1 más que la mejor vecina en el resto
+        HexBoardLayout layout = board.getLayout();
+        for (int cell = 0; cell < layout.getCellCount(); cell++) {
+            int exact = layout.isEscape(cell) ? 0 : 1 + minimumNeighborEscape(layout, cell);
+            assertEquals(exact, layout.escapeDistance(cell));
+        }
+    }
+
+    private int minimumNeighborEscape(HexBoardLayout layout, int cell) {
+        int best = Integer.MAX_VALUE;
+        for (int k = layout.neighborStart(cell); k < layout.neighborEnd(cell); k++) {
+            best = Math.min(best, layout.escapeDistance(layout.neighborAt(k)));
+        }
+        return best;
+    }
+
+    @Test
+    void testNearestOnRing() {
+        // Test: La celda más cercana del anillo está a la diferencia de anillos
+        HexBoardLayout layout = board.getLayout();
+        for (int cell = 0; cell < layout.getCellCount(); cell++) {
+            HexPosition from = layout.positionAt(cell);
+            for (int ring = layout.getRing(cell); ring <= 5; ring++) {
+                int nearest = layout.nearestOnRing(from.getQ(), from.getR(), ring);
+                assertEquals(ring, layout.getRing(nearest));
+                assertEquals(ring - layout.getRing(cell), (int) from.distanceTo(layout.positionAt(nearest)));
+            }
+        }
+        assertEquals(-1, layout.nearestOnRing(0, 0, 6));
+    }
+}
@@ -133,6 +133,19 @@ class HexPositionTest {
         assertNotEquals(origin, "not a position");
     }
     
+    @Test
+    void testCanonicalInstances() {
+        // Test: of() retorna la misma instancia dentro del rango del caché
+        assertSame(HexPosition.of(2, -1), HexPosition.of(2, -1));
+        assertSame(HexPosition.of(1, 0), origin.add(adjacent));
+        assertEquals(new HexPosition(2, -1), HexPosition.of(2, -1));
+        
+        // Fuera del rango se crean instancias nuevas, pero iguales
+        int outside = HexPosition.CACHE_RANGE + 1;
+        assertNotSame(HexPosition.of(outside, 0), HexPosition.of(outside, 0));
+        assertEquals(HexPosition.of(outside, 0), HexPosition.of(outside, 0));
+    }
+    
     @Test
     void testToString() {
         // Test: Representación en string
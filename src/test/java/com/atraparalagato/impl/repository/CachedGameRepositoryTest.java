@@ -0,0 +1,250 @@
+package com.atraparalagato.impl.repository;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.atraparalagato.base.model.GameState.GameStatus;
+import com.atraparalagato.impl.model.HexGameState;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tests de la caché de sesiones con escritura diferida.
+ *
+ * Conceptos de testing:
+ * - Lecturas servidas desde memoria
+ * - Escrituras agrupadas en lotes
+ * - Expulsión acotada sin perder cambios
+ * - Reintento de una expulsión cuya escritura falló
+ * - Escritura de la copia tomada al guardar
+ * - Escritura inmediata al terminar el juego
+ * - Aviso de durabilidad de los cambios pendientes
+ * - Aviso fallido al borrar un juego sin escribir
+ * - Aviso fallido de una escritura fallida seguida de un save y un borrado
+ */
+class CachedGameRepositoryTest {
+
+    private static final long NO_FLUSH = 3_600_000;
+
+    @Test
+    void testReadsFromMemoryAndCoalescesSaves() {
+        // Test: Varios guardados de un juego se leen de memoria y se escriben una sola vez
+        RecordingGameRepository database = new RecordingGameRepository();
+        CachedGameRepository cache = new CachedGameRepository(database, 10, NO_FLUSH);
+        HexGameState game = new HexGameState("g1", 5);
+
+        for (int move = 0; move < 5; move++) {
+            cache.save(game);
+            assertSame(game, cache.findById("g1").orElseThrow());
+        }
+        assertEquals(0, database.finds.get());
+        assertEquals(0, database.batches.get());
+        assertEquals(1, cache.getDirtyCount());
+
+        cache.flush();
+        assertEquals(1, database.batches.get());
+        assertEquals(1, database.written.get());
+        assertEquals(game.getMoveCount(), database.storage.get("g1").getMoveCount());
+        assertEquals(0, cache.getDirtyCount());
+        assertEquals(4L, cache.getStatistics().get("coalescedSaves"));
+        cache.shutdown();
+    }
+
+    @Test
+    void testEvictionWritesPendingState() {
+        // Test: Al superar la capacidad se expulsa el juego menos usado y se escribe si estaba pendiente
+        RecordingGameRepository database = new RecordingGameRepository();
+        CachedGameRepository cache = new CachedGameRepository(database, 2, NO_FLUSH);
+        HexGameState first = new HexGameState("g1", 5);
+        cache.save(first);
+        cache.save(new HexGameState("g2", 5));
+        cache.findById("g2");
+        cache.save(new HexGameState("g3", 5));
+
+        assertEquals(2, cache.size());
+        assertEquals(1L, cache.getEvictions());
+        assertTrue(database.storage.containsKey("g1"));
+
+        // Volver a leerlo lo trae del repositorio de abajo
+        assertEquals("g1", cache.findById("g1").orElseThrow().getGameId());
+        assertEquals(1, database.finds.get());
+        cache.shutdown();
+    }
+
+    @Test
+    void testFailedEvictionIsKeptAndRetried() {
+        // Test: Si falla la escritura de un juego expulsado no se pierde y el próximo flush lo escribe
+        RecordingGameRepository database = new RecordingGameRepository();
+        CachedGameRepository cache = new CachedGameRepository(database, 1, NO_FLUSH);
+        HexGameState first = new HexGameState("g1", 5);
+        first.getGameBoard().makeMove(new HexPosition(1, 0));
+        cache.save(first);
+
+        database.failWrites = true;
+        // La expulsión de g1 falla sin que falle el save que la provocó
+        cache.save(new HexGameState("g2", 5));
+        assertFalse(database.storage.containsKey("g1"));
+        assertSame(first, cache.findById("g1").orElseThrow());
+        assertEquals(2, cache.getDirtyCount());
+        assertEquals(1L, cache.getStatistics().get("flushErrors"));
+
+        database.failWrites = false;
+        cache.flush();
+        HexGameState written = (HexGameState) database.storage.get("g1");
+        assertTrue(written.getGameBoard().isBlocked(new HexPosition(1, 0)));
+        assertEquals(0, cache.getDirtyCount());
+        cache.shutdown();
+    }
+
+    @Test
+    void testWritesStateAsOfLastSave() {
+        // Test: Un cambio hecho después del save no se cuela en la escritura de ese save
+        RecordingGameRepository database = new RecordingGameRepository();
+        CachedGameRepository cache = new CachedGameRepository(database, 10, NO_FLUSH);
+        HexGameState game = new HexGameState("g1", 5);
+        cache.save(game);
+        game.getGameBoard().makeMove(new HexPosition(1, 0));
+
+        cache.flush();
+        HexGameState written = (HexGameState) database.storage.get("g1");
+        assertNotSame(game, written);
+        assertTrue(written.getGameBoard().getBlockedPositions().isEmpty());
+        cache.shutdown();
+    }
+
+    @Test
+    void testFinishedGameIsWrittenImmediately() throws InterruptedException {
+        // Test: Un juego terminado se escribe sin esperar al intervalo
+        RecordingGameRepository database = new RecordingGameRepository();
+        CachedGameRepository cache = new CachedGameRepository(database, 10, NO_FLUSH);
+        HexGameState game = new HexGameState("g1", 5);
+        cache.save(game);
+        game.setStatus(GameStatus.PLAYER_WON);
+        cache.save(game);
+
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (database.written.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(GameStatus.PLAYER_WON, database.storage.get("g1").getStatus());
+        cache.shutdown();
+    }
+
+    @Test
+    void testDurabilityIsAcknowledgedAfterWrite() {
+        // Test: El aviso de durabilidad se cumple recién cuando el lote que incluye el cambio se escribió
+        RecordingGameRepository database = new RecordingGameRepository();
+        CachedGameRepository cache = new CachedGameRepository(database, 10, NO_FLUSH);
+        assertTrue(cache.whenDurable("g1").isDone());
+
+        HexGameState game = new HexGameState("g1", 5);
+        cache.save(game);
+        CompletableFuture<Void> first = cache.whenDurable("g1");
+        cache.save(game);
+        CompletableFuture<Void> second = cache.whenDurable("g1");
+        assertFalse(first.isDone());
+        assertFalse(second.isDone());
+
+        cache.flush();
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertTrue(database.storage.containsKey("g1"));
+        assertTrue(cache.whenDurable("g1").isDone());
+        cache.shutdown();
+    }
+
+    @Test
+    void testDurabilityWaitsForRetryAfterFailedWrite() {
+        // Test: Si la escritura falla el aviso sigue pendiente y se cumple con la siguiente
+        RecordingGameRepository database = new RecordingGameRepository();
+        CachedGameRepository cache = new CachedGameRepository(database, 10, NO_FLUSH);
+        cache.save(new HexGameState("g1", 5));
+        CompletableFuture<Void> durable = cache.whenDurable("g1");
+
+        database.failWrites = true;
+        assertThrows(IllegalStateException.class, cache::flush);
+        assertFalse(durable.isDone());
+        assertEquals(1, cache.getDirtyCount());
+
+        database.failWrites = false;
+        cache.flush();
+        assertTrue(durable.isDone());
+        assertFalse(durable.isCompletedExceptionally());
+        cache.shutdown();
+    }
+
+    @Test
+    void testDurabilityStaysPendingAfterFailedEviction() {
+        // Test: Un juego expulsado cuya escritura falló no se informa como escrito
+        RecordingGameRepository database = new RecordingGameRepository();
+        CachedGameRepository cache = new CachedGameRepository(database, 1, NO_FLUSH);
+        cache.save(new HexGameState("g1", 5));
+        database.failWrites = true;
+        cache.save(new HexGameState("g2", 5));
+
+        CompletableFuture<Void> durable = cache.whenDurable("g1");
+        assertFalse(durable.isDone());
+
+        database.failWrites = false;
+        cache.flush();
+        assertTrue(durable.isDone());
+        assertFalse(durable.isCompletedExceptionally());
+        cache.shutdown();
+    }
+
+    @Test
+    void testDeleteFailsPendingDurability() {
+        // Test: Borrar un juego con cambios sin escribir hace fallar su aviso en vez de dejarlo colgado
+        RecordingGameRepository database = new RecordingGameRepository();
+        CachedGameRepository cache = new CachedGameRepository(database, 10, NO_FLUSH);
+        cache.save(new HexGameState("g1", 5));
+        CompletableFuture<Void> durable = cache.whenDurable("g1");
+
+        assertTrue(cache.deleteById("g1"));
+        assertTrue(durable.isCompletedExceptionally());
+
+        cache.flush();
+        assertFalse(database.storage.containsKey("g1"));
+        assertEquals(0, database.batches.get());
+        cache.shutdown();
+    }
+
+    @Test
+    void testDeleteAfterFailedWriteFailsOlderDurability() {
+        // Test: Si la escritura falla, llega un save más nuevo y luego se borra el juego, el aviso anterior también falla
+        RecordingGameRepository database = new RecordingGameRepository();
+        CachedGameRepository cache = new CachedGameRepository(database, 10, NO_FLUSH);
+        HexGameState game = new HexGameState("g1", 5);
+        cache.save(game);
+        CompletableFuture<Void> older = cache.whenDurable("g1");
+
+        // La escritura en curso falla después de que un save más nuevo volvió a marcar el juego
+        database.beforeWrite = () -> cache.save(game);
+        database.failWrites = true;
+        assertThrows(IllegalStateException.class, cache::flush);
+        database.beforeWrite = null;
+        database.failWrites = false;
+        CompletableFuture<Void> newer = cache.whenDurable("g1");
+        assertFalse(older.isDone());
+
+        assertTrue(cache.deleteById("g1"));
+        assertTrue(newer.isCompletedExceptionally());
+        assertTrue(older.isCompletedExceptionally());
+        assertFalse(database.storage.containsKey("g1"));
+        cache.shutdown();
+    }
+
+    @Test
+    void testQueriesSeePendingStates() {
+        // Test: Las consultas sobre la base de datos escriben antes los pendientes
+        RecordingGameRepository database = new RecordingGameRepository();
+        CachedGameRepository cache = new CachedGameRepository(database, 10, NO_FLUSH);
+        cache.save(new HexGameState("g1", 5));
+        cache.save(new HexGameState("g2", 5));
+
+        assertEquals(2, cache.findAll().size());
+        assertEquals(1, database.batches.get());
+        cache.shutdown();
+    }
+}
@@ -0,0 +1,66 @@
+package com.atraparalagato.impl.repository;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests de la cota de llamadas JDBC simultáneas.
+ *
+ * Conceptos de testing:
+ * - Concurrencia acotada por un semáforo
+ * - Permisos reentrantes dentro de una transacción
+ */
+class JdbcPermitsTest {
+
+    @Test
+    void testBoundsConcurrentCalls() throws Exception {
+        // Test: Nunca hay más llamadas dentro que permisos, aunque haya muchos hilos
+        JdbcPermits permits = new JdbcPermits(3);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 20; i++) {
+                    permits.call(() -> {
+                        maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                        try {
+                            Thread.sleep(1);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return inside.decrementAndGet();
+                    });
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertTrue(maxInside.get() <= 3, "Llamadas simultáneas: " + maxInside.get());
+        assertEquals(3, permits.getAvailable());
+        assertEquals(16L * 20, permits.getStatistics().get("calls"));
+        assertTrue((long) permits.getStatistics().get("waits") > 0);
+    }
+
+    @Test
+    void testNestedCallReusesPermit() {
+        // Test: Una llamada dentro de otra del mismo hilo no espera un segundo permiso
+        JdbcPermits permits = new JdbcPermits(1);
+        int result = permits.call(() -> permits.call(() -> 42));
+        assertEquals(42, result);
+        assertEquals(1, permits.getAvailable());
+        assertEquals(1L, permits.getStatistics().get("calls"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.atraparalagato.impl.repository;
+
+import com.atraparalagato.base.model.GameState;
+import com.atraparalagato.base.repository.DataRepository;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Repositorio en memoria para los tests que cuenta las lecturas y los lotes
+ * escritos; con failWrites los lotes fallan. beforeWrite, si está, corre al
+ * empezar cada lote, para simular un save que llega durante la escritura.
+ */
+public class RecordingGameRepository extends DataRepository<GameState<HexPosition>, String> {
+
+    public final Map<String, GameState<HexPosition>> storage = new ConcurrentHashMap<>();
+    public final AtomicInteger finds = new AtomicInteger();
+    public final AtomicInteger batches = new AtomicInteger();
+    public final AtomicInteger written = new AtomicInteger();
+    public final Map<String, Integer> savesById = new ConcurrentHashMap<>();
+    public volatile boolean failWrites;
+    public volatile Runnable beforeWrite;
+
+    @Override
+    public GameState<HexPosition> save(GameState<HexPosition> entity) {
+        storage.put(entity.getGameId(), entity);
+        written.incrementAndGet();
+        savesById.merge(entity.getGameId(), 1, Integer::sum);
+        return entity;
+    }
+
+    @Override
+    public List<GameState<HexPosition>> saveAll(Collection<GameState<HexPosition>> entities) {
+        Runnable hook = beforeWrite;
+        if (hook != null)
+            hook.run();
+        if (failWrites)
+            throw new IllegalStateException("Escritura fallida");
+        batches.incrementAndGet();
+        return super.saveAll(entities);
+    }
+
+    @Override
+    public Optional<GameState<HexPosition>> findById(String id) {
+        finds.incrementAndGet();
+        return Optional.ofNullable(storage.get(id));
+    }
+
+    @Override
+    public List<GameState<HexPosition>> findAll() {
+        return new ArrayList<>(storage.values());
+    }
+
+    @Override
+    public List<GameState<HexPosition>> findWhere(Predicate<GameState<HexPosition>> condition) {
+        return storage.values().stream().filter(condition).toList();
+    }
+
+    @Override
+    public <R> List<R> findAndTransform(Predicate<GameState<HexPosition>> condition,
+                                        Function<GameState<HexPosition>, R> transformer) {
+        return findWhere(condition).stream().map(transformer).toList();
+    }
+
+    @Override
+    public long countWhere(Predicate<GameState<HexPosition>> condition) {
+        return findWhere(condition).size();
+    }
+
+    @Override
+    public boolean deleteById(String id) {
+        return storage.remove(id) != null;
+    }
+
+    @Override
+    public long deleteWhere(Predicate<GameState<HexPosition>> condition) {
+        return findWhere(condition).stream().filter(state -> deleteById(state.getGameId())).count();
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return storage.containsKey(id);
+    }
+
+    @Override
+    public <R> R executeInTransaction(Function<DataRepository<GameState<HexPosition>, String>, R> operation) {
+        return operation.apply(this);
+    }
+
+    @Override
+    public List<GameState<HexPosition>> findWithPagination(int page, int size) {
+        return findAll();
+    }
+
+    @Override
+    public List<GameState<HexPosition>> findAllSorted(
+            Function<GameState<HexPosition>, ? extends Comparable<?>> sortKeyExtractor, boolean ascending) {
+        return findAll();
+    }
+
+    @Override
+    public <R> List<R> executeCustomQuery(String query, Function<Object, R> resultMapper) {
+        return findAll().stream().map(resultMapper).toList();
+    }
+
+    @Override
+    protected void initialize() {
+    }
+
+    @Override
+    protected void cleanup() {
+    }
+}
@@ -0,0 +1,298 @@
+package com.atraparalagato.impl.service;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.atraparalagato.base.model.GameState;
+import com.atraparalagato.base.repository.DataRepository;
+import com.atraparalagato.impl.factories.GameIdGenerator;
+import com.atraparalagato.impl.factories.GameStateFactory;
+import com.atraparalagato.impl.factories.HexBoardFactory;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexGameState;
+import com.atraparalagato.impl.model.HexPosition;
+import com.atraparalagato.impl.repository.CachedGameRepository;
+import com.atraparalagato.impl.repository.JdbcPermits;
+import com.atraparalagato.impl.repository.RecordingGameRepository;
+import com.atraparalagato.impl.strategy.BFSCatMovement;
+import com.atraparalagato.impl.strategy.CatMoveCache;
+import com.atraparalagato.impl.strategy.HexTablebaseLibrary;
+import com.atraparalagato.impl.strategy.MctsSearchPool;
+import com.atraparalagato.impl.strategy.OpeningBook;
+import com.atraparalagato.impl.strategy.SearchDeadlineMonitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests de los locks por juego.
+ *
+ * Conceptos de testing:
+ * - Exclusión mutua por juego
+ * - Paralelismo entre juegos distintos
+ * - Métrica de contención
+ * - Prueba de carga con muchos hilos sobre pocos juegos
+ * - Movimientos asíncronos bajo el mismo lock
+ * - Lecturas, movimientos y escrituras diferidas concurrentes sobre la caché de sesiones
+ */
+class GameLocksTest {
+
+    @Test
+    void testSerializesOperationsOfOneGame() throws Exception {
+        // Test: Incrementos no atómicos bajo el lock del juego no pierden ninguna actualización
+        GameLocks locks = new GameLocks(8);
+        String[] games = { "a", "b", "c" };
+        int[] counters = new int[games.length];
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 3_000; i++) {
+                    int g = i % games.length;
+                    locks.withGame(games[g], () -> counters[g]++);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (int counter : counters) {
+            assertEquals(8 * 1_000, counter);
+        }
+        assertEquals(8L * 3_000, locks.getStatistics().get("acquisitions"));
+    }
+
+    @Test
+    void testDifferentGamesRunInParallel() throws Exception {
+        // Test: Mientras un juego tiene su lock tomado, otro juego de otra franja avanza
+        GameLocks locks = new GameLocks(16);
+        String first = "juego-1";
+        String second = "juego-2";
+        for (int i = 3; locks.stripeOf(second) == locks.stripeOf(first); i++) {
+            second = "juego-" + i;
+        }
+        String other = second;
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> locks.withGame(first, () -> {
+            inside.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.start();
+        assertTrue(inside.await(10, TimeUnit.SECONDS));
+
+        // Este hilo no se bloquea aunque el otro juego siga ocupado
+        assertEquals("hecho", locks.withGame(other, () -> "hecho"));
+        release.countDown();
+        holder.join(10_000);
+        assertEquals(0L, locks.getContended());
+    }
+
+    @Test
+    void testContentionIsMeasured() throws Exception {
+        // Test: Un hilo que espera el lock de un juego ocupado cuenta como contención
+        GameLocks locks = new GameLocks(4);
+        CountDownLatch inside = new CountDownLatch(1);
+        Thread holder = new Thread(() -> locks.withGame("g", () -> {
+            inside.countDown();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.start();
+        assertTrue(inside.await(10, TimeUnit.SECONDS));
+        locks.withGame("g", () -> { });
+        holder.join(10_000);
+
+        Map<String, Object> stats = locks.getStatistics();
+        assertEquals(1L, stats.get("contended"));
+        assertTrue((double) stats.get("waitMs") > 0.0);
+    }
+
+    @Test
+    void testConcurrentMovesOnFewGames() throws Exception {
+        // Test: Muchos hilos jugando sobre pocos juegos no pierden movimientos
+        RecordingGameRepository repository = new RecordingGameRepository();
+        MctsSearchPool pool = new MctsSearchPool(1, 10);
+        GameLocks locks = new GameLocks(64);
+        HexGameService service = newService(repository, pool, locks, Runnable::run);
+
+        int boardSize = 21;
+        List<String> gameIds = new ArrayList<>();
+        for (int g = 0; g < 4; g++) {
+            gameIds.add(service.createGame(boardSize, "EASY", Map.of()).getGameId());
+        }
+
+        int threads = 16;
+        int movesPerThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < movesPerThread; i++) {
+                    String gameId = gameIds.get(random.nextInt(gameIds.size()));
+                    HexPosition position = randomInnerPosition(boardSize, random);
+                    service.executePlayerMove(gameId, position, "jugador");
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        pool.shutdown();
+
+        for (String gameId : gameIds) {
+            HexGameState game = (HexGameState) repository.storage.get(gameId);
+            // Cada movimiento aceptado se guardó una vez y bloqueó exactamente una celda
+            int acceptedMoves = repository.savesById.get(gameId) - 1;
+            assertEquals(acceptedMoves, game.getGameBoard().getBlockedPositions().size());
+        }
+        assertEquals((long) threads * movesPerThread, locks.getStatistics().get("acquisitions"));
+        assertTrue(locks.getContended() > 0);
+    }
+
+    @Test
+    void testAsyncMovesOnFewGames() throws Exception {
+        // Test: Los movimientos asíncronos de un mismo juego se aplican de a uno y cada respuesta ve un estado final
+        RecordingGameRepository repository = new RecordingGameRepository();
+        MctsSearchPool pool = new MctsSearchPool(1, 10);
+        GameLocks locks = new GameLocks(64);
+        ExecutorService moveExecutor = Executors.newFixedThreadPool(8);
+        HexGameService service = newService(repository, pool, locks, moveExecutor);
+
+        int boardSize = 21;
+        List<String> gameIds = new ArrayList<>();
+        for (int g = 0; g < 3; g++) {
+            gameIds.add(service.createGame(boardSize, "EASY", Map.of()).getGameId());
+        }
+
+        Random random = new Random(7);
+        List<CompletableFuture<Optional<Integer>>> futures = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            String gameId = gameIds.get(random.nextInt(gameIds.size()));
+            futures.add(service.blockPositionAsync(gameId, randomInnerPosition(boardSize, random),
+                    state -> state.getGameBoard().getBlockedPositions().size()));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+        moveExecutor.shutdown();
+        pool.shutdown();
+
+        for (CompletableFuture<Optional<Integer>> future : futures) {
+            assertTrue(future.get().isPresent());
+        }
+        for (String gameId : gameIds) {
+            HexGameState game = (HexGameState) repository.storage.get(gameId);
+            int acceptedMoves = repository.savesById.get(gameId) - 1;
+            assertEquals(acceptedMoves, game.getGameBoard().getBlockedPositions().size());
+            // Sin caché de sesiones cada movimiento ya se escribió al responder
+            assertTrue(service.whenDurable(gameId).isDone());
+        }
+        assertEquals(600L, locks.getStatistics().get("acquisitions"));
+    }
+
+    @Test
+    void testConcurrentOperationsThroughSessionCache() throws Exception {
+        // Test: Con la caché de sesiones, su hilo de escritura y expulsiones, las lecturas y los movimientos concurrentes no pierden cambios
+        RecordingGameRepository database = new RecordingGameRepository();
+        CachedGameRepository cache = new CachedGameRepository(database, 2, 1);
+        MctsSearchPool pool = new MctsSearchPool(1, 10);
+        GameLocks locks = new GameLocks(64);
+        HexGameService service = newService(cache, pool, locks, Runnable::run);
+
+        int boardSize = 21;
+        List<String> gameIds = new ArrayList<>();
+        Map<String, AtomicInteger> applied = new HashMap<>();
+        for (int g = 0; g < 4; g++) {
+            String gameId = service.startNewGame(boardSize).getGameId();
+            gameIds.add(gameId);
+            applied.put(gameId, new AtomicInteger());
+        }
+
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 150; i++) {
+                    String gameId = gameIds.get(random.nextInt(gameIds.size()));
+                    switch (random.nextInt(4)) {
+                    case 0, 1 -> service.blockPositions(gameId, List.of(randomInnerPosition(boardSize, random)),
+                            (state, moves) -> {
+                                if ("applied".equals(moves.get(0).get("result")))
+                                    applied.get(gameId).incrementAndGet();
+                                return moves;
+                            }).orElseThrow();
+                    case 2 -> {
+                        // Las dos vistas se arman bajo el mismo lock: el tablero coincide con los movimientos contados
+                        int blocked = service.obtainGameStatus(gameId,
+                                state -> state.getGameBoard().getBlockedPositions().size() - applied.get(gameId).get())
+                                .orElseThrow();
+                        assertEquals(0, blocked);
+                    }
+                    default -> assertNotNull(service.getGameStatistics(gameId));
+                    }
+                    if (i % 50 == 0)
+                        service.savePlayerScore(gameId, "jugador", state -> state.getPlayerId()).orElseThrow();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        pool.shutdown();
+        cache.shutdown();
+
+        for (String gameId : gameIds) {
+            HexGameState written = (HexGameState) database.storage.get(gameId);
+            assertTrue(applied.get(gameId).get() > 0);
+            assertEquals(applied.get(gameId).get(), written.getGameBoard().getBlockedPositions().size());
+            assertEquals("jugador", written.getPlayerId());
+        }
+        assertTrue(cache.getEvictions() > 0);
+        assertEquals(0, cache.getDirtyCount());
+    }
+
+    private static HexGameService newService(DataRepository<GameState<HexPosition>, String> repository, MctsSearchPool pool, GameLocks locks,
+            Executor moveExecutor) {
+        return new HexGameService(new HexBoardFactory(), new BFSCatMovement(new HexGameBoard(5)), repository,
+                new GameIdGenerator(), new GameStateFactory(), new CatMoveCache(1_000, 4), pool,
+                new HexTablebaseLibrary(""), OpeningBook.loadOrEmpty(""), new SearchDeadlineMonitor(0), locks,
+                new JdbcPermits(10), moveExecutor);
+    }
+
+    private static HexPosition randomInnerPosition(int boardSize, Random random) {
+        int range = boardSize - 2;
+        while (true) {
+            int q = random.nextInt(2 * range + 1) - range;
+            int r = random.nextInt(2 * range + 1) - range;
+            HexPosition position = new HexPosition(q, r);
+            if (Math.abs(position.getS()) <= range && !(q == 0 && r == 0))
+                return position;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.atraparalagato.impl.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.atraparalagato.base.model.GameState.GameStatus;
+import com.atraparalagato.impl.factories.GameIdGenerator;
+import com.atraparalagato.impl.factories.GameStateFactory;
+import com.atraparalagato.impl.factories.HexBoardFactory;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexGameState;
+import com.atraparalagato.impl.model.HexPosition;
+import com.atraparalagato.impl.repository.JdbcPermits;
+import com.atraparalagato.impl.repository.RecordingGameRepository;
+import com.atraparalagato.impl.strategy.BFSCatMovement;
+import com.atraparalagato.impl.strategy.CatMoveCache;
+import com.atraparalagato.impl.strategy.HexTablebaseLibrary;
+import com.atraparalagato.impl.strategy.MctsSearchPool;
+import com.atraparalagato.impl.strategy.OpeningBook;
+import com.atraparalagato.impl.strategy.SearchDeadlineMonitor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests de los movimientos en lote del servicio.
+ *
+ * Conceptos de testing:
+ * - Una sola carga y una sola escritura por lote
+ * - Resultado por movimiento
+ * - Corte del lote al terminar el juego
+ * - Lote sobre un juego en pausa
+ */
+class HexGameServiceBatchTest {
+
+    private RecordingGameRepository repository;
+    private MctsSearchPool pool;
+    private HexGameService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = new RecordingGameRepository();
+        pool = new MctsSearchPool(1, 10);
+        service = new HexGameService(new HexBoardFactory(), new BFSCatMovement(new HexGameBoard(5)), repository,
+                new GameIdGenerator(), new GameStateFactory(), new CatMoveCache(1_000, 4), pool,
+                new HexTablebaseLibrary(""), OpeningBook.loadOrEmpty(""), new SearchDeadlineMonitor(0),
+                new GameLocks(16), new JdbcPermits(10), Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testBatchLoadsAndSavesOnce() {
+        // Test: Varios movimientos válidos se aplican con una lectura y una escritura
+        String gameId = service.startNewGame(11).getGameId();
+        int findsBefore = repository.finds.get();
+        int writesBefore = repository.written.get();
+
+        List<HexPosition> positions = List.of(new HexPosition(5, -5), new HexPosition(-5, 5), new HexPosition(5, 0));
+        List<Map<String, Object>> outcomes = service.blockPositions(gameId, positions, (state, moves) -> moves)
+                .orElseThrow();
+
+        assertEquals(3, outcomes.size());
+        for (Map<String, Object> outcome : outcomes) {
+            assertEquals("applied", outcome.get("result"));
+            assertNotNull(outcome.get("catPosition"));
+        }
+        assertEquals(findsBefore + 1, repository.finds.get());
+        assertEquals(writesBefore + 1, repository.written.get());
+        HexGameState saved = (HexGameState) repository.storage.get(gameId);
+        assertEquals(3, saved.getGameBoard().getBlockedPositions().size());
+    }
+
+    @Test
+    void testRejectedMovesAreReported() {
+        // Test: Una celda repetida o la del gato se rechaza sin cortar el lote
+        String gameId = service.startNewGame(11).getGameId();
+        List<HexPosition> positions = List.of(new HexPosition(4, -4), new HexPosition(4, -4), new HexPosition(-4, 4));
+
+        List<String> results = service.blockPositions(gameId, positions,
+                (state, moves) -> moves.stream().map(move -> (String) move.get("result")).toList()).orElseThrow();
+
+        assertEquals(List.of("applied", "rejected", "applied"), results);
+    }
+
+    @Test
+    void testMovesAfterGameEndAreSkipped() {
+        // Test: Cuando el gato escapa los movimientos restantes no se juegan
+        String gameId = service.startNewGame(5).getGameId();
+        List<HexPosition> positions = new ArrayList<>();
+        // Solo se bloquea el lado izquierdo: el gato escapa por la derecha antes de terminar el lote
+        for (int q = -4; q <= -2; q++) {
+            for (int r = -4; r <= 4; r++) {
+                if (Math.abs(q + r) <= 4)
+                    positions.add(new HexPosition(q, r));
+            }
+        }
+
+        Map<String, Object> result = service.blockPositions(gameId, positions, (state, moves) -> {
+            Map<String, Object> view = new HashMap<>();
+            view.put("status", state.getStatus());
+            view.put("moves", moves);
+            return view;
+        }).orElseThrow();
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> moves = (List<Map<String, Object>>) result.get("moves");
+        assertEquals(GameStatus.PLAYER_LOST, result.get("status"));
+        assertEquals("skipped", moves.get(moves.size() - 1).get("result"));
+    }
+
+    @Test
+    void testPausedGameReportsPaused() {
+        // Test: Con el juego en pausa ningún movimiento se juega y cada uno se informa como "paused"
+        String gameId = service.startNewGame(11).getGameId();
+        assertTrue(service.toggleGamePause(gameId));
+        int writesBefore = repository.written.get();
+        List<HexPosition> positions = List.of(new HexPosition(5, -5), new HexPosition(-5, 5));
+
+        Map<String, Object> result = service.blockPositions(gameId, positions, (state, moves) -> {
+            Map<String, Object> view = new HashMap<>();
+            view.put("status", state.getStatus());
+            view.put("blocked", state.getGameBoard().getBlockedPositions().size());
+            view.put("results", moves.stream().map(move -> move.get("result")).toList());
+            return view;
+        }).orElseThrow();
+
+        assertEquals(GameStatus.PAUSED, result.get("status"));
+        assertEquals(0, result.get("blocked"));
+        assertEquals(List.of("paused", "paused"), result.get("results"));
+        assertEquals(writesBefore, repository.written.get());
+    }
+
+    @Test
+    void testUnknownGame() {
+        // Test: Un juego inexistente no aplica nada
+        assertTrue(service.blockPositions("no-existe", List.of(new HexPosition(1, 0)), (state, moves) -> moves)
+                .isEmpty());
+    }
+}
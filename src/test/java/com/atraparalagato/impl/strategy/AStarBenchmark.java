@@ -0,0 +1,141 @@
+package com.atraparalagato.impl.strategy;
+
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Comparación entre la búsqueda A* con heap indexado y la implementación
+ * anterior basada en PriorityQueue y objetos por nodo.
+ *
+ * La implementación anterior casi nunca encuentra camino (expande siempre el
+ * nodo inicial), así que también se mide una versión corregida de ella con las
+ * mismas estructuras, para comparar el costo de búsquedas equivalentes.
+ *
+ * No es un test: se ejecuta a mano con
+ * java -cp target/classes:target/test-classes com.atraparalagato.impl.strategy.AStarBenchmark [tamaño] [tableros]
+ *
+ * Para cada tablero aleatorio se busca el camino desde el centro hasta una
+ * celda del borde con ambas versiones y se informa el tiempo promedio por
+ * búsqueda y cuántas encontraron camino.
+ */
+public class AStarBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int boards = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        Random random = new Random(42);
+
+        List<HexGameBoard> cases = new ArrayList<>(boards);
+        List<HexPosition> targets = new ArrayList<>(boards);
+        for (int i = 0; i < boards; i++) {
+            HexGameBoard board = new HexGameBoard(size);
+            List<HexPosition> cells = board.getPositionsWhere(p -> !p.equals(HexPosition.of(0, 0)));
+            Collections.shuffle(cells, random);
+            cells.subList(0, cells.size() / 4).forEach(board::makeMove);
+            List<HexPosition> border = board.getPositionsWhere(
+                    p -> p.distanceTo(HexPosition.of(0, 0)) == size && !board.isBlocked(p));
+            if (border.isEmpty()) {
+                continue;
+            }
+            cases.add(board);
+            targets.add(border.get(random.nextInt(border.size())));
+        }
+
+        // Calentamiento
+        for (int round = 0; round < 3; round++) {
+            for (Mode mode : Mode.values()) {
+                run(cases, targets, mode);
+            }
+        }
+        long[] legacy = run(cases, targets, Mode.LEGACY);
+        long[] fixed = run(cases, targets, Mode.LEGACY_FIXED);
+        long[] indexed = run(cases, targets, Mode.INDEXED);
+
+        System.out.printf("Tablero de tamaño %d, %d búsquedas%n", size, cases.size());
+        System.out.printf("  anterior : %8.2f µs/búsqueda, %d caminos encontrados%n",
+                legacy[0] / 1000.0 / cases.size(), legacy[1]);
+        System.out.printf("  corregido: %8.2f µs/búsqueda, %d caminos encontrados%n",
+                fixed[0] / 1000.0 / cases.size(), fixed[1]);
+        System.out.printf("  indexado : %8.2f µs/búsqueda, %d caminos encontrados%n",
+                indexed[0] / 1000.0 / cases.size(), indexed[1]);
+    }
+
+    private enum Mode { LEGACY, LEGACY_FIXED, INDEXED }
+
+    private static long[] run(List<HexGameBoard> cases, List<HexPosition> targets, Mode mode) {
+        long found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < cases.size(); i++) {
+            HexGameBoard board = cases.get(i);
+            List<HexPosition> path = mode == Mode.INDEXED
+                    ? new AStarCatMovement(board).getFullPath(HexPosition.of(0, 0), targets.get(i))
+                    : legacyFullPath(board, HexPosition.of(0, 0), targets.get(i), mode == Mode.LEGACY_FIXED);
+            if (!path.isEmpty()) {
+                found++;
+            }
+        }
+        return new long[] { System.nanoTime() - start, found };
+    }
+
+    /*
+     * Copia de la implementación anterior de AStarCatMovement.getFullPath, con
+     * sus defectos: expande siempre los vecinos del nodo inicial, guarda el costo
+     * del paso en lugar del acumulado y usa PriorityQueue.remove(Object). Con
+     * fixed se expande el nodo actual y se acumula el costo.
+     */
+    private static List<HexPosition> legacyFullPath(HexGameBoard board, HexPosition currentPosition,
+                                                    HexPosition targetPosition, boolean fixed) {
+        LegacyNode startNode = new LegacyNode(currentPosition, 0, 0, null);
+        PriorityQueue<LegacyNode> openSet = new PriorityQueue<>(Comparator.comparingDouble(node -> node.fScore));
+        Map<HexPosition, LegacyNode> openSetMap = new HashMap<>();
+        openSet.add(startNode);
+        while (!openSet.isEmpty()) {
+            LegacyNode current = openSet.poll();
+            if (current.position.equals(targetPosition)) {
+                List<HexPosition> path = new ArrayList<>();
+                for (LegacyNode node = current; node != null; node = node.parent) {
+                    path.add(node.position);
+                }
+                Collections.reverse(path);
+                return path;
+            }
+            HexPosition expanded = fixed ? current.position : currentPosition;
+            for (HexPosition pos : board.getAdjacentPositions(expanded)) {
+                double moveCost = current.position.distanceTo(pos);
+                double gScore = fixed ? current.gScore + moveCost : moveCost;
+                double fScore = current.gScore + moveCost + pos.distanceTo(targetPosition);
+                LegacyNode neighbor = new LegacyNode(pos, gScore, fScore, current);
+                LegacyNode oldNeighbor = openSetMap.get(pos);
+                if (oldNeighbor == null || oldNeighbor.fScore > neighbor.fScore) {
+                    openSet.remove(oldNeighbor);
+                    openSet.add(neighbor);
+                    openSetMap.put(neighbor.position, neighbor);
+                }
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    private static class LegacyNode {
+        final HexPosition position;
+        final double gScore;
+        final double fScore;
+        final LegacyNode parent;
+
+        LegacyNode(HexPosition position, double gScore, double fScore, LegacyNode parent) {
+            this.position = position;
+            this.gScore = gScore;
+            this.fScore = fScore;
+            this.parent = parent;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.atraparalagato.impl.strategy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.atraparalagato.example.model.ExampleGameBoard;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests de la búsqueda A* sobre el tablero hexagonal.
+ *
+ * Conceptos de testing:
+ * - Caminos mínimos con y sin obstáculos
+ * - Reutilización de las estructuras entre búsquedas
+ * - Casos sin solución
+ * - Tableros sin índices de celda
+ * - Una misma instancia usada desde varios hilos
+ */
+class AStarCatMovementTest {
+
+    private HexGameBoard board;
+    private AStarCatMovement strategy;
+
+    @BeforeEach
+    void setUp() {
+        board = new HexGameBoard(5);
+        strategy = new AStarCatMovement(board);
+    }
+
+    @Test
+    void testStraightPathHasMinimalLength() {
+        // Test: Sin obstáculos el camino tiene tantos pasos como la distancia hexagonal
+        HexPosition start = new HexPosition(0, 0);
+        HexPosition target = new HexPosition(5, -2);
+
+        List<HexPosition> path = strategy.getFullPath(start, target);
+
+        assertEquals(6, path.size());
+        assertEquals(start, path.get(0));
+        assertEquals(target, path.get(path.size() - 1));
+        for (int i = 1; i < path.size(); i++) {
+            assertTrue(path.get(i - 1).isAdjacentTo(path.get(i)));
+        }
+    }
+
+    @Test
+    void testPathGoesAroundWall() {
+        // Test: El camino rodea una pared y sigue siendo mínimo
+        for (int r = -3; r <= 3; r++) {
+            board.makeMove(new HexPosition(1, r));
+        }
+        HexPosition start = new HexPosition(0, 0);
+        HexPosition target = new HexPosition(2, 0);
+
+        List<HexPosition> path = strategy.getFullPath(start, target);
+
+        assertEquals(10, path.size());
+        assertTrue(path.stream().noneMatch(board::isBlocked));
+        // Una segunda búsqueda reutiliza las estructuras y da el mismo resultado
+        assertEquals(path, strategy.getFullPath(start, target));
+    }
+
+    @Test
+    void testNoPathWhenTargetIsEnclosed() {
+        // Test: Sin camino posible se retorna una lista vacía
+        HexPosition target = new HexPosition(3, 0);
+        board.getAdjacentPositions(target).forEach(board::makeMove);
+
+        assertTrue(strategy.getFullPath(new HexPosition(0, 0), target).isEmpty());
+        assertTrue(strategy.getFullPath(new HexPosition(0, 0), new HexPosition(9, 0)).isEmpty());
+    }
+
+    @Test
+    void testBestMoveIsFirstStepOfPath() {
+        // Test: El gato avanza por el primer paso del camino más corto
+        HexPosition start = new HexPosition(0, 0);
+        HexPosition target = new HexPosition(0, 5);
+
+        assertEquals(new HexPosition(0, 1), strategy.findBestMove(start, target).orElseThrow());
+    }
+
+    @Test
+    void testInstancesShareThreadBuffers() {
+        // Test: Instancias nuevas sobre tableros de distinto tamaño reutilizan las estructuras del hilo sin mezclar búsquedas
+        HexGameBoard large = new HexGameBoard(11);
+        HexPosition start = new HexPosition(0, 0);
+        board.makeMove(new HexPosition(1, 0));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(12, new AStarCatMovement(large).getFullPath(start, new HexPosition(11, 0)).size());
+            List<HexPosition> path = new AStarCatMovement(board).getFullPath(start, new HexPosition(5, 0));
+            assertEquals(7, path.size());
+            assertFalse(path.contains(new HexPosition(1, 0)));
+        }
+    }
+
+    @Test
+    void testPathOnBoardWithoutCellIndices() {
+        // Test: Un tablero sin índices de celda se recorre por posiciones
+        ExampleGameBoard example = new ExampleGameBoard(5);
+        example.makeMove(new HexPosition(1, 0));
+        AStarCatMovement exampleStrategy = new AStarCatMovement(example);
+
+        List<HexPosition> path = exampleStrategy.getFullPath(new HexPosition(0, 0), new HexPosition(3, 0));
+
+        assertEquals(5, path.size());
+        assertFalse(path.contains(new HexPosition(1, 0)));
+        assertTrue(exampleStrategy.hasPathToGoal(new HexPosition(0, 0)));
+    }
+
+    @Test
+    void testSharedInstanceAcrossThreads() throws Exception {
+        // Test: Varios hilos buscan a la vez con la misma instancia y cada uno obtiene su camino mínimo
+        HexGameBoard large = new HexGameBoard(11);
+        for (int r = -6; r <= 6; r++) {
+            large.makeMove(new HexPosition(2, r));
+        }
+        AStarCatMovement shared = new AStarCatMovement(large);
+        HexPosition start = new HexPosition(0, 0);
+        List<HexPosition> targets = List.of(new HexPosition(11, 0), new HexPosition(-11, 0), new HexPosition(0, 11),
+                new HexPosition(5, -5));
+        List<Integer> expected = new ArrayList<>();
+        for (HexPosition target : targets) {
+            expected.add(shared.getFullPath(start, target).size());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int first = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    int k = (first + i) % targets.size();
+                    assertEquals((int) expected.get(k), shared.getFullPath(start, targets.get(k)).size());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+}
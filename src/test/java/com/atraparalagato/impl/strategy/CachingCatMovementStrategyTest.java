@@ -0,0 +1,107 @@
+package com.atraparalagato.impl.strategy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+/**
+ * Tests de la caché compartida de decisiones del gato.
+ *
+ * Conceptos de testing:
+ * - Aciertos entre tableros distintos con la misma posición
+ * - Separación por dificultad
+ * - Expulsión al superar la capacidad
+ * - Entradas que no son un movimiento válido en el tablero actual
+ */
+class CachingCatMovementStrategyTest {
+
+    private CatMoveCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CatMoveCache(100, 4);
+    }
+
+    @Test
+    void testSamePositionIsServedFromCache() {
+        // Test: Dos juegos con la misma posición comparten la decisión
+        HexPosition cat = new HexPosition(0, 0);
+        HexPosition target = new HexPosition(0, 5);
+        HexGameBoard first = new HexGameBoard(5);
+        HexGameBoard second = new HexGameBoard(5);
+        first.makeMove(new HexPosition(0, 1));
+        second.makeMove(new HexPosition(0, 1));
+
+        HexPosition expected = new BFSCatMovement(first).findBestMove(cat, target).orElseThrow();
+        assertEquals(expected, caching(first, "EASY").findBestMove(cat, target).orElseThrow());
+        assertEquals(0, cache.getHits());
+        assertEquals(expected, caching(second, "EASY").findBestMove(cat, target).orElseThrow());
+        assertEquals(1, cache.getHits());
+
+        // Otra dificultad no reutiliza la decisión
+        caching(second, "HARD").findBestMove(cat, target);
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testChangedBoardIsNotServedFromCache() {
+        // Test: Un bloqueo cambia la clave de la posición
+        HexGameBoard board = new HexGameBoard(5);
+        CachingCatMovementStrategy strategy = caching(board, "EASY");
+        HexPosition cat = new HexPosition(0, 0);
+
+        strategy.findBestMove(cat, new HexPosition(5, 0));
+        board.makeMove(new HexPosition(4, -4));
+        strategy.findBestMove(cat, new HexPosition(5, 0));
+
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testInvalidCachedMoveIsRecomputed() {
+        // Test: Una celda guardada que no es vecina libre del gato se descarta y se reemplaza
+        HexGameBoard board = new HexGameBoard(5);
+        HexPosition cat = new HexPosition(0, 0);
+        HexPosition target = new HexPosition(0, 5);
+        int farCell = board.indexOf(new HexPosition(3, 0));
+        Integer[] poison = { farCell };
+        CatMoveCache colliding = new CatMoveCache(100, 4) {
+            @Override
+            public Integer get(long key) {
+                Integer forced = poison[0];
+                return forced != null ? forced : super.get(key);
+            }
+        };
+        CachingCatMovementStrategy strategy =
+                new CachingCatMovementStrategy(new BFSCatMovement(board), board, colliding, "EASY");
+
+        HexPosition expected = new BFSCatMovement(board).findBestMove(cat, target).orElseThrow();
+        assertEquals(expected, strategy.findBestMove(cat, target).orElseThrow());
+
+        // La entrada quedó sobrescrita con el movimiento correcto
+        poison[0] = null;
+        assertEquals(expected, strategy.findBestMove(cat, target).orElseThrow());
+        assertEquals(1, colliding.getHits());
+        assertEquals(1, colliding.size());
+    }
+
+    @Test
+    void testEvictsBeyondCapacity() {
+        // Test: La caché no crece más allá de su capacidad
+        CatMoveCache small = new CatMoveCache(8, 2);
+        for (long key = 0; key < 100; key++) {
+            small.put(key, 1);
+        }
+        assertTrue(small.size() <= 8);
+        assertTrue(small.getEvictions() >= 92);
+    }
+
+    private CachingCatMovementStrategy caching(HexGameBoard board, String difficulty) {
+        return new CachingCatMovementStrategy(new BFSCatMovement(board), board, cache, difficulty);
+    }
+}
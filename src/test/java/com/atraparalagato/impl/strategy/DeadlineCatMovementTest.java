@@ -0,0 +1,139 @@
+package com.atraparalagato.impl.strategy;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.atraparalagato.base.model.GameBoard;
+import com.atraparalagato.base.strategy.CatMovementStrategy;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Tests del plazo por movimiento del gato.
+ *
+ * Conceptos de testing:
+ * - Corte cooperativo de búsquedas largas
+ * - Movimiento voraz de respaldo
+ * - Registro de plazos vencidos
+ */
+class DeadlineCatMovementTest {
+
+    @Test
+    void testCutsLongSearch() {
+        // Test: Un minimax con mucho presupuesto corta al vencer el plazo y devuelve su mejor movimiento
+        HexGameBoard board = new HexGameBoard(11);
+        SearchDeadlineMonitor monitor = new SearchDeadlineMonitor(20);
+        DeadlineCatMovement strategy = new DeadlineCatMovement(board,
+                new MinimaxCatMovement(board, 10_000), monitor);
+        HexPosition cat = new HexPosition(0, 0);
+
+        long start = System.nanoTime();
+        Optional<HexPosition> move = strategy.findBestMove(cat, new HexPosition(10, 0));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(move.isPresent());
+        assertTrue(move.get().isAdjacentTo(cat));
+        assertTrue(elapsedMillis < 1_000, "La búsqueda tardó " + elapsedMillis + " ms");
+        assertEquals(1L, monitor.getStatistics().get("searches"));
+        assertEquals(1L, monitor.getStatistics().get("expired"));
+        assertEquals(0L, monitor.getStatistics().get("fallbacks"));
+    }
+
+    @Test
+    void testGreedyFallback() {
+        // Test: Si la búsqueda cortada no eligió movimiento, el gato va hacia el borde
+        HexGameBoard board = new HexGameBoard(5);
+        SearchDeadlineMonitor monitor = new SearchDeadlineMonitor(5);
+        DeadlineCatMovement strategy = new DeadlineCatMovement(board, new WaitForDeadline(board), monitor);
+        HexPosition cat = new HexPosition(3, 0);
+
+        HexPosition move = strategy.findBestMove(cat, new HexPosition(4, 0)).orElseThrow();
+
+        assertTrue(board.getLayout().isEscape(board.indexOf(move)));
+        assertEquals(1L, monitor.getStatistics().get("fallbacks"));
+    }
+
+    @Test
+    void testAStarReturnsPartialPath() {
+        // Test: A* cortado de inmediato igual devuelve un paso válido
+        HexGameBoard board = new HexGameBoard(11);
+        HexPosition cat = new HexPosition(0, 0);
+        long previous = SearchDeadline.begin(0);
+        Optional<HexPosition> move;
+        try {
+            move = new AStarCatMovement(board).findBestMove(cat, new HexPosition(10, 0));
+        } finally {
+            assertTrue(SearchDeadline.end(previous));
+        }
+        assertTrue(move.isPresent());
+        assertTrue(move.get().isAdjacentTo(cat));
+        assertEquals(SearchDeadline.NONE, SearchDeadline.deadline());
+    }
+
+    @Test
+    void testDisabledDeadline() {
+        // Test: Sin plazo la estrategia decorada decide sin registrar búsquedas
+        HexGameBoard board = new HexGameBoard(5);
+        SearchDeadlineMonitor monitor = new SearchDeadlineMonitor(0);
+        DeadlineCatMovement strategy = new DeadlineCatMovement(board, new BFSCatMovement(board), monitor);
+
+        assertTrue(strategy.findBestMove(new HexPosition(0, 0), new HexPosition(4, 0)).isPresent());
+        assertFalse(monitor.isEnabled());
+        assertEquals(0L, monitor.getStatistics().get("searches"));
+    }
+
+    /**
+     * Estrategia que espera a que venza el plazo y no elige movimiento.
+     */
+    private static class WaitForDeadline extends CatMovementStrategy<HexPosition> {
+
+        WaitForDeadline(GameBoard<HexPosition> board) {
+            super(board);
+        }
+
+        @Override
+        protected List<HexPosition> getPossibleMoves(HexPosition currentPosition) {
+            return board.getAdjacentPositions(currentPosition);
+        }
+
+        @Override
+        protected Optional<HexPosition> selectBestMove(List<HexPosition> possibleMoves,
+                                                       HexPosition currentPosition,
+                                                       HexPosition targetPosition) {
+            while (!SearchDeadline.expired()) {
+                Thread.onSpinWait();
+            }
+            return Optional.empty();
+        }
+
+        @Override
+        protected Function<HexPosition, Double> getHeuristicFunction(HexPosition targetPosition) {
+            return position -> 0.0;
+        }
+
+        @Override
+        protected Predicate<HexPosition> getGoalPredicate() {
+            return position -> false;
+        }
+
+        @Override
+        protected double getMoveCost(HexPosition from, HexPosition to) {
+            return 1.0;
+        }
+
+        @Override
+        public boolean hasPathToGoal(HexPosition currentPosition) {
+            return true;
+        }
+
+        @Override
+        public List<HexPosition> getFullPath(HexPosition currentPosition, HexPosition targetPosition) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.atraparalagato.impl.strategy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.atraparalagato.impl.model.HexBoardLayout;
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tests de la evaluación en lote de bloqueos candidatos.
+ *
+ * Conceptos de testing:
+ * - Coincidencia con evaluar cada bloqueo sobre una copia del tablero
+ * - Candidatas inválidas
+ * - Evaluación paralela con muchas candidatas
+ */
+class HexCandidateEvaluatorTest {
+
+    private HexGameBoard board;
+
+    @BeforeEach
+    void setUp() {
+        board = new HexGameBoard(6);
+        board.makeMove(new HexPosition(1, 0));
+        board.makeMove(new HexPosition(1, -1));
+        board.makeMove(new HexPosition(-2, 3));
+        board.makeMove(new HexPosition(0, -2));
+    }
+
+    @Test
+    void testMatchesIndependentEvaluation() {
+        // Test: Cada resultado coincide con bloquear la celda en una copia y medir de nuevo, también en celdas de escape
+        HexPosition cat = new HexPosition(0, 0);
+        HexBoardLayout layout = board.getLayout();
+        List<HexPosition> candidates = new ArrayList<>();
+        for (int i = 0; i < layout.getCellCount(); i++) {
+            HexPosition position = layout.positionAt(i);
+            if (!board.isBlocked(position) && !position.equals(cat))
+                candidates.add(position);
+        }
+
+        List<HexCandidateEvaluator.Evaluation> evaluations = new HexCandidateEvaluator(board).evaluate(cat,
+                candidates);
+
+        assertEquals(candidates.size(), evaluations.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            HexCandidateEvaluator.Evaluation evaluation = evaluations.get(i);
+            assertEquals(candidates.get(i), evaluation.getPosition());
+            assertTrue(evaluation.isValid());
+
+            HexGameBoard copy = new HexGameBoard(6);
+            copy.setBloquedPositions(board.getBlockedPositions());
+            copy.makeMove(candidates.get(i));
+            int expected = escapeDistance(copy, cat);
+            assertEquals(expected, evaluation.getEscapeDistance());
+            if (expected > 0) {
+                HexPosition reply = evaluation.getBestReply().orElseThrow();
+                assertTrue(cat.isAdjacentTo(reply));
+                assertEquals(expected - 1, escapeDistance(copy, reply));
+            }
+        }
+    }
+
+    @Test
+    void testInvalidCandidates() {
+        // Test: Celdas bloqueadas, fuera del tablero o del gato no se evalúan como bloqueo
+        HexPosition cat = new HexPosition(0, 0);
+        List<HexCandidateEvaluator.Evaluation> evaluations = new HexCandidateEvaluator(board).evaluate(cat,
+                List.of(new HexPosition(1, 0), cat, new HexPosition(9, 9)));
+
+        for (HexCandidateEvaluator.Evaluation evaluation : evaluations) {
+            assertFalse(evaluation.isValid());
+        }
+        assertEquals(escapeDistance(board, cat), evaluations.get(0).getEscapeDistance());
+        // Una celda de escape libre sí es un bloqueo válido
+        assertTrue(new HexCandidateEvaluator(board).evaluate(cat, List.of(new HexPosition(5, 0))).get(0).isValid());
+    }
+
+    @Test
+    void testEnclosingBlock() {
+        // Test: El bloqueo que cierra la última salida deja al gato sin respuesta
+        HexPosition cat = new HexPosition(0, 0);
+        for (HexPosition pos : board.getAdjacentPositions(cat)) {
+            if (!pos.equals(new HexPosition(0, 1)))
+                board.makeMove(pos);
+        }
+        HexCandidateEvaluator.Evaluation evaluation = new HexCandidateEvaluator(board)
+                .evaluate(cat, List.of(new HexPosition(0, 1))).get(0);
+
+        assertEquals(HexCandidateEvaluator.UNREACHABLE, evaluation.getEscapeDistance());
+        assertTrue(evaluation.getBestReply().isEmpty());
+    }
+
+    /**
+     * BFS directo hasta las celdas donde el gato escapa.
+     */
+    private static int escapeDistance(HexGameBoard target, HexPosition from) {
+        List<HexPosition> frontier = List.of(from);
+        Set<HexPosition> seen = new HashSet<>(frontier);
+        for (int distance = 0; !frontier.isEmpty(); distance++) {
+            List<HexPosition> next = new ArrayList<>();
+            for (HexPosition position : frontier) {
+                if (target.isAtBorder(position))
+                    return distance;
+                for (HexPosition neighbor : target.getAdjacentPositions(position)) {
+                    if (seen.add(neighbor))
+                        next.add(neighbor);
+                }
+            }
+            frontier = next;
+        }
+        return HexCandidateEvaluator.UNREACHABLE;
+    }
+}
@@ -0,0 +1,114 @@
+package com.atraparalagato.impl.strategy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Tests de la tabla de finales y su generador.
+ *
+ * Conceptos de testing:
+ * - Ida y vuelta entre el generador y el archivo mapeado
+ * - Resultados conocidos con juego perfecto
+ * - Estrategia y sugerencias leídas de la tabla
+ * - Posiciones con salidas bloqueadas, fuera de la tabla
+ */
+class HexTablebaseTest {
+
+    private Path directory;
+    private HexTablebaseLibrary library;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("tablebase");
+        HexTablebaseGenerator.write(HexTablebaseLibrary.fileFor(directory, 3), 3,
+                HexTablebaseGenerator.solve(3, line -> {
+                }));
+        library = new HexTablebaseLibrary(directory.toString());
+    }
+
+    @Test
+    void testLibraryLoadsGeneratedFile() {
+        // Test: La tabla generada se carga solo para su tamaño
+        assertTrue(library.forBoard(new HexGameBoard(3)).isPresent());
+        assertTrue(library.forBoard(new HexGameBoard(4)).isEmpty());
+        assertTrue(library.forBoard(new HexGameBoard(11)).isEmpty());
+        assertTrue(new HexTablebaseLibrary("").forBoard(new HexGameBoard(3)).isEmpty());
+    }
+
+    @Test
+    void testRejectsInvalidFile() throws IOException {
+        // Test: Un archivo que no es una tabla se rechaza al abrirlo
+        Path garbage = directory.resolve("garbage.bin");
+        Files.write(garbage, new byte[64]);
+
+        assertThrows(IOException.class, () -> HexTablebase.open(garbage));
+    }
+
+    @Test
+    void testKnownResults() {
+        // Test: Con el centro libre el gato escapa; encerrado por sus vecinas, pierde
+        HexGameBoard board = new HexGameBoard(3);
+        HexTablebase tablebase = library.forBoard(board).orElseThrow();
+        int center = board.indexOf(new HexPosition(0, 0));
+
+        assertTrue(tablebase.catWins(board, center, true));
+        assertTrue(tablebase.catWins(board, center, false));
+
+        for (HexPosition neighbor : board.getAdjacentPositions(new HexPosition(0, 0))) {
+            if (!neighbor.equals(new HexPosition(1, 0)))
+                board.makeMove(neighbor);
+        }
+        // Queda una sola vecina libre: gana quien mueva primero, y bloquearla es la jugada ganadora
+        assertTrue(tablebase.catWins(board, center, true));
+        assertFalse(tablebase.catWins(board, center, false));
+        assertEquals(board.indexOf(new HexPosition(1, 0)), tablebase.bestBlock(board, center));
+        board.makeMove(new HexPosition(1, 0));
+        assertFalse(tablebase.catWins(board, center, true));
+        assertEquals(-1, tablebase.bestCatMove(board, center));
+    }
+
+    @Test
+    void testStrategyPlaysWinningMoves() {
+        // Test: La estrategia sigue la tabla y recurre al respaldo fuera de ella
+        HexGameBoard board = new HexGameBoard(3);
+        HexTablebase tablebase = library.forBoard(board).orElseThrow();
+        TablebaseCatMovement strategy = new TablebaseCatMovement(board, tablebase, new BFSCatMovement(board));
+        HexPosition cat = new HexPosition(0, 0);
+
+        HexPosition move = strategy.findBestMove(cat, cat).orElseThrow();
+        assertTrue(tablebase.catWins(board, board.indexOf(move), false));
+
+        // Una esquina del anillo exterior: no es interior ni salida
+        HexPosition outside = new HexPosition(3, 0);
+        assertTrue(strategy.findBestMove(outside, outside).isPresent());
+    }
+
+    @Test
+    void testBlockedExitIsOutsideTable() {
+        // Test: Con una salida bloqueada la tabla no responde y decide el respaldo
+        HexGameBoard board = new HexGameBoard(3);
+        HexTablebase tablebase = library.forBoard(board).orElseThrow();
+        TablebaseCatMovement strategy = new TablebaseCatMovement(board, tablebase, new BFSCatMovement(board));
+        HexPosition cat = new HexPosition(1, 0);
+        int catIndex = board.indexOf(cat);
+        assertTrue(tablebase.contains(board, catIndex));
+
+        board.makeMove(new HexPosition(2, 0));
+
+        assertFalse(tablebase.contains(board, catIndex));
+        assertEquals(-1, tablebase.bestCatMove(board, catIndex));
+        assertEquals(-1, tablebase.bestBlock(board, catIndex));
+        assertThrows(IllegalArgumentException.class, () -> tablebase.catWins(board, catIndex, true));
+        HexPosition move = strategy.findBestMove(cat, cat).orElseThrow();
+        assertTrue(board.isAtBorder(move));
+        assertFalse(move.equals(new HexPosition(2, 0)));
+    }
+}
@@ -0,0 +1,128 @@
+package com.atraparalagato.impl.strategy;
+
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Comparación entre A* sobre todas las celdas y la planificación sobre el grafo
+ * por grupos de celdas en tableros grandes.
+ *
+ * No es un test: se ejecuta a mano con
+ * java -cp target/classes:target/test-classes com.atraparalagato.impl.strategy.HierarchicalBenchmark [tamaños] [partidas]
+ *
+ * Para cada tamaño se juegan partidas en dos escenarios: con un 20% de celdas
+ * bloqueadas al azar, y con anillos bloqueados cada 8 anillos que solo tienen
+ * un hueco, alternando el lado, de forma que el camino al borde da vueltas. En
+ * cada turno el jugador bloquea una celda libre al azar cerca del gato y el gato
+ * se mueve hacia la celda de borde más cercana. Ambas estrategias juegan las
+ * mismas partidas sobre el mismo tablero, que mantiene sus estructuras al día
+ * con cada bloqueo como en una partida real. Se informa el tiempo promedio por
+ * turno (bloqueo y movimiento del gato) y en cuántas partidas escapó el gato.
+ */
+public class HierarchicalBenchmark {
+
+    private static final int TURNS = 40;
+
+    public static void main(String[] args) {
+        String sizes = args.length > 0 ? args[0] : "25,50,100,150";
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        for (String value : sizes.split(",")) {
+            int size = Integer.parseInt(value.trim());
+            for (boolean rings : new boolean[] { false, true }) {
+                // Calentamiento
+                play(size, 2, rings, false, new Random(1));
+                play(size, 2, rings, true, new Random(1));
+
+                long[] flat = play(size, games, rings, false, new Random(42));
+                long[] hierarchical = play(size, games, rings, true, new Random(42));
+                System.out.printf("Tablero de tamaño %d (%d celdas), %s, %d partidas%n", size,
+                        3 * size * (size + 1) + 1, rings ? "anillos" : "al azar", games);
+                System.out.printf("  A* plano  : %10.2f µs/turno, %4d movimientos, %d escapes%n",
+                        flat[0] / 1000.0 / flat[1], flat[1], flat[2]);
+                System.out.printf("  jerárquico: %10.2f µs/turno, %4d movimientos, %d escapes%n",
+                        hierarchical[0] / 1000.0 / hierarchical[1], hierarchical[1], hierarchical[2]);
+            }
+        }
+    }
+
+    /**
+     * Juega las partidas y retorna el tiempo total de los movimientos del gato,
+     * la cantidad de movimientos y las partidas en que escapó.
+     */
+    private static long[] play(int size, int games, boolean rings, boolean hierarchical, Random random) {
+        long nanos = 0;
+        long moves = 0;
+        long escapes = 0;
+        for (int game = 0; game < games; game++) {
+            HexGameBoard board = new HexGameBoard(size);
+            HexPosition cat = HexPosition.of(0, 0);
+            for (int i = 0; i < board.getCellCount(); i++) {
+                HexPosition position = board.positionAt(i);
+                if (!position.equals(cat) && (rings ? onRingWall(board, i) : random.nextDouble() < 0.2))
+                    board.makeMove(position);
+            }
+            if (hierarchical)
+                board.getClusterGraph();
+
+            for (int turn = 0; turn < TURNS; turn++) {
+                // El bloqueo entra en la medición: actualiza las estructuras del tablero
+                HexPosition block = randomNear(board, cat, random);
+                long start = System.nanoTime();
+                if (block != null)
+                    board.makeMove(block);
+                int catIndex = board.indexOf(cat);
+                if (board.getLayout().isEscape(catIndex)) {
+                    escapes++;
+                    break;
+                }
+                int border = board.getBorderDistance().nearestBorder(catIndex);
+                if (border < 0)
+                    break;
+                HexPosition target = board.positionAt(border);
+
+                Optional<HexPosition> move = hierarchical
+                        ? new HierarchicalCatMovement(board).findBestMove(cat, target)
+                        : new AStarCatMovement(board).findBestMove(cat, target);
+                nanos += System.nanoTime() - start;
+                moves++;
+                if (move.isEmpty())
+                    break;
+                cat = move.get();
+            }
+        }
+        return new long[] { nanos, moves, escapes };
+    }
+
+    /**
+     * Celdas de los anillos 8, 16, 24... salvo un hueco de tres celdas, en el
+     * lado positivo de q en los anillos pares y en el negativo en los impares.
+     */
+    private static boolean onRingWall(HexGameBoard board, int index) {
+        int ring = board.getLayout().getRing(index);
+        if (ring == 0 || ring % 8 != 0 || ring >= board.getSize() - 1)
+            return false;
+        HexPosition position = board.positionAt(index);
+        int side = (ring / 8) % 2 == 0 ? ring : -ring;
+        return !(position.getQ() == side && Math.abs(position.getR() + side / 2) <= 1);
+    }
+
+    private static HexPosition randomNear(HexGameBoard board, HexPosition cat, Random random) {
+        List<HexPosition> candidates = new ArrayList<>();
+        for (int dq = -3; dq <= 3; dq++) {
+            for (int dr = -3; dr <= 3; dr++) {
+                HexPosition position = HexPosition.of(cat.getQ() + dq, cat.getR() + dr);
+                int index = board.indexOf(position);
+                if (index >= 0 && !position.equals(cat) && !board.isBlocked(index)
+                        && !board.getLayout().isEscape(index))
+                    candidates.add(position);
+            }
+        }
+        return candidates.isEmpty() ? null : candidates.get(random.nextInt(candidates.size()));
+    }
+}
@@ -0,0 +1,99 @@
+package com.atraparalagato.impl.strategy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.Optional;
+
+/**
+ * Tests de la estrategia Monte Carlo Tree Search paralela.
+ *
+ * Conceptos de testing:
+ * - Escape inmediato cuando está disponible
+ * - Respuesta sin movimientos cuando el gato está rodeado
+ * - Reparto del presupuesto de playouts entre hilos y métricas
+ * - Salidas que el jugador puede bloquear
+ */
+class MctsCatMovementTest {
+
+    private HexGameBoard board;
+    private MctsSearchPool pool;
+
+    @BeforeEach
+    void setUp() {
+        board = new HexGameBoard(5);
+        pool = new MctsSearchPool(2, 2000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testTakesImmediateEscape() {
+        // Test: Si una vecina es de escape, el gato va directo a ella sin buscar
+        HexPosition cat = new HexPosition(3, 0);
+        Optional<HexPosition> move = new MctsCatMovement(board, pool).findBestMove(cat, cat);
+
+        assertTrue(move.isPresent());
+        assertTrue(board.isAtBorder(move.get()));
+    }
+
+    @Test
+    void testNoMoveWhenSurrounded() {
+        // Test: Sin vecinas libres no hay movimiento
+        HexPosition cat = new HexPosition(0, 0);
+        board.getAdjacentPositions(cat).forEach(board::makeMove);
+
+        assertTrue(new MctsCatMovement(board, pool).findBestMove(cat, cat).isEmpty());
+    }
+
+    @Test
+    void testAvoidsEnclosedRegion() {
+        // Test: El gato no entra a una región que ya no tiene salida
+        HexPosition cat = new HexPosition(0, 0);
+        // Pared que encierra las celdas (1,0) y (2,-1) salvo por su entrada desde el gato
+        for (HexPosition pos : new HexPosition[] { new HexPosition(1, -1), new HexPosition(2, -2),
+                new HexPosition(3, -2), new HexPosition(3, -1), new HexPosition(2, 0), new HexPosition(1, 1),
+                new HexPosition(0, 1) }) {
+            board.makeMove(pos);
+        }
+        HexPosition move = new MctsCatMovement(board, pool).findBestMove(cat, cat).orElseThrow();
+
+        assertNotEquals(new HexPosition(1, 0), move);
+        assertTrue(board.canReachBorder(move));
+    }
+
+    @Test
+    void testAvoidsPocketWithSingleExit() {
+        // Test: Una celda con una sola salida libre no es un escape seguro, el jugador bloquea la salida
+        HexPosition cat = new HexPosition(2, 0);
+        // (3,0) solo sale por (4,-1) y vuelve al gato; (1,0) es la otra salida de la región
+        for (HexPosition pos : new HexPosition[] { new HexPosition(3, -1), new HexPosition(2, -1),
+                new HexPosition(2, 1), new HexPosition(1, 1), new HexPosition(4, 0), new HexPosition(3, 1),
+                new HexPosition(-3, 2), new HexPosition(1, -3) }) {
+            board.makeMove(pos);
+        }
+
+        assertEquals(new HexPosition(1, 0), new MctsCatMovement(board, pool).findBestMove(cat, cat).orElseThrow());
+    }
+
+    @Test
+    void testRecordsPlayouts() {
+        // Test: El presupuesto se reparte entre los hilos y se informa en las métricas
+        MctsCatMovement strategy = new MctsCatMovement(board, pool);
+        HexPosition cat = new HexPosition(0, 0);
+
+        assertTrue(strategy.findBestMove(cat, cat).isPresent());
+        assertEquals(2000, strategy.getLastPlayouts());
+        assertEquals(2000L, pool.getStatistics().get("playouts"));
+        assertEquals(1L, pool.getStatistics().get("searches"));
+        assertTrue(pool.getPlayoutsPerSecond() > 0);
+    }
+}
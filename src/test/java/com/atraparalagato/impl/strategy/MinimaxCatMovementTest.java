@@ -0,0 +1,95 @@
+package com.atraparalagato.impl.strategy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.util.Optional;
+
+/**
+ * Tests de la estrategia minimax con poda alfa-beta.
+ *
+ * Conceptos de testing:
+ * - Escape inmediato cuando está disponible
+ * - Respuesta sin movimientos cuando el gato está rodeado
+ * - Respeto del presupuesto de tiempo
+ * - Salidas que el jugador puede bloquear
+ */
+class MinimaxCatMovementTest {
+
+    private HexGameBoard board;
+
+    @BeforeEach
+    void setUp() {
+        board = new HexGameBoard(5);
+    }
+
+    @Test
+    void testTakesImmediateEscape() {
+        // Test: Si una vecina es de escape, el gato va directo a ella
+        HexPosition cat = new HexPosition(3, 0);
+        Optional<HexPosition> move = new MinimaxCatMovement(board).findBestMove(cat, cat);
+
+        assertTrue(move.isPresent());
+        assertTrue(board.isAtBorder(move.get()));
+    }
+
+    @Test
+    void testNoMoveWhenSurrounded() {
+        // Test: Sin vecinas libres no hay movimiento
+        HexPosition cat = new HexPosition(0, 0);
+        board.getAdjacentPositions(cat).forEach(board::makeMove);
+
+        assertTrue(new MinimaxCatMovement(board).findBestMove(cat, cat).isEmpty());
+    }
+
+    @Test
+    void testAvoidsEnclosedRegion() {
+        // Test: El gato no entra a una región que ya no tiene salida
+        HexPosition cat = new HexPosition(0, 0);
+        // Pared que encierra las celdas (1,0) y (2,-1) salvo por su entrada desde el gato
+        for (HexPosition pos : new HexPosition[] { new HexPosition(1, -1), new HexPosition(2, -2),
+                new HexPosition(3, -2), new HexPosition(3, -1), new HexPosition(2, 0), new HexPosition(1, 1),
+                new HexPosition(0, 1) }) {
+            board.makeMove(pos);
+        }
+        MinimaxCatMovement strategy = new MinimaxCatMovement(board, 20);
+        HexPosition move = strategy.findBestMove(cat, cat).orElseThrow();
+
+        assertNotEquals(new HexPosition(1, 0), move);
+        assertTrue(board.canReachBorder(move));
+    }
+
+    @Test
+    void testAvoidsPocketWithSingleExit() {
+        // Test: Una celda con una sola salida libre no es un escape seguro, el jugador bloquea la salida
+        HexPosition cat = new HexPosition(2, 0);
+        // (3,0) solo sale por (4,-1) y vuelve al gato; (1,0) es la otra salida de la región
+        for (HexPosition pos : new HexPosition[] { new HexPosition(3, -1), new HexPosition(2, -1),
+                new HexPosition(2, 1), new HexPosition(1, 1), new HexPosition(4, 0), new HexPosition(3, 1),
+                new HexPosition(-3, 2), new HexPosition(1, -3) }) {
+            board.makeMove(pos);
+        }
+        MinimaxCatMovement strategy = new MinimaxCatMovement(board, 50);
+
+        assertEquals(new HexPosition(1, 0), strategy.findBestMove(cat, cat).orElseThrow());
+    }
+
+    @Test
+    void testRespectsTimeBudget() {
+        // Test: La búsqueda termina cerca del presupuesto y completa al menos una iteración
+        HexGameBoard large = new HexGameBoard(11);
+        MinimaxCatMovement strategy = new MinimaxCatMovement(large, 5);
+        HexPosition cat = new HexPosition(0, 0);
+
+        long start = System.nanoTime();
+        assertTrue(strategy.findBestMove(cat, cat).isPresent());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 500, "La búsqueda tardó " + elapsedMillis + " ms");
+        assertTrue(strategy.getCompletedDepth() >= 1);
+    }
+}
@@ -0,0 +1,110 @@
+package com.atraparalagato.impl.strategy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.atraparalagato.impl.model.HexGameBoard;
+import com.atraparalagato.impl.model.HexPosition;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Tests del libro de aperturas y su generador.
+ *
+ * Conceptos de testing:
+ * - Ida y vuelta entre el generador y el archivo
+ * - Respuestas del libro iguales a las de la estrategia
+ * - Respaldo en la estrategia fuera del libro
+ * - Respuestas guardadas que no son movimientos legales
+ */
+class OpeningBookTest {
+
+    private Path file;
+    private OpeningBook book;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        SortedMap<Long, Integer> entries = new TreeMap<>();
+        new OpeningBookBuilder(2, 1, OpeningBookBuilder.defaultStrategies(5)).build(5, entries);
+        file = Files.createTempDirectory("opening-book").resolve("book.bin");
+        OpeningBookBuilder.write(file, entries);
+        book = OpeningBook.load(file);
+    }
+
+    @Test
+    void testLoadsGeneratedBook() {
+        // Test: El libro cubre los bloqueos vecinos al gato en cada dificultad
+        assertTrue(book.size() >= 3 * 6);
+        assertEquals(0, OpeningBook.empty().size());
+        assertEquals(0, OpeningBook.loadOrEmpty("").size());
+        assertEquals(0, OpeningBook.loadOrEmpty(file.resolveSibling("missing.bin").toString()).size());
+    }
+
+    @Test
+    void testRejectsInvalidFile() throws IOException {
+        // Test: Un archivo que no es un libro se rechaza al cargarlo
+        Path garbage = file.resolveSibling("garbage.bin");
+        Files.write(garbage, new byte[64]);
+
+        assertThrows(IOException.class, () -> OpeningBook.load(garbage));
+        assertEquals(0, OpeningBook.loadOrEmpty(garbage.toString()).size());
+    }
+
+    @Test
+    void testReplyMatchesStrategy() {
+        // Test: La respuesta guardada es la misma que calcula la estrategia
+        HexGameBoard board = new HexGameBoard(5);
+        HexPosition cat = new HexPosition(0, 0);
+        board.makeMove(new HexPosition(1, 0));
+        int catIndex = board.indexOf(cat);
+
+        int reply = book.lookup(board, catIndex, "HARD");
+        assertTrue(reply >= 0);
+        HexPosition target = board.positionAt(board.getBorderDistance().nearestBorder(catIndex));
+        assertEquals(new AStarCatMovement(board).findBestMove(cat, target).orElseThrow(), board.positionAt(reply));
+
+        // Otra dificultad es otra entrada del libro
+        assertTrue(book.lookup(board, catIndex, "EASY") >= 0);
+        assertEquals(-1, book.lookup(board, catIndex, "UNKNOWN"));
+    }
+
+    @Test
+    void testStrategyFallsBackOutsideBook() {
+        // Test: Fuera del libro decide la estrategia decorada
+        HexGameBoard board = new HexGameBoard(5);
+        board.makeMove(new HexPosition(-2, 0));
+        board.makeMove(new HexPosition(2, -1));
+        board.makeMove(new HexPosition(0, 2));
+        HexPosition cat = new HexPosition(0, 0);
+        OpeningBookCatMovement strategy = new OpeningBookCatMovement(board, book, "HARD", new BFSCatMovement(board));
+
+        assertEquals(-1, book.lookup(board, board.indexOf(cat), "HARD"));
+        assertTrue(strategy.findBestMove(cat, new HexPosition(4, 0)).isPresent());
+        // La consulta directa y la del decorador
+        assertEquals(2L, book.getStatistics().get("misses"));
+    }
+
+    @Test
+    void testIllegalReplyFallsBackToStrategy() throws IOException {
+        // Test: Una respuesta guardada que no es vecina libre del gato se ignora
+        HexGameBoard board = new HexGameBoard(5);
+        HexPosition cat = new HexPosition(0, 0);
+        int catIndex = board.indexOf(cat);
+        SortedMap<Long, Integer> entries = new TreeMap<>();
+        entries.put(OpeningBook.positionKey(board, catIndex, "HARD"), board.indexOf(new HexPosition(3, 0)));
+        Path corrupt = file.resolveSibling("corrupt.bin");
+        OpeningBookBuilder.write(corrupt, entries);
+        OpeningBook corruptBook = OpeningBook.load(corrupt);
+        OpeningBookCatMovement strategy = new OpeningBookCatMovement(board, corruptBook, "HARD",
+                new BFSCatMovement(board));
+
+        assertEquals(board.indexOf(new HexPosition(3, 0)), corruptBook.lookup(board, catIndex, "HARD"));
+        HexPosition move = strategy.findBestMove(cat, new HexPosition(4, 0)).orElseThrow();
+        assertTrue(move.isAdjacentTo(cat));
+    }
+}